@@ -0,0 +1,125 @@
+package poker_app;
+
+import java.util.SplittableRandom;
+
+import poker_app.game.Player;
+import poker_app.user.Strategy;
+import poker_app.user.StrategyUser;
+
+/**
+ * Runs hands of a {@link Table} headless, that is on the calling thread, with
+ * no observers, no equity calculation and users acting by a {@link Strategy}
+ * without stalling, for evaluating strategies and regression testing.
+ * <p>
+ * The table reuses its deck and players between hands, so a run of hands
+ * allocates little more than one {@link poker_app.game.Game} per hand.
+ * <p>
+ * Last modified: 18 October 2026
+ * 
+ * @author Jakob Martin Torsvik
+ */
+public class Simulator {
+	// CONSTANTS
+	/** Table to run hands at. */
+	private final Table table;
+
+	// NON-CONSTANTS
+	/** Number of hands played by {@link #run(int)}. */
+	private long handsPlayed = 0;
+	/** Nanoseconds spent in {@link #run(int)}. */
+	private long nanos = 0;
+
+	/**
+	 * Inits: {@link #table} as a table with no equity calculator, dealing with a
+	 * {@link SplittableRandom} seeded by param seed
+	 * 
+	 * @param numSeats Number of seats at table, set to 2 if less than 2, set to 23
+	 *                 if greater than 23
+	 * @param seed     Seed of the dealing, so that runs with the same seed and
+	 *                 deterministic strategies play the same hands
+	 */
+	public Simulator(int numSeats, long seed) {
+		table = new Table("Simulation", numSeats, new SplittableRandom(seed));
+		table.setEquityCalculator(null);
+	}
+
+	/**
+	 * Adds a player acting by a strategy to the table, seated before the next
+	 * hand.
+	 * 
+	 * @param name     Name of the user of the player
+	 * @param strategy Decides the actions of the player
+	 * @return The added player
+	 */
+	public Player addPlayer(String name, Strategy strategy) {
+		Player player = new Player();
+		player.setUser(new StrategyUser(name, strategy));
+		table.addPlayer(player);
+		return player;
+	}
+
+	/**
+	 * Plays a number of hands at {@link #table}.
+	 * 
+	 * @param hands Number of hands to play
+	 * @return Hands played per second during this run
+	 */
+	public double run(int hands) {
+		long start = System.nanoTime();
+		table.playHands(hands);
+		long time = System.nanoTime() - start;
+
+		handsPlayed += hands;
+		nanos += time;
+		return hands * 1e9 / Long.max(time, 1);
+	}
+
+	// ----------------
+	// Setters/Getters:
+	// ----------------
+
+	public Table getTable() {
+		return table;
+	}
+
+	public long getHandsPlayed() {
+		return handsPlayed;
+	}
+
+	/**
+	 * @return Hands played per second over all runs
+	 */
+	public double getHandsPerSecond() {
+		return handsPlayed * 1e9 / Long.max(nanos, 1);
+	}
+
+	/**
+	 * Plays hands between players acting at random, and reports the speed and the
+	 * profit of each player.
+	 * 
+	 * @param args Number of seats (default 6), number of hands (default 1000000)
+	 *             and seed (default 0)
+	 */
+	public static void main(String[] args) {
+		int numSeats = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+		int hands = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+
+		Simulator simulator = new Simulator(numSeats, seed);
+		for (int i = 0; i < numSeats; i++) {
+			simulator.addPlayer("Bot " + (i + 1), Strategy.random(new SplittableRandom(seed + i + 1)));
+		}
+
+		// Warm up before measuring
+		simulator.run(Integer.min(hands, 10000));
+		double handsPerSecond = simulator.run(hands);
+
+		System.out.printf("Played %d hands at %.0f hands/s (%.1f million hands/min)%n", hands, handsPerSecond,
+				handsPerSecond * 60 / 1e6);
+		for (Player player : simulator.getTable().getSeats()) {
+			if (player != null) {
+				System.out.println("  " + player.getUser() + ": " + player.getProfit());
+			}
+		}
+	}
+}
@@ -3,8 +3,18 @@ package poker_app;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
-
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+import poker_app.game.ActionClock;
+import poker_app.game.Deck;
+import poker_app.game.EquityCalculator;
 import poker_app.game.Game;
+import poker_app.game.OddChipPolicy;
 import poker_app.game.Player;
 import poker_app.game.Position;
 import poker_app.observer.TableObserver;
@@ -16,11 +26,15 @@ import java.util.Arrays;
 /**
  * Represents a table for running games of poker of class {@link poker_app.game.Game}.
  * <p>
- * Last modified: 6 April 2021
+ * Last modified: 18 October 2026
  * 
  * @author Jakob Martin Torsvik
  */
 public class Table implements Runnable {
+	// STATIC
+	/** Milliseconds to wait before trying again when there are too few players to play a hand. */
+	private final static long IDLE_MILLIS = 100;
+
 	// CONSTANTS
 	/** Number of seats at table. */
 	private final int numSeats;
@@ -34,12 +48,20 @@ public class Table implements Runnable {
 	private final String name;
 	/** Observers of the table. */
 	private final Collection<TableObserver> observers = new ArrayList<>();
+	/** Deck to deal every hand from. */
+	private final Deck deck;
 
 	// NON-CONSTANTS
 	/** Is table running. */
-	private boolean running = false;
-	/** Running thread. */
+	private volatile boolean running = false;
+	/** Running thread, null if not running on a thread of its own. */
 	private Thread tableThread;
+	/** Runs the table event-driven, null if running on a thread of its own. */
+	private ScheduledExecutorService scheduler;
+	/** Game being played when running event-driven, null between hands. */
+	private Game game;
+	/** Completed when the table has stopped running. */
+	private CompletableFuture<Void> stopped = CompletableFuture.completedFuture(null);
 	/** Chips in small blind. */
 	private int smallBlind = 5;
 	/** Chips in big blind */
@@ -49,9 +71,37 @@ public class Table implements Runnable {
 	/** Maximum chips in starting stack. */
 	private int maxStartingStack = 100 * bigBlind;
 	/** Number of hands played. */
-	private int handsPlayed = 0;
+	private volatile int handsPlayed = 0;
+	/**
+	 * For calculating the equity of players all-in before the river, null if not
+	 * to be calculated.
+	 */
+	private EquityCalculator equityCalculator = new EquityCalculator();
+	/** Decides who gets the odd chips of a split pot. */
+	private OddChipPolicy oddChipPolicy = OddChipPolicy.BY_POSITION;
+	/** Limits the time to act, null if there is no limit. */
+	private ActionClock actionClock;
 
+	/**
+	 * Inits: {@link #deck} as a {@link Deck} dealing with a
+	 * {@link SplittableRandom}
+	 * 
+	 * @see #Table(String, int, RandomGenerator)
+	 */
 	public Table(String name, int numSeats) {
+		this(name, numSeats, new SplittableRandom());
+	}
+
+	/**
+	 * Inits: {@link #name} as param name, {@link #numSeats} as param numSeats,
+	 * {@link #deck} as a {@link Deck} dealing with param random
+	 * 
+	 * @param name     Name of table
+	 * @param numSeats Number of seats at table, set to 2 if less than 2, set to 23
+	 *                 if greater than 23
+	 * @param random   Random number generator to deal with
+	 */
+	public Table(String name, int numSeats, RandomGenerator random) {
 		// Preprocessing
 		if (numSeats < 2) {
 			numSeats = 2;
@@ -62,6 +112,7 @@ public class Table implements Runnable {
 		// Inits
 		this.name = name;
 		this.numSeats = numSeats;
+		deck = new Deck(random);
 
 		// Init seats as a list of null values of length numSeats
 		seats = new ArrayList<>(numSeats);
@@ -72,47 +123,185 @@ public class Table implements Runnable {
 	}
 
 	/**
-	 * Starts running of the table using {@link #tableThread}.
+	 * Starts running of the table on a new platform thread as
+	 * {@link #tableThread}.
+	 * 
+	 * @see #start(ThreadFactory)
 	 */
 	public synchronized void start() {
+		start(runnable -> new Thread(runnable, name));
+	}
+
+	/**
+	 * Starts running of the table on a thread of its own as {@link #tableThread},
+	 * which blocks while users decide.
+	 * 
+	 * @param threadFactory Makes the thread, for example of virtual threads
+	 */
+	public synchronized void start(ThreadFactory threadFactory) {
 		// Table is now running
 		running = true;
+		stopped = new CompletableFuture<>();
 
 		// Start thread
-		tableThread = new Thread(this, name);
+		tableThread = threadFactory.newThread(this);
 		tableThread.start();
 	}
 
 	/**
-	 * Stops running of the table.
+	 * Starts running of the table event-driven on {@link #scheduler}, without a
+	 * thread of its own. The table runs on the scheduler while users decide right
+	 * away, and gives the thread back while waiting for a user to act later, so
+	 * one small scheduler can run many tables.
+	 * <p>
+	 * Users that block while deciding, like
+	 * {@link poker_app.user.text_user.TextUser}, block a thread of the scheduler.
+	 * 
+	 * @param scheduler Scheduler to run on
+	 */
+	public synchronized void start(ScheduledExecutorService scheduler) {
+		// Table is now running
+		running = true;
+		stopped = new CompletableFuture<>();
+
+		// Start on scheduler
+		this.scheduler = scheduler;
+		scheduler.execute(this::resume);
+	}
+
+	/**
+	 * Stops running of the table after the current hand, and waits until it has
+	 * stopped.
+	 */
+	public void stop() {
+		stopAsync().join();
+	}
+
+	/**
+	 * Stops running of the table after the current hand, without waiting.
+	 * 
+	 * @return A future completed when the table has stopped
 	 */
-	public synchronized void stop() {
+	public synchronized CompletableFuture<Void> stopAsync() {
 		// Table is no longer running
 		running = false;
-
-		// Stop thread
-		try {
-			tableThread.join();
-		} catch (InterruptedException e) {
-			System.out.println("Error while joining thread " + tableThread + ".");
-		}
+		return stopped;
 	}
 
 	@Override
 	public void run() {
 		while (running) {
-			// Seat waiting players
-			seatWaitingPlayers();
+			// Wait for players if no hand could be played
+			if (!playHand()) {
+				try {
+					TimeUnit.MILLISECONDS.sleep(IDLE_MILLIS);
+				} catch (InterruptedException e) {
+					System.out.println("Error while sleeping.");
+					break;
+				}
+			}
+		}
+		stopped.complete(null);
+	}
+
+	/**
+	 * Runs the table event-driven, until a user is on action that does not act
+	 * before {@link Player#onAction()} returns. Is resumed on {@link #scheduler}
+	 * when that user acts, or after {@link #IDLE_MILLIS} if there are too few
+	 * players to play a hand.
+	 */
+	private void resume() {
+		try {
+			step();
+		} catch (RuntimeException e) {
+			// Nothing would resume the table, so report it as stopped
+			System.out.println("Error while running table " + name + ": " + e);
+			running = false;
+			stopped.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * Runs the table event-driven, as {@link #resume()}.
+	 */
+	private void step() {
+		while (true) {
+			// Start a new hand between hands
+			if (game == null) {
+				if (!running) {
+					stopped.complete(null);
+					return;
+				}
+
+				seatWaitingPlayers();
+				sittingInOrOut();
+				game = startGame();
+
+				// Wait for players if no hand could be played
+				if (game == null) {
+					scheduler.schedule(this::resume, IDLE_MILLIS, TimeUnit.MILLISECONDS);
+					return;
+				}
+			}
+
+			// End hand if the game is finished, or resume when the held off board is
+			// run out
+			Player player = game.getPlayerOnAction();
+			if (player == null) {
+				if (game.runAfterAction(game.getNumActions(), () -> scheduler.execute(this::resume))) {
+					return;
+				}
+				endGame();
+				game = null;
+				rotate();
+				continue;
+			}
+
+			// Let player decide, and resume when they act if they have not yet
+			int actions = game.getNumActions();
+			player.onAction();
+			if (game.runAfterAction(actions, () -> scheduler.execute(this::resume))) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Plays a number of hands on the calling thread, without starting
+	 * {@link #tableThread}. Meant for headless simulation, where the users decide
+	 * without blocking and there are no observers.
+	 * 
+	 * @param hands Number of hands to go through
+	 * @see poker_app.Simulator
+	 */
+	public void playHands(int hands) {
+		for (int i = 0; i < hands; i++) {
+			playHand();
+		}
+	}
 
-			// If any players will sit in or out
-			sittingInOrOut();
+	/**
+	 * Seats waiting players, lets players sit in or out, plays one hand and
+	 * rotates the positions if it was played.
+	 * 
+	 * @return If a hand was played
+	 */
+	private boolean playHand() {
+		// Seat waiting players
+		seatWaitingPlayers();
+
+		// If any players will sit in or out
+		sittingInOrOut();
 
-			// Play one hand
-			play();
+		// Play one hand
+		boolean played = play();
 
-			// Rotate
+		// Rotate, which there are no positions to do if no one is sitting in
+		if (played) {
 			rotate();
 		}
+
+		return played;
 	}
 
 	/**
@@ -123,11 +312,18 @@ public class Table implements Runnable {
 		boolean findPos = false;
 
 		// Loop while playerQueue is not empty and table is not full
-		while (!(playerQueue.isEmpty() || full())) {
+		while (true) {
+			// Remove first player in queue, which players may be added to from other threads
+			Player p;
+			synchronized (playerQueue) {
+				if (playerQueue.isEmpty() || full()) {
+					break;
+				}
+				p = playerQueue.remove(0);
+			}
 			findPos = true;
 
-			// Get first player in queue and its user
-			Player p = playerQueue.get(0);
+			// Get user of player
 			User u = p.getUser();
 
 			// Seat player at picked seat
@@ -138,8 +334,10 @@ public class Table implements Runnable {
 			// Set players stack to chosen starting stack
 			p.setStack(u.chooseStartingStack(p));
 
-			// Remove player from queue
-			playerQueue.remove(0);
+			// Give player a full time bank
+			if (actionClock != null) {
+				p.setTimeBank(actionClock.getTimeBankMillis());
+			}
 		}
 
 		if (findPos) {
@@ -188,30 +386,63 @@ public class Table implements Runnable {
 
 	/**
 	 * Goes through one {@link #Game}.
+	 * 
+	 * @return If the game was played, which it is only if there are more than one
+	 *         player
+	 */
+	public boolean play() {
+		Game game = startGame();
+		if (game == null) {
+			return false;
+		}
+
+		// Play the game and end hand for observers
+		game.play();
+		endGame();
+		return true;
+	}
+
+	/**
+	 * Creates and starts a {@link Game} between the players in game.
+	 * 
+	 * @return The started game, null if there are not more than one player
 	 */
-	public void play() {
+	private Game startGame() {
 		List<Player> pInGame = playersInGame();
 
 		// Only play the game if there are more than one player
-		if (pInGame.size() > 1) {
-			// Create game
-			Game game = new Game(pInGame, smallBlind, bigBlind);
-
-			// Add and start hand for observers
-			for (TableObserver obs : observers) {
-				game.addObserver(obs);
-				obs.startHand();
-			}
+		if (pInGame.size() < 2) {
+			return null;
+		}
 
-			// Play the game and end hand for observers
-			game.play();
-			for (TableObserver obs : observers) {
-				obs.endHand();
-			}
+		// Create game with all cards back in deck
+		deck.reset();
+		Game game = new Game(pInGame, smallBlind, bigBlind, deck);
+		game.setEquityCalculator(equityCalculator);
+		game.setOddChipPolicy(oddChipPolicy);
+		game.setActionClock(actionClock);
+
+		// Add and start hand for observers
+		for (TableObserver obs : observers) {
+			game.addObserver(obs);
+			obs.startHand();
+		}
+
+		game.start();
+		return game;
+	}
 
-			// Increment handsPlayed
-			handsPlayed++;
+	/**
+	 * Ends the hand of a finished {@link Game}.
+	 */
+	private void endGame() {
+		// End hand for observers
+		for (TableObserver obs : observers) {
+			obs.endHand();
 		}
+
+		// Increment handsPlayed
+		handsPlayed++;
 	}
 
 	/**
@@ -297,7 +528,9 @@ public class Table implements Runnable {
 	 */
 	public void queuePlayer(Player player) {
 		if (player != null) {
-			playerQueue.add(player);
+			synchronized (playerQueue) {
+				playerQueue.add(player);
+			}
 		}
 	}
 
@@ -308,7 +541,9 @@ public class Table implements Runnable {
 	 */
 	public void deQueuePlayer(Player player) {
 		if (player != null) {
-			playerQueue.remove(player);
+			synchronized (playerQueue) {
+				playerQueue.remove(player);
+			}
 		}
 	}
 
@@ -344,7 +579,9 @@ public class Table implements Runnable {
 	 */
 	public void addPlayer(Player player) {
 		player.setTable(this);
-		playerQueue.add(player);
+		synchronized (playerQueue) {
+			playerQueue.add(player);
+		}
 	}
 	
 	/**
@@ -392,6 +629,40 @@ public class Table implements Runnable {
 		return handsPlayed;
 	}
 
+	public void setEquityCalculator(EquityCalculator equityCalculator) {
+		this.equityCalculator = equityCalculator;
+	}
+
+	public EquityCalculator getEquityCalculator() {
+		return equityCalculator;
+	}
+
+	/**
+	 * @param oddChipPolicy Decides who gets the odd chips of a split pot
+	 * @throws IllegalArgumentException if oddChipPolicy is null
+	 */
+	public void setOddChipPolicy(OddChipPolicy oddChipPolicy) {
+		if (oddChipPolicy == null) {
+			throw new IllegalArgumentException("The OddChipPolicy oddChipPolicy can not be null.");
+		}
+		this.oddChipPolicy = oddChipPolicy;
+	}
+
+	public OddChipPolicy getOddChipPolicy() {
+		return oddChipPolicy;
+	}
+
+	/**
+	 * @param actionClock Limits the time to act, null if there is no limit
+	 */
+	public void setActionClock(ActionClock actionClock) {
+		this.actionClock = actionClock;
+	}
+
+	public ActionClock getActionClock() {
+		return actionClock;
+	}
+
 	public static void main(String[] args) {
 		Table table = new Table("Test", 2);
 		System.out.println(table.full());
@@ -0,0 +1,277 @@
+package poker_app;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs many {@link Table}s as a group, either each on a virtual thread of its
+ * own, or event-driven on one bounded scheduler, so that thousands of tables
+ * that are mostly waiting for players do not need one platform thread each.
+ * <p>
+ * Virtual threads are used if the runtime has them. Otherwise, the tables run
+ * event-driven on a scheduler with one thread per processor, which needs users
+ * that do not block while deciding (see {@link Table#start(ScheduledExecutorService)}).
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class TableManager {
+	// STATIC
+	/** Makes virtual threads, null if the runtime does not have them. */
+	private final static ThreadFactory VIRTUAL_THREADS = virtualThreadFactory();
+
+	// CONSTANTS
+	/** Managed tables by name. */
+	private final Map<String, Entry> tables = new ConcurrentHashMap<>();
+	/** Makes a thread per table, null if running event-driven. */
+	private final ThreadFactory threadFactory;
+	/** Runs the tables event-driven, null if running a thread per table. */
+	private final ScheduledExecutorService scheduler;
+	/** If {@link #scheduler} is made by this manager, and should be shut down with it. */
+	private final boolean ownsScheduler;
+
+	/**
+	 * Inits: {@link #threadFactory} as a factory of virtual threads if the
+	 * runtime has them, otherwise {@link #scheduler} as a scheduler with one
+	 * thread per processor
+	 */
+	public TableManager() {
+		threadFactory = VIRTUAL_THREADS;
+		ownsScheduler = threadFactory == null;
+		scheduler = ownsScheduler ? newScheduler(Runtime.getRuntime().availableProcessors()) : null;
+	}
+
+	/**
+	 * Inits: {@link #scheduler} as a scheduler of param numThreads threads
+	 *
+	 * @param numThreads Number of threads to run the tables event-driven on, set
+	 *                   to 1 if less than 1
+	 */
+	public TableManager(int numThreads) {
+		threadFactory = null;
+		ownsScheduler = true;
+		scheduler = newScheduler(Integer.max(numThreads, 1));
+	}
+
+	/**
+	 * Inits: {@link #threadFactory} as param threadFactory
+	 *
+	 * @param threadFactory Makes a thread per table
+	 */
+	public TableManager(ThreadFactory threadFactory) {
+		this.threadFactory = threadFactory;
+		ownsScheduler = false;
+		scheduler = null;
+	}
+
+	/**
+	 * Inits: {@link #scheduler} as param scheduler, which is not shut down with
+	 * this manager
+	 *
+	 * @param scheduler Scheduler to run the tables event-driven on
+	 */
+	public TableManager(ScheduledExecutorService scheduler) {
+		threadFactory = null;
+		ownsScheduler = false;
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Creates and starts a table.
+	 *
+	 * @param name     Name of table, unique among the managed tables
+	 * @param numSeats Number of seats at table
+	 * @return The created table, to add players to
+	 * @throws IllegalArgumentException if a managed table has param name
+	 * @see #add(Table)
+	 */
+	public Table create(String name, int numSeats) {
+		return add(new Table(name, numSeats));
+	}
+
+	/**
+	 * Starts a table and manages it.
+	 *
+	 * @param table Table that is not running, with a name that is unique among
+	 *              the managed tables
+	 * @return param table
+	 * @throws IllegalArgumentException if a managed table has the name of param
+	 *                                  table
+	 */
+	public Table add(Table table) {
+		// Exceptions
+		Entry entry = new Entry(table);
+		if (tables.putIfAbsent(table.getName(), entry) != null) {
+			throw new IllegalArgumentException("A table named " + table.getName() + " is already managed.");
+		}
+
+		// Start on a thread of its own or event-driven
+		if (threadFactory != null) {
+			table.start(threadFactory);
+		} else {
+			table.start(scheduler);
+		}
+		return table;
+	}
+
+	/**
+	 * Stops a table after its current hand, and no longer manages it.
+	 *
+	 * @param name Name of table
+	 * @return A future completed when the table has stopped, null if no managed
+	 *         table has param name
+	 */
+	public CompletableFuture<Void> stop(String name) {
+		Entry entry = tables.remove(name);
+		return (entry == null) ? null : entry.table.stopAsync();
+	}
+
+	/**
+	 * Stops all tables after their current hands, and waits for them to stop.
+	 * Shuts down the scheduler if it was made by this manager.
+	 *
+	 * @param timeout Maximum time to wait
+	 * @param unit    Unit of param timeout
+	 * @return True if all tables stopped within param timeout, false otherwise
+	 */
+	public boolean shutdown(long timeout, TimeUnit unit) {
+		// Stop all tables
+		List<CompletableFuture<Void>> stopped = new ArrayList<>(tables.size());
+		for (String name : new ArrayList<>(tables.keySet())) {
+			CompletableFuture<Void> future = stop(name);
+			if (future != null) {
+				stopped.add(future);
+			}
+		}
+
+		// Wait for them to stop
+		boolean allStopped = true;
+		try {
+			CompletableFuture.allOf(stopped.toArray(new CompletableFuture<?>[0])).get(timeout, unit);
+		} catch (TimeoutException e) {
+			allStopped = false;
+		} catch (Exception e) {
+			System.out.println("Error while stopping tables: " + e.getMessage());
+			allStopped = false;
+		}
+
+		if (ownsScheduler) {
+			scheduler.shutdown();
+		}
+		return allStopped;
+	}
+
+	/**
+	 * Finds the rate at which a table has played hands since it was added.
+	 *
+	 * @param name Name of table
+	 * @return Hands played per second, 0 if no managed table has param name
+	 */
+	public double getHandRate(String name) {
+		Entry entry = tables.get(name);
+		if (entry == null) {
+			return 0;
+		}
+		long nanos = System.nanoTime() - entry.startNanos;
+		return (entry.table.getHandsPlayed() - entry.startHands) * 1e9 / Long.max(nanos, 1);
+	}
+
+	/**
+	 * Finds a factory of virtual threads by reflection, so that it is used where
+	 * the runtime has them and the code still runs where it does not.
+	 *
+	 * @return A factory of virtual threads, null if the runtime does not have them
+	 */
+	private static ThreadFactory virtualThreadFactory() {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "Table-", 0L);
+			return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Makes a scheduler of daemon threads named after this class.
+	 *
+	 * @param numThreads Number of threads
+	 * @return The scheduler
+	 */
+	private static ScheduledExecutorService newScheduler(int numThreads) {
+		AtomicInteger count = new AtomicInteger();
+		return Executors.newScheduledThreadPool(numThreads, runnable -> {
+			Thread thread = new Thread(runnable, "TableManager-" + count.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	// ----------------
+	// Setters/Getters:
+	// ----------------
+
+	/**
+	 * @param name Name of table
+	 * @return The managed table with param name, null if there is none
+	 */
+	public Table getTable(String name) {
+		Entry entry = tables.get(name);
+		return (entry == null) ? null : entry.table;
+	}
+
+	/**
+	 * @return The managed tables, in no particular order
+	 */
+	public List<Table> list() {
+		List<Table> list = new ArrayList<>(tables.size());
+		for (Entry entry : tables.values()) {
+			list.add(entry.table);
+		}
+		return list;
+	}
+
+	public int getTableCount() {
+		return tables.size();
+	}
+
+	/**
+	 * @return True if the tables run event-driven on a scheduler, false if they
+	 *         run on a thread each
+	 */
+	public boolean isEventDriven() {
+		return scheduler != null;
+	}
+
+	// --------
+	// Classes:
+	// --------
+
+	/**
+	 * A managed table and when it was added.
+	 */
+	private static class Entry {
+		/** The table. */
+		private final Table table;
+		/** {@link System#nanoTime()} when added. */
+		private final long startNanos = System.nanoTime();
+		/** Hands played by the table when added. */
+		private final int startHands;
+
+		private Entry(Table table) {
+			this.table = table;
+			startHands = table.getHandsPlayed();
+		}
+	}
+}
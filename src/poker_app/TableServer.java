@@ -1,47 +1,36 @@
 package poker_app;
 
+import java.io.IOException;
 import java.util.Scanner;
 
-import poker_app.game.Player;
-import poker_app.observer.TextObserver;
-import poker_app.user.text_user.ServerTextUser;
-import poker_app.writer.ServerWriter;
+import poker_app.server.NioServer;
 
 public class TableServer {
-	private static Table table;
 	private static final int SERVER_PORT = 4999;
 	private static final Scanner SCANNER = new Scanner(System.in);
 	
-	private static void launch() {
+	private static void launch() throws IOException {
 		System.out.println("How many players?");
 		int numSeats = Integer.parseInt(SCANNER.nextLine());
 		
-		while (numSeats < 2 || numSeats > 3) {
+		while (numSeats < 2 || numSeats > 23) {
 			System.out.println("How many players?");
 			numSeats = Integer.parseInt(SCANNER.nextLine());
 		}
 		
-		table = new Table("Table 1", numSeats);
-		ServerWriter serverWriter = new ServerWriter(SERVER_PORT, numSeats);
-		new TextObserver(table, serverWriter);
-		System.out.println("Writing on port " + SERVER_PORT);
-		serverWriter.startAccepting();
-		
-		for (int i = 0; i < numSeats; i++) {
-			Player p = new Player();
-			int port = SERVER_PORT - i - 1;
-			ServerTextUser user = new ServerTextUser("User " + (i + 1), port);
-			p.setUser(user);
-			System.out.println(p.getUser() + " takes input on port " + port);
-			table.addPlayer(p);
-			user.accept();
-		}
-		
-		table.start();
+		// One port for all players and spectators, with tables run event-driven
+		NioServer server = new NioServer(SERVER_PORT, new TableManager(1));
+		server.serve(new Table("Table1", numSeats));
+		server.start();
+		System.out.println("Serving Table1 on port " + SERVER_PORT + ", join with: JOIN Table1 <name>");
 	}
 	
 	public static void main(String[] args) {
-		launch();
+		try {
+			launch();
+		} catch (IOException e) {
+			System.out.println("Error while launching server on port " + SERVER_PORT + ": " + e.getMessage());
+		}
 	}
 	
 }
@@ -0,0 +1,82 @@
+package poker_app.game;
+
+/**
+ * Represents an action taken by a player on action in a {@link Game}, to be
+ * applied by {@link Game#apply(Action)}.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class Action {
+	// STATIC
+	/** Type of a fold. */
+	public final static char FOLD = 'f';
+	/** Type of a check or a call, depending on if there is a bet to call. */
+	public final static char CHECK_OR_CALL = 'c';
+	/** Type of a bet or a raise, depending on if there is a bet to raise. */
+	public final static char BET = 'b';
+
+	// NON-STATIC
+	/** Player taking the action. */
+	private final Player player;
+	/** Type of the action, {@link #FOLD}, {@link #CHECK_OR_CALL} or {@link #BET}. */
+	private final char type;
+	/** Amount of chips to bet to, 0 if not a bet. */
+	private final int betTo;
+
+	/**
+	 * Inits: {@link #player} as param player, {@link #type} as param type,
+	 * {@link #betTo} as 0
+	 *
+	 * @param player Player taking the action
+	 * @param type   {@link #FOLD} or {@link #CHECK_OR_CALL}
+	 * @see #Action(Player, char, int)
+	 */
+	public Action(Player player, char type) {
+		this(player, type, 0);
+	}
+
+	/**
+	 * Inits: {@link #player} as param player, {@link #type} as param type,
+	 * {@link #betTo} as param betTo
+	 *
+	 * @param player Player taking the action
+	 * @param type   {@link #FOLD}, {@link #CHECK_OR_CALL} or {@link #BET}
+	 * @param betTo  Amount of chips to bet to if param type is {@link #BET},
+	 *               corrected by the game to a valid bet
+	 * @throws IllegalArgumentException if param type is not a type of action
+	 */
+	public Action(Player player, char type, int betTo) {
+		// Exceptions
+		if (type != FOLD && type != CHECK_OR_CALL && type != BET) {
+			throw new IllegalArgumentException("The char type must be 'f', 'c' or 'b'.");
+		}
+
+		// Inits
+		this.player = player;
+		this.type = type;
+		this.betTo = (type == BET) ? betTo : 0;
+	}
+
+	// ----------------
+	// Setters/Getters:
+	// ----------------
+
+	public Player getPlayer() {
+		return player;
+	}
+
+	public char getType() {
+		return type;
+	}
+
+	public int getBetTo() {
+		return betTo;
+	}
+
+	@Override
+	public String toString() {
+		return player.getUser() + " " + ((type == BET) ? type + " " + betTo : type);
+	}
+}
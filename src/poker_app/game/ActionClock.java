@@ -0,0 +1,119 @@
+package poker_app.game;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the time a player on action has to act. Each action has
+ * {@link #actionMillis}, and when that runs out the player draws on their time
+ * bank ({@link Player#getTimeBank()}). When both have run out, the player is
+ * made to check if they can and fold otherwise.
+ * <p>
+ * The deadlines of all games are kept by one scheduler, by default
+ * {@link #SCHEDULER} shared by every clock, so a clock costs no thread of its
+ * own.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class ActionClock {
+	// STATIC
+	/** Scheduler shared by all clocks made without one. */
+	private final static ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "ActionClock");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	// CONSTANTS
+	/** Milliseconds to act on each action, before drawing on the time bank. */
+	private final long actionMillis;
+	/** Milliseconds of time bank each player gets when seated. */
+	private final long timeBankMillis;
+	/** Keeps the deadlines. */
+	private final ScheduledExecutorService scheduler;
+
+	/**
+	 * Inits: {@link #scheduler} as {@link #SCHEDULER}
+	 *
+	 * @see #ActionClock(long, long, ScheduledExecutorService)
+	 */
+	public ActionClock(long actionMillis, long timeBankMillis) {
+		this(actionMillis, timeBankMillis, SCHEDULER);
+	}
+
+	/**
+	 * Inits: {@link #actionMillis} as param actionMillis, {@link #timeBankMillis}
+	 * as param timeBankMillis, {@link #scheduler} as param scheduler
+	 *
+	 * @param actionMillis   Milliseconds to act on each action, set to 1 if less
+	 *                       than 1
+	 * @param timeBankMillis Milliseconds of time bank each player gets when
+	 *                       seated, set to 0 if less than 0
+	 * @param scheduler      Keeps the deadlines
+	 */
+	public ActionClock(long actionMillis, long timeBankMillis, ScheduledExecutorService scheduler) {
+		this.actionMillis = Long.max(actionMillis, 1);
+		this.timeBankMillis = Long.max(timeBankMillis, 0);
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Starts the clock of a player that has just come on action.
+	 *
+	 * @param game    Game the player is on action in
+	 * @param player  Player on action
+	 * @param actions Number of actions applied in param game before param player
+	 *                came on action
+	 * @return The deadline, to be cancelled when param player acts
+	 */
+	ScheduledFuture<?> start(Game game, Player player, int actions) {
+		return scheduler.schedule(() -> expire(game, player, actions), actionMillis + player.getTimeBank(),
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the clock of a player that has acted in time, and draws the time used
+	 * beyond {@link #actionMillis} from their time bank.
+	 *
+	 * @param deadline The deadline given by {@link #start(Game, Player, int)}
+	 * @param player   Player that has acted
+	 * @param millis   Milliseconds the player used
+	 */
+	void stop(ScheduledFuture<?> deadline, Player player, long millis) {
+		deadline.cancel(false);
+		if (millis > actionMillis) {
+			player.setTimeBank(player.getTimeBank() - (millis - actionMillis));
+		}
+	}
+
+	/**
+	 * Makes a player that has run out of time check or fold, and tells their
+	 * user, unless the player has acted in the meantime.
+	 *
+	 * @param game    Game the player is on action in
+	 * @param player  Player on action
+	 * @param actions Number of actions applied in param game before param player
+	 *                came on action
+	 */
+	private void expire(Game game, Player player, int actions) {
+		if (game.expireAction(player, actions)) {
+			player.getUser().actionExpired(player);
+		}
+	}
+
+	// ----------------
+	// Setters/Getters:
+	// ----------------
+
+	public long getActionMillis() {
+		return actionMillis;
+	}
+
+	public long getTimeBankMillis() {
+		return timeBankMillis;
+	}
+}
@@ -1,13 +1,13 @@
 package poker_app.game;
 
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
 
 /**
- * Represents a playing card.
+ * Represents a playing card. There is one shared instance of each of the 52
+ * cards, given by {@link #of(int, char)} and {@link #get(int)}.
  * <p>
- * Last modified: 4 April 2021
+ * Last modified: 18 October 2026
  * 
  * @author Jakob Martin Torsvik
  */
@@ -24,23 +24,54 @@ public class Card {
 	public final static List<Character> RANKS = Arrays.asList('2', '3', '4', '5', '6', '7', '8', '9', 'T', 'J', 'Q',
 			'K', 'A');
 	/** All card suits as characters. */
-	public final static Collection<Character> SUITS = Arrays.asList('s', 'd', 'c', 'h');
-	
+	public final static List<Character> SUITS = Arrays.asList('s', 'd', 'c', 'h');
+	/**
+	 * The 52 cards, one of each rank and suit, where the card at index i has value
+	 * (i % 13) and suit at index (i / 13) in {@link #SUITS}.
+	 */
+	private final static Card[] CARDS = new Card[52];
+
+	static {
+		for (int i = 0; i < 52; i++) {
+			CARDS[i] = new Card(i);
+		}
+	}
+
 	// NON-STATIC
 	private final char rank, suit;
 	private final int value;
+	/** Index of the card in range [0, 52). */
+	private final int index;
+	/** The card as a card set of only this card. */
+	private final long mask;
+
+	/**
+	 * Inits: {@link #index} as param index, {@link #value} as (index % 13),
+	 * {@link #rank} as {@link #valueToRank(int)} of value, {@link #suit} as the
+	 * suit at (index / 13) in {@link #SUITS}, {@link #mask} as a {@link CardSet}
+	 * of only this card
+	 * 
+	 * @param index Index of the card in range [0, 52)
+	 */
+	private Card(int index) {
+		this.index = index;
+		value = index % 13;
+		rank = valueToRank(value);
+		suit = SUITS.get(index / 13);
+		mask = 1L << index;
+	}
 
 	/**
-	 * Inits: {@link #rank} as {@link #valueToRank(param value)}, {@link #value} as
-	 * param value, {@link #suit} as param suit
+	 * Gives the card of a value and suit. There is only one instance of each card.
 	 * 
 	 * @param value Value of the card, set to 0 if less than 0, set to 12 if greater
 	 *              than 12
 	 * @param suit  Suit of the card, either of spades 's', diamonds 'd', clubs 'c'
 	 *              or hearts 'h'
-	 * @throws IllegalArgumentException if suit is not in {@link #suits}
+	 * @return The card
+	 * @throws IllegalArgumentException if suit is not in {@link #SUITS}
 	 */
-	public Card(int value, char suit) {
+	public static Card of(int value, char suit) {
 		// Preprocessing
 		if (value < 0) {
 			value = 0;
@@ -48,28 +79,47 @@ public class Card {
 			value = 12;
 		}
 
-		// Exceptions
-		if (!SUITS.contains(suit)) {
-			throw new IllegalArgumentException("Character suit must be either 's', 'd', 'c' or 'h'.");
-		}
+		return CARDS[13 * suitToIndex(suit) + value];
+	}
 
-		// Inits
-		rank = valueToRank(value);
-		this.value = value;
-		this.suit = suit;
+	/**
+	 * Gives the card at an index.
+	 * 
+	 * @param index Index of the card in range [0, 52)
+	 * @return The card
+	 * @throws IllegalArgumentException if param index is not in range [0, 52)
+	 */
+	public static Card get(int index) {
+		if (index < 0 || index >= 52) {
+			throw new IllegalArgumentException("int index must be in the interval [0, 52).");
+		}
+		return CARDS[index];
 	}
 
 	/**
 	 * Gives the corresponding value of a rank.
-	 * @param rank A rank in {@link #ranks}
+	 * @param rank A rank in {@link #RANKS}
 	 * @return The corresponding value
-	 * @throws IllegalArgumentException if param rank is not in {@link #ranks}
+	 * @throws IllegalArgumentException if param rank is not in {@link #RANKS}
 	 */
 	public static int rankToValue(char rank) {
-		if (!RANKS.contains(rank)) {
+		switch (rank) {
+		case 'T':
+			return 8;
+		case 'J':
+			return 9;
+		case 'Q':
+			return 10;
+		case 'K':
+			return 11;
+		case 'A':
+			return 12;
+		default:
+			if (rank >= '2' && rank <= '9') {
+				return rank - '2';
+			}
 			throw new IllegalArgumentException("r should be a character in the List Card.ranks");
 		}
-		return RANKS.indexOf(rank);
 	}
 	
 	/**
@@ -88,6 +138,28 @@ public class Card {
 		return RANKS.get(value);
 	}
 
+	/**
+	 * Gives the corresponding index of a suit.
+	 * 
+	 * @param suit A suit in {@link #SUITS}
+	 * @return The index of param suit in {@link #SUITS}
+	 * @throws IllegalArgumentException if param suit is not in {@link #SUITS}
+	 */
+	public static int suitToIndex(char suit) {
+		switch (suit) {
+		case 's':
+			return 0;
+		case 'd':
+			return 1;
+		case 'c':
+			return 2;
+		case 'h':
+			return 3;
+		default:
+			throw new IllegalArgumentException("Character suit must be either 's', 'd', 'c' or 'h'.");
+		}
+	}
+
 	// ----------------
 	// Setters/Getters:
 	// ----------------
@@ -104,6 +176,14 @@ public class Card {
 		return suit;
 	}
 
+	public int index() {
+		return index;
+	}
+
+	public long mask() {
+		return mask;
+	}
+
 	@Override
 	public String toString() {
 		return "" + rank + suit;
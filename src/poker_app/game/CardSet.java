@@ -0,0 +1,150 @@
+package poker_app.game;
+
+/**
+ * Operations on sets of playing cards of class {@link poker_app.game.Card}
+ * represented as a long, where bit i is set if the card with
+ * {@link Card#index()} i is in the set.
+ * <p>
+ * As the cards of one suit take up 13 consecutive bits, the values of the cards
+ * of each suit can be taken out of a set with a shift and a mask.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class CardSet {
+	// STATIC
+	/** The empty set. */
+	public final static long EMPTY = 0L;
+	/** The set of all 52 cards. */
+	public final static long ALL = (1L << 52) - 1;
+
+	/**
+	 * Not to be instantiated.
+	 */
+	private CardSet() {
+
+	}
+
+	/**
+	 * Gives the set of some cards.
+	 *
+	 * @param cards Cards in set, null values are skipped
+	 * @return The set of param cards
+	 */
+	public static long of(Card... cards) {
+		long set = EMPTY;
+		for (Card card : cards) {
+			if (card != null) {
+				set |= card.mask();
+			}
+		}
+		return set;
+	}
+
+	/**
+	 * Gives the set of some cards.
+	 *
+	 * @param cards Cards in set, null values are skipped
+	 * @return The set of param cards
+	 */
+	public static long of(Iterable<Card> cards) {
+		long set = EMPTY;
+		for (Card card : cards) {
+			if (card != null) {
+				set |= card.mask();
+			}
+		}
+		return set;
+	}
+
+	/**
+	 * Adds a card to a set.
+	 *
+	 * @param set  A set of cards
+	 * @param card Card to add
+	 * @return The set with param card
+	 */
+	public static long add(long set, Card card) {
+		return set | card.mask();
+	}
+
+	/**
+	 * Removes a card from a set.
+	 *
+	 * @param set  A set of cards
+	 * @param card Card to remove
+	 * @return The set without param card
+	 */
+	public static long remove(long set, Card card) {
+		return set & ~card.mask();
+	}
+
+	/**
+	 * Checks if a set contains a card.
+	 *
+	 * @param set  A set of cards
+	 * @param card Card to check for
+	 * @return True if param card is in param set. False otherwise
+	 */
+	public static boolean contains(long set, Card card) {
+		return (set & card.mask()) != 0;
+	}
+
+	/**
+	 * Counts the cards in a set.
+	 *
+	 * @param set A set of cards
+	 * @return Number of cards in param set
+	 */
+	public static int size(long set) {
+		return Long.bitCount(set);
+	}
+
+	/**
+	 * Gives the card of lowest index in a set, to be used with
+	 * {@link #removeFirst(long)} for going through the cards of a set.
+	 *
+	 * @param set A non-empty set of cards
+	 * @return The card of lowest index in param set
+	 */
+	public static Card first(long set) {
+		return Card.get(Long.numberOfTrailingZeros(set));
+	}
+
+	/**
+	 * Removes the card of lowest index from a set.
+	 *
+	 * @param set A set of cards
+	 * @return The set without its card of lowest index
+	 */
+	public static long removeFirst(long set) {
+		return set & (set - 1);
+	}
+
+	/**
+	 * Gives the values of the cards of one suit in a set.
+	 *
+	 * @param set  A set of cards
+	 * @param suit Index of a suit in {@link Card#SUITS}
+	 * @return A 13-bit mask where bit n is set if the card of value n and param
+	 *         suit is in param set
+	 */
+	public static int values(long set, int suit) {
+		return (int) (set >>> (13 * suit)) & 0x1FFF;
+	}
+
+	/**
+	 * Gives the cards of a set as a string.
+	 *
+	 * @param set A set of cards
+	 * @return The cards in param set in order of index, separated by spaces
+	 */
+	public static String toString(long set) {
+		String result = "";
+		for (long s = set; s != EMPTY; s = removeFirst(s)) {
+			result += (s == set ? "" : " ") + first(s);
+		}
+		return result;
+	}
+}
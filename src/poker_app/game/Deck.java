@@ -1,77 +1,132 @@
 package poker_app.game;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Collections;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a deck of playing cards of class {@link poker_app.game.Card}.
  * <p>
- * Last modified: 4 April 2021
+ * The deck is meant to be reused: {@link #reset()} puts all cards back, and
+ * {@link #deal()} picks each card at random from the cards not yet dealt (a
+ * partial Fisher-Yates shuffle), so only the cards actually dealt are shuffled
+ * and nothing is allocated per hand.
+ * <p>
+ * Last modified: 18 October 2026
  * 
  * @author Jakob Martin Torsvik
  */
-public class Deck implements Iterable<Card> {
-	/** Cards in deck. */
-	private final List<Card> cards = new ArrayList<>(52);
+public class Deck {
+	// CONSTANTS
+	/**
+	 * Cards in deck, where the cards at indexes [0, {@link #dealt}) are dealt and
+	 * the cards at indexes [{@link #live}, 52) are dead.
+	 */
+	private final Card[] cards = new Card[52];
+	/** For picking cards at random. */
+	private final RandomGenerator random;
+
+	// NON-CONSTANTS
+	/** Number of cards dealt. */
+	private int dealt = 0;
+	/** Number of cards that are not dead. */
+	private int live = 52;
 
 	/**
-	 * Creates and shuffles deck.
+	 * Inits: {@link #random} as a {@link SplittableRandom}
 	 * 
-	 * @see #create()
-	 * @see #shuffle()
+	 * @see #Deck(RandomGenerator)
 	 */
 	public Deck() {
-		create();
-		shuffle();
+		this(new SplittableRandom());
 	}
 
 	/**
-	 * Adds a {@link Card} of each rank and suit to {@link cards}.
+	 * Inits: {@link #random} as param random, {@link #cards} as one of each card
+	 * 
+	 * @param random Random number generator to deal with, used only by the thread
+	 *               dealing
 	 */
-	private void create() {
-		for (char rank : Card.RANKS) {
-			for (char suit : Card.SUITS) {
-				cards.add(new Card(Card.rankToValue(rank), suit));
+	public Deck(RandomGenerator random) {
+		this.random = random;
+		for (int i = 0; i < 52; i++) {
+			cards[i] = Card.get(i);
+		}
+	}
+
+	/**
+	 * Puts all cards back in the deck.
+	 * 
+	 * @see #reset(long)
+	 */
+	public void reset() {
+		dealt = 0;
+		live = 52;
+	}
+
+	/**
+	 * Puts all cards back in the deck except some dead cards, which will not be
+	 * dealt.
+	 * 
+	 * @param deadCards A {@link CardSet} of cards not to deal
+	 */
+	public void reset(long deadCards) {
+		reset();
+
+		// Move dead cards to the end of cards
+		for (int i = 0; i < live; i++) {
+			if (CardSet.contains(deadCards, cards[i])) {
+				swap(i--, --live);
 			}
 		}
 	}
 
 	/**
-	 * Shuffles {@link cards}.
+	 * Deals a card picked at random from the cards not yet dealt.
 	 * 
-	 * @see Collections#shuffle(List)
+	 * @return The dealt card
+	 * @throws NoSuchElementException if all cards are dealt
 	 */
-	protected void shuffle() {
-		Collections.shuffle(cards);
+	public Card deal() {
+		if (dealt == live) {
+			throw new NoSuchElementException("There are no more cards in the deck.");
+		}
+
+		// Swap a random card not yet dealt into the next position and deal it
+		swap(dealt, dealt + random.nextInt(live - dealt));
+		return cards[dealt++];
 	}
 
 	/**
-	 * Returns number of cards in deck.
+	 * Swaps two cards in {@link #cards}.
 	 * 
-	 * @return Size of {@link cards}
+	 * @param i Index of one card
+	 * @param j Index of the other card
 	 */
-	protected int size() {
-		return cards.size();
+	private void swap(int i, int j) {
+		Card card = cards[i];
+		cards[i] = cards[j];
+		cards[j] = card;
 	}
 
 	/**
-	 * @return An iterator over {@link #cards}
+	 * Returns number of cards in deck.
+	 * 
+	 * @return Number of cards that can still be dealt
 	 */
-	@Override
-	public Iterator<Card> iterator() {
-		return cards.iterator();
+	protected int size() {
+		return live - dealt;
 	}
 
 	/**
-	 * @return All the cards in {@link #cards} and the number of cards in the deck
+	 * @return All the cards that can still be dealt and the number of cards in the
+	 *         deck
 	 */
 	@Override
 	public String toString() {
 		String result = "";
-		for (Card card : this) {
-			result += "\n" + card.getRank() + card.getSuit();
+		for (int i = dealt; i < live; i++) {
+			result += "\n" + cards[i].getRank() + cards[i].getSuit();
 		}
 		result += "\n\n" + size();
 
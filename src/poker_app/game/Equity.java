@@ -0,0 +1,95 @@
+package poker_app.game;
+
+/**
+ * Represents the all-in equity of a number of players, as calculated by an
+ * {@link EquityCalculator}.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class Equity {
+	/** Share of runouts each player wins alone. */
+	private final double[] win;
+	/** Share of the pot each player wins on average by splitting it. */
+	private final double[] tie;
+	/** Number of runouts the equity is based on. */
+	private final long runouts;
+	/**
+	 * Half-width of the 95% confidence interval of the equity of any player, 0 if
+	 * the equity is exact.
+	 */
+	private final double error;
+	/** If the equity is found by going through all possible runouts. */
+	private final boolean exact;
+
+	/**
+	 * Inits: {@link #win} as param win, {@link #tie} as param tie,
+	 * {@link #runouts} as param runouts, {@link #error} as param error,
+	 * {@link #exact} as param exact
+	 *
+	 * @param win     Share of runouts each player wins alone
+	 * @param tie     Share of the pot each player wins on average by splitting it
+	 * @param runouts Number of runouts the equity is based on
+	 * @param error   Half-width of the 95% confidence interval of the equity
+	 * @param exact   If all possible runouts were gone through
+	 */
+	public Equity(double[] win, double[] tie, long runouts, double error, boolean exact) {
+		this.win = win;
+		this.tie = tie;
+		this.runouts = runouts;
+		this.error = error;
+		this.exact = exact;
+	}
+
+	// ----------------
+	// Setters/Getters:
+	// ----------------
+
+	/**
+	 * @param player Index of player
+	 * @return Share of the pot player is expected to win
+	 */
+	public double getEquity(int player) {
+		return win[player] + tie[player];
+	}
+
+	public double getWin(int player) {
+		return win[player];
+	}
+
+	public double getTie(int player) {
+		return tie[player];
+	}
+
+	public int getNumPlayers() {
+		return win.length;
+	}
+
+	public long getRunouts() {
+		return runouts;
+	}
+
+	public double getError() {
+		return error;
+	}
+
+	public boolean isExact() {
+		return exact;
+	}
+
+	/**
+	 * @return The equity of each player as percentages
+	 */
+	@Override
+	public String toString() {
+		String result = "";
+		for (int i = 0; i < win.length; i++) {
+			result += (i == 0 ? "" : " ") + String.format("%.1f%%", 100 * getEquity(i));
+		}
+		if (!exact) {
+			result += String.format(" (+-%.1f%%)", 100 * error);
+		}
+		return result;
+	}
+}
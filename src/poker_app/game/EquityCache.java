@@ -0,0 +1,127 @@
+package poker_app.game;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache of {@link Equity} that can be shared between threads, keyed
+ * by the canonical form of spots given by {@link SuitIsomorphism}, so that spots
+ * that are the same up to a renaming of the suits share one entry.
+ * <p>
+ * When full, an arbitrary entry is removed for each entry added.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class EquityCache {
+	// CONSTANTS
+	/** Cached equity by canonical spot. */
+	private final ConcurrentHashMap<Key, Equity> entries = new ConcurrentHashMap<>();
+	/** Maximum number of entries. */
+	private final int maxSize;
+	/** Number of lookups that found an entry. */
+	private final AtomicLong hits = new AtomicLong();
+	/** Number of lookups that did not find an entry. */
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Inits: {@link #maxSize} as param maxSize
+	 *
+	 * @param maxSize Maximum number of entries, set to 1 if less than 1
+	 */
+	public EquityCache(int maxSize) {
+		this.maxSize = Integer.max(maxSize, 1);
+	}
+
+	/**
+	 * Looks up the equity of a spot.
+	 *
+	 * @param board     A {@link CardSet} of the cards on the board
+	 * @param holes     Set of hole cards per player
+	 * @param deadCards Set of dead cards
+	 * @return The cached equity of the spot, null if there is none
+	 */
+	public Equity get(long board, long[] holes, long deadCards) {
+		Equity equity = entries.get(new Key(SuitIsomorphism.canonical(board, holes, deadCards)));
+		(equity == null ? misses : hits).incrementAndGet();
+		return equity;
+	}
+
+	/**
+	 * Caches the equity of a spot, removing another entry if full.
+	 *
+	 * @param board     A {@link CardSet} of the cards on the board
+	 * @param holes     Set of hole cards per player
+	 * @param deadCards Set of dead cards
+	 * @param equity    Equity of the spot
+	 */
+	public void put(long board, long[] holes, long deadCards, Equity equity) {
+		// Make room
+		Iterator<Key> it = entries.keySet().iterator();
+		while (entries.size() >= maxSize && it.hasNext()) {
+			it.next();
+			it.remove();
+		}
+
+		entries.put(new Key(SuitIsomorphism.canonical(board, holes, deadCards)), equity);
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+		entries.clear();
+	}
+
+	// ----------------
+	// Setters/Getters:
+	// ----------------
+
+	public int size() {
+		return entries.size();
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	// --------
+	// Classes:
+	// --------
+
+	/**
+	 * A canonical spot as a key in {@link EquityCache#entries}.
+	 */
+	private static class Key {
+		/** The sets of the canonical spot. */
+		private final long[] sets;
+		/** Hash code of {@link #sets}. */
+		private final int hash;
+
+		private Key(long[] sets) {
+			this.sets = sets;
+			hash = Arrays.hashCode(sets);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Key && Arrays.equals(sets, ((Key) obj).sets);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
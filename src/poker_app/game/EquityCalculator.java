@@ -0,0 +1,587 @@
+package poker_app.game;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Calculates the all-in {@link Equity} of players from their hole cards, the
+ * cards on the board and any dead cards, either by dealing out the rest of the
+ * board at random a number of times or by going through every possible rest of
+ * the board, in parallel on a {@link ForkJoinPool}.
+ * <p>
+ * Each task of the calculation has its own random number generator split from
+ * the one of the task forking it, so no generator is shared between threads.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class EquityCalculator {
+	// STATIC
+	/** Maximum number of runouts dealt or gone through by one task without forking. */
+	private final static int LEAF_RUNOUTS = 4096;
+	/** Number of runouts dealt between each check of the time budget. */
+	private final static int CHECK_INTERVAL = 1024;
+
+	// NON-STATIC
+	/** Pool to run the calculations on. */
+	private final ForkJoinPool pool;
+	/** Number of runouts to deal per calculation. */
+	private int samples = 100000;
+	/** Maximum time to spend per calculation in milliseconds, 0 if unlimited. */
+	private long timeBudget = 0;
+	/** Cache of equity found by {@link #calculate(Card[][], Card[], long)}, null if not to be cached. */
+	private EquityCache cache;
+
+	/**
+	 * Inits: {@link #pool} as {@link ForkJoinPool#commonPool()}
+	 */
+	public EquityCalculator() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Inits: {@link #pool} as param pool
+	 *
+	 * @param pool Pool to run the calculations on
+	 */
+	public EquityCalculator(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	// ------------
+	// Calculation:
+	// ------------
+
+	/**
+	 * Calculates the equity of players, waiting for the result. Goes through every
+	 * possible runout if there are no more of them than {@link #samples}, and deals
+	 * random runouts otherwise. Looks the spot up in {@link #cache} first, if set.
+	 *
+	 * @param holeCards The two hole cards of each player, at least 2 players
+	 * @param board     Cards on the board, null values are skipped
+	 * @param deadCards A {@link CardSet} of cards that can not be dealt
+	 * @return The equity of each player in the order of param holeCards
+	 * @throws IllegalArgumentException if there are less than two players, a player
+	 *                                  does not have two cards or a card is used
+	 *                                  twice
+	 * @see #enumerate(Card[][], Card[], long)
+	 * @see #simulate(Card[][], Card[], long)
+	 */
+	public Equity calculate(Card[][] holeCards, Card[] board, long deadCards) {
+		long[] holes = holeSets(holeCards);
+		long boardSet = boardSet(board, holes, deadCards);
+
+		// Use the cached equity of the spot if there is one
+		if (cache != null) {
+			Equity equity = cache.get(boardSet, holes, deadCards);
+			if (equity != null) {
+				return equity;
+			}
+		}
+
+		// Number of possible runouts
+		int numLive = liveCards(holes, boardSet, deadCards).length;
+		long runouts = combinations(numLive, 5 - CardSet.size(boardSet));
+
+		Equity equity;
+		if (runouts <= samples) {
+			equity = enumerate(holeCards, board, deadCards);
+		} else {
+			equity = simulate(holeCards, board, deadCards);
+		}
+
+		if (cache != null) {
+			cache.put(boardSet, holes, deadCards, equity);
+		}
+		return equity;
+	}
+
+	/**
+	 * Calculates the equity of players on {@link #pool} without waiting for the
+	 * result.
+	 *
+	 * @param holeCards The two hole cards of each player, at least 2 players
+	 * @param board     Cards on the board, null values are skipped
+	 * @param deadCards A {@link CardSet} of cards that can not be dealt
+	 * @return A future completed with the equity of each player in the order of
+	 *         param holeCards
+	 * @see #calculate(Card[][], Card[], long)
+	 */
+	public CompletableFuture<Equity> calculateAsync(Card[][] holeCards, Card[] board, long deadCards) {
+		// Copy the cards as the caller may change them while calculating
+		Card[][] holeCopy = new Card[holeCards.length][];
+		for (int i = 0; i < holeCards.length; i++) {
+			holeCopy[i] = holeCards[i].clone();
+		}
+		Card[] boardCopy = board.clone();
+
+		return CompletableFuture.supplyAsync(() -> calculate(holeCopy, boardCopy, deadCards), pool);
+	}
+
+	/**
+	 * Calculates the equity of players by dealing out the rest of the board at
+	 * random {@link #samples} times, or as many times as there is time for within
+	 * {@link #timeBudget}.
+	 *
+	 * @param holeCards The two hole cards of each player, at least 2 players
+	 * @param board     Cards on the board, null values are skipped
+	 * @param deadCards A {@link CardSet} of cards that can not be dealt
+	 * @return The equity of each player in the order of param holeCards
+	 * @throws IllegalArgumentException if there are less than two players, a player
+	 *                                  does not have two cards or a card is used
+	 *                                  twice
+	 */
+	public Equity simulate(Card[][] holeCards, Card[] board, long deadCards) {
+		long[] holes = holeSets(holeCards);
+		long boardSet = boardSet(board, holes, deadCards);
+		int[] live = liveCards(holes, boardSet, deadCards);
+		int missing = 5 - CardSet.size(boardSet);
+
+		// A complete board only has one runout
+		long runouts = missing == 0 ? 1 : samples;
+		long deadline = timeBudget > 0 ? System.nanoTime() + timeBudget * 1000000 : 0;
+
+		SplittableRandom random = new SplittableRandom();
+		Tally tally = pool.invoke(new Simulation(holes, boardSet, live, missing, runouts, deadline, random.split()));
+
+		// Deal some runouts regardless of time if the time budget was too small for any
+		if (tally.runouts == 0) {
+			tally = pool.invoke(new Simulation(holes, boardSet, live, missing, CHECK_INTERVAL, 0, random));
+		}
+		return tally.toEquity(missing == 0);
+	}
+
+	/**
+	 * Calculates the exact equity of players by going through every possible
+	 * runout.
+	 *
+	 * @param holeCards The two hole cards of each player, at least 2 players
+	 * @param board     Cards on the board, null values are skipped
+	 * @param deadCards A {@link CardSet} of cards that can not be dealt
+	 * @return The equity of each player in the order of param holeCards
+	 * @throws IllegalArgumentException if there are less than two players, a player
+	 *                                  does not have two cards or a card is used
+	 *                                  twice
+	 */
+	public Equity enumerate(Card[][] holeCards, Card[] board, long deadCards) {
+		long[] holes = holeSets(holeCards);
+		long boardSet = boardSet(board, holes, deadCards);
+		int[] live = liveCards(holes, boardSet, deadCards);
+		int missing = 5 - CardSet.size(boardSet);
+
+		Tally tally = pool.invoke(new Enumeration(holes, boardSet, live, missing, 0, live.length));
+		return tally.toEquity(true);
+	}
+
+	// ----------------
+	// Helping methods:
+	// ----------------
+
+	/**
+	 * Finds the number of ways to choose some cards.
+	 *
+	 * @param n Number of cards to choose from
+	 * @param k Number of cards to choose
+	 * @return n choose k
+	 */
+	private static long combinations(int n, int k) {
+		if (k < 0 || k > n) {
+			return 0;
+		}
+		long result = 1;
+		for (int i = 1; i <= k; i++) {
+			result = result * (n - k + i) / i;
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the strength of each player's hand for a runout.
+	 *
+	 * @param holes     Set of hole cards per player
+	 * @param runout    Set of cards on the complete board
+	 * @param strengths Array to put the strength of each player's hand in
+	 */
+	private static void evaluate(long[] holes, long runout, int[] strengths) {
+		HandEvaluator.evaluate(runout, holes, strengths, holes.length);
+	}
+
+	/**
+	 * Finds the hole cards of each player as a {@link CardSet}.
+	 *
+	 * @param holeCards The two hole cards of each player
+	 * @return A set of hole cards per player
+	 * @throws IllegalArgumentException if there are less than two players, a player
+	 *                                  does not have two cards or a card is used
+	 *                                  twice
+	 */
+	private static long[] holeSets(Card[][] holeCards) {
+		if (holeCards.length < 2) {
+			throw new IllegalArgumentException("Card[][] holeCards must hold the cards of at least two players.");
+		}
+
+		long used = CardSet.EMPTY;
+		long[] holes = new long[holeCards.length];
+		for (int i = 0; i < holeCards.length; i++) {
+			holes[i] = CardSet.of(holeCards[i]);
+			if (CardSet.size(holes[i]) != 2 || (used & holes[i]) != 0) {
+				throw new IllegalArgumentException("Each player must hold two cards not held by anyone else.");
+			}
+			used |= holes[i];
+		}
+		return holes;
+	}
+
+	/**
+	 * Finds the cards on the board as a {@link CardSet}.
+	 *
+	 * @param board     Cards on the board, null values are skipped
+	 * @param holes     Set of hole cards per player
+	 * @param deadCards Set of dead cards
+	 * @return The set of cards on the board
+	 * @throws IllegalArgumentException if a card on the board is also held or dead
+	 */
+	private static long boardSet(Card[] board, long[] holes, long deadCards) {
+		long boardSet = CardSet.of(board);
+		long used = deadCards;
+		for (long hole : holes) {
+			used |= hole;
+		}
+		if ((boardSet & used) != 0) {
+			throw new IllegalArgumentException("The cards on the board can not be held by a player or be dead.");
+		}
+		return boardSet;
+	}
+
+	/**
+	 * Finds the cards that may still be dealt to the board.
+	 *
+	 * @param holes     Set of hole cards per player
+	 * @param boardSet  Set of cards on the board
+	 * @param deadCards Set of dead cards
+	 * @return The indexes of the cards that may be dealt, in ascending order
+	 */
+	private static int[] liveCards(long[] holes, long boardSet, long deadCards) {
+		long live = CardSet.ALL & ~boardSet & ~deadCards;
+		for (long hole : holes) {
+			live &= ~hole;
+		}
+
+		int[] cards = new int[CardSet.size(live)];
+		for (int i = 0; live != CardSet.EMPTY; live = CardSet.removeFirst(live)) {
+			cards[i++] = Long.numberOfTrailingZeros(live);
+		}
+		return cards;
+	}
+
+	// ----------------
+	// Setters/Getters:
+	// ----------------
+
+	/**
+	 * @param samples Number of runouts to deal per calculation, set to 1 if less
+	 *                than 1
+	 */
+	public void setSamples(int samples) {
+		this.samples = Integer.max(samples, 1);
+	}
+
+	public int getSamples() {
+		return samples;
+	}
+
+	/**
+	 * @param timeBudget Maximum time to spend per calculation in milliseconds, 0 if
+	 *                   unlimited
+	 */
+	public void setTimeBudget(long timeBudget) {
+		this.timeBudget = Long.max(timeBudget, 0);
+	}
+
+	public long getTimeBudget() {
+		return timeBudget;
+	}
+
+	public void setCache(EquityCache cache) {
+		this.cache = cache;
+	}
+
+	public EquityCache getCache() {
+		return cache;
+	}
+
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	// --------
+	// Classes:
+	// --------
+
+	/**
+	 * The results of a number of runouts.
+	 */
+	private static class Tally {
+		/** Number of runouts each player won alone. */
+		private final long[] wins;
+		/** Sum of the shares of split pots each player won. */
+		private final double[] ties;
+		/** Sum of the squares of the share of the pot each player won. */
+		private final double[] squares;
+		/** Number of runouts. */
+		private long runouts = 0;
+
+		/**
+		 * Inits: {@link #wins}, {@link #ties} and {@link #squares} as arrays of
+		 * length param numPlayers
+		 *
+		 * @param numPlayers Number of players
+		 */
+		private Tally(int numPlayers) {
+			wins = new long[numPlayers];
+			ties = new double[numPlayers];
+			squares = new double[numPlayers];
+		}
+
+		/**
+		 * Adds the result of one runout.
+		 *
+		 * @param strengths Strength of the hand of each player
+		 */
+		private void add(int[] strengths) {
+			// Find the best strength and how many players have it
+			int best = -1;
+			int count = 0;
+			for (int strength : strengths) {
+				if (strength > best) {
+					best = strength;
+					count = 1;
+				} else if (strength == best) {
+					count++;
+				}
+			}
+
+			// Give the pot to the best players
+			double share = 1.0 / count;
+			for (int i = 0; i < strengths.length; i++) {
+				if (strengths[i] == best) {
+					if (count == 1) {
+						wins[i]++;
+					} else {
+						ties[i] += share;
+					}
+					squares[i] += share * share;
+				}
+			}
+			runouts++;
+		}
+
+		/**
+		 * Adds the results of another tally.
+		 *
+		 * @param other Tally to add
+		 * @return This tally
+		 */
+		private Tally merge(Tally other) {
+			for (int i = 0; i < wins.length; i++) {
+				wins[i] += other.wins[i];
+				ties[i] += other.ties[i];
+				squares[i] += other.squares[i];
+			}
+			runouts += other.runouts;
+			return this;
+		}
+
+		/**
+		 * @param exact If all possible runouts are tallied
+		 * @return The equity of the tallied runouts
+		 */
+		private Equity toEquity(boolean exact) {
+			int n = wins.length;
+			double[] win = new double[n];
+			double[] tie = new double[n];
+			double error = 0;
+			for (int i = 0; i < n; i++) {
+				win[i] = (double) wins[i] / runouts;
+				tie[i] = ties[i] / runouts;
+
+				// 95% confidence interval of the mean share of the pot
+				double mean = win[i] + tie[i];
+				double variance = Double.max(squares[i] / runouts - mean * mean, 0);
+				error = Double.max(error, 1.96 * Math.sqrt(variance / runouts));
+			}
+			return new Equity(win, tie, runouts, exact ? 0 : error, exact);
+		}
+	}
+
+	/**
+	 * Deals a number of random runouts, forking into two tasks while there are
+	 * more than {@link EquityCalculator#LEAF_RUNOUTS} runouts to deal.
+	 */
+	private static class Simulation extends RecursiveTask<Tally> {
+		private static final long serialVersionUID = 1L;
+
+		/** Set of hole cards per player. */
+		private final long[] holes;
+		/** Set of cards on the board. */
+		private final long board;
+		/** Indexes of the cards that may be dealt. */
+		private final int[] live;
+		/** Number of cards missing from the board. */
+		private final int missing;
+		/** Number of runouts to deal. */
+		private final long runouts;
+		/** Value of {@link System#nanoTime()} to stop at, 0 if unlimited. */
+		private final long deadline;
+		/** Random number generator of this task. */
+		private final SplittableRandom random;
+
+		private Simulation(long[] holes, long board, int[] live, int missing, long runouts, long deadline,
+				SplittableRandom random) {
+			this.holes = holes;
+			this.board = board;
+			this.live = live;
+			this.missing = missing;
+			this.runouts = runouts;
+			this.deadline = deadline;
+			this.random = random;
+		}
+
+		@Override
+		protected Tally compute() {
+			// Deal nothing if out of time
+			if (deadline != 0 && System.nanoTime() - deadline > 0) {
+				return new Tally(holes.length);
+			}
+
+			// Fork while there are too many runouts for one task
+			if (runouts > LEAF_RUNOUTS) {
+				long half = runouts / 2;
+				Simulation left = new Simulation(holes, board, live, missing, half, deadline, random.split());
+				Simulation right = new Simulation(holes, board, live, missing, runouts - half, deadline, random);
+				left.fork();
+				return right.compute().merge(left.join());
+			}
+
+			Tally tally = new Tally(holes.length);
+			int[] deck = live.clone();
+			int[] strengths = new int[holes.length];
+			for (long r = 0; r < runouts; r++) {
+				// Stop if out of time
+				if (deadline != 0 && r != 0 && r % CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+					break;
+				}
+
+				// Deal the missing cards by a partial Fisher-Yates shuffle of deck
+				long runout = board;
+				for (int j = 0; j < missing; j++) {
+					int k = j + random.nextInt(deck.length - j);
+					int card = deck[k];
+					deck[k] = deck[j];
+					deck[j] = card;
+					runout |= 1L << card;
+				}
+
+				// Find the strength of each player's hand
+				evaluate(holes, runout, strengths);
+				tally.add(strengths);
+			}
+			return tally;
+		}
+	}
+
+	/**
+	 * Goes through every runout where the first dealt card is at an index in a
+	 * range of the cards that may be dealt, and every later card is at a higher
+	 * index. Forks into two tasks of half the range while the first index of the
+	 * range has more than {@link EquityCalculator#LEAF_RUNOUTS} runouts.
+	 */
+	private static class Enumeration extends RecursiveTask<Tally> {
+		private static final long serialVersionUID = 1L;
+
+		/** Set of hole cards per player. */
+		private final long[] holes;
+		/** Set of cards on the board. */
+		private final long board;
+		/** Indexes of the cards that may be dealt. */
+		private final int[] live;
+		/** Number of cards missing from the board. */
+		private final int missing;
+		/** First index in {@link #live} of the first dealt card. */
+		private final int from;
+		/** Index in {@link #live} after the last of the first dealt card. */
+		private final int to;
+
+		private Enumeration(long[] holes, long board, int[] live, int missing, int from, int to) {
+			this.holes = holes;
+			this.board = board;
+			this.live = live;
+			this.missing = missing;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Tally compute() {
+			Tally tally = new Tally(holes.length);
+			int[] strengths = new int[holes.length];
+
+			// A complete board is the only runout
+			if (missing == 0) {
+				evaluate(holes, board, strengths);
+				tally.add(strengths);
+				return tally;
+			}
+
+			// Fork while there are too many runouts for one task
+			if (to - from > 1 && combinations(live.length - from - 1, missing - 1) > LEAF_RUNOUTS) {
+				int mid = (from + to) / 2;
+				Enumeration left = new Enumeration(holes, board, live, missing, from, mid);
+				Enumeration right = new Enumeration(holes, board, live, missing, mid, to);
+				left.fork();
+				return right.compute().merge(left.join());
+			}
+
+			// Indexes in live of the cards dealt after the first
+			int rest = missing - 1;
+			int[] index = new int[rest];
+			int n = live.length;
+
+			for (int first = from; first < to && first + rest < n; first++) {
+				long withFirst = board | (1L << live[first]);
+
+				// Start with the cards right after the first
+				for (int j = 0; j < rest; j++) {
+					index[j] = first + 1 + j;
+				}
+
+				while (true) {
+					// Find the strength of each player's hand
+					long runout = withFirst;
+					for (int j = 0; j < rest; j++) {
+						runout |= 1L << live[index[j]];
+					}
+					evaluate(holes, runout, strengths);
+					tally.add(strengths);
+
+					// Move on to the next combination of the rest of the cards
+					int j = rest - 1;
+					while (j >= 0 && index[j] == n - rest + j) {
+						j--;
+					}
+					if (j < 0) {
+						break;
+					}
+					index[j]++;
+					for (int k = j + 1; k < rest; k++) {
+						index[k] = index[k - 1] + 1;
+					}
+				}
+			}
+			return tally;
+		}
+	}
+}
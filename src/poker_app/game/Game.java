@@ -1,12 +1,16 @@
 package poker_app.game;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import poker_app.observer.TableObserver;
 
@@ -14,35 +18,72 @@ import poker_app.observer.TableObserver;
 /**
  * Represents one game of poker.
  * <p>
- * Last modified: 4 April 2021
+ * Last modified: 18 October 2026
  * 
  * @author Jakob Martin Torsvik
  */
 public class Game {
+	// STATIC
+	/**
+	 * Milliseconds to wait for the equity beyond the time budget of the
+	 * calculator, before running out the board without it.
+	 */
+	private final static long EQUITY_WAIT_MILLIS = 1000;
+	/** Runs out the board once the equity is shown, shared by every game. */
+	private final static ScheduledExecutorService RUNOUT_SCHEDULER = Executors
+			.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "Runout");
+				thread.setDaemon(true);
+				return thread;
+			});
+
 	// CONSTANTS
 	/** Chips in small blind. */
 	private int smallBlind;
 	/** Chips in big blind. */
 	private final int bigBlind;
 	/** Deck where the cards are dealt from. */
-	private final Deck deck = new Deck();
-	/** For iterating through deck. */
-	private final Iterator<Card> cIterator = deck.iterator();
+	private final Deck deck;
 	/** List of initial players. */
 	private final List<Player> players;
 	/** List of players that has not yet folded. */
 	private final List<Player> playersLeft;
+	/** Amount of chips each player has put into pot, by {@link Player#getIndex()}. */
+	private final int[] contributions;
 	/**
-	 * List of amount of chips each player is eligible to win based on
-	 * contributions.
+	 * Last amount of chips put into pot by each player on current betting round,
+	 * by {@link Player#getIndex()}.
 	 */
-	private final List<Integer> subPots;
+	private final int[] lastBets;
+	/**
+	 * Action each player has decided on ahead of their turn on the current
+	 * street, by {@link Player#getIndex()}, null if none.
+	 */
+	private final PreAction[] preActions;
+	/** Splits the pot between the players at show-down. */
+	private final PotManager potManager;
 	/** For observation of game. */
 	private final Collection<TableObserver> observers = new ArrayList<>();
 	
 	// NON-CONSTANTS
+	/** For calculating the equity of players all-in before the river, null if not to be calculated. */
+	private EquityCalculator equityCalculator;
+	/** Limits the time to act, null if there is no limit. */
+	private ActionClock actionClock;
+	/** Deadline of the player on action, null if there is none. */
+	private ScheduledFuture<?> deadline;
+	/** {@link System#nanoTime()} when the player on action came on action. */
+	private long actionStart;
 	/** For iterating through players. */
 	private Iterator<Player> pIterator;
+	/** Player whose action the game is waiting for, null if none. */
+	private Player playerOnAction;
+	/** Number of actions applied. */
+	private int numActions = 0;
+	/** Number of threads waiting in {@link #awaitAction(int)}. */
+	private int numWaiting = 0;
+	/** Task to run after the next action, null if none. */
+	private Runnable afterAction;
 	/** Last player to bet/raise in a round. */
 	private Player lastBettor;
 	/** Total amount of chips put into pot by all players. */
@@ -53,14 +94,16 @@ public class Game {
 	private int lastRaise = 0;
 	/** Number of bets/raises in a round. */
 	private int numBets = 0;
-	/** List of amount of chips each player has put into pot. */
-	private List<Integer> contributions;
+	/** If game is started or not. */
+	private boolean started = false;
 	/** If game is finished or not. */
 	private boolean gameFinished = false;
 	/** If current betting round is finished or not. */
 	private boolean roundFinished = false;
 	/** If all players are all in. */
 	private boolean allAllIn = false;
+	/** If the rest of the board is held off until the equity is shown. */
+	private boolean holdingRunout = false;
 	/**
 	 * Current round of betting, 'p' = pre-flop, 'f' = flop, 't' = turn, 'r' =river,
 	 * 's' = show-down.
@@ -73,9 +116,9 @@ public class Game {
 	 * Inits: {@link #players} as param players, {@link #bigBlind} as param
 	 * bigBlind, {@link #smallBlind} as param smallBlind, {@link #playersLeft} as a
 	 * {@link java.util.LinkedList} of param players, {@link #pIterator} as a
-	 * {@link java.util.Iterator} of playersLeft, {@link #subPots} as a
-	 * {@link java.util.ArrayList}, {@link #contributions} as a
-	 * {@link java.util.ArrayList}
+	 * {@link java.util.Iterator} of playersLeft, {@link #contributions} and
+	 * {@link #lastBets} as arrays of one value per player, {@link #potManager} for
+	 * the number of players
 	 * <p>
 	 * 
 	 * @param players    Players to participate in game, size in [2, 24)
@@ -85,8 +128,31 @@ public class Game {
 	 *                   bigBlind if greater than bigBlind, set to 1 if less than 1
 	 * @throws IllegalArgumentException if size of players is less than 2 or greater
 	 *                                  than 23
+	 * @see #Game(List, int, int, Deck)
 	 */
 	public Game(List<Player> players, int smallBlind, int bigBlind) {
+		this(players, smallBlind, bigBlind, new Deck());
+	}
+
+	/**
+	 * Inits: {@link #players} as param players, {@link #bigBlind} as param
+	 * bigBlind, {@link #smallBlind} as param smallBlind, {@link #deck} as param
+	 * deck, {@link #playersLeft} as a {@link java.util.LinkedList} of param
+	 * players, {@link #pIterator} as a {@link java.util.Iterator} of playersLeft,
+	 * {@link #contributions} and {@link #lastBets} as arrays of one value per
+	 * player, {@link #potManager} for the number of players
+	 * <p>
+	 * 
+	 * @param players    Players to participate in game, size in [2, 24)
+	 * @param bigBlind   Amount of chips that makes up the big blind, set to 1 if
+	 *                   less than 1
+	 * @param smallBlind Amount of chips that makes up the small blind, set to
+	 *                   bigBlind if greater than bigBlind, set to 1 if less than 1
+	 * @param deck       Deck to deal from, which should be reset before the game
+	 * @throws IllegalArgumentException if size of players is less than 2 or greater
+	 *                                  than 23
+	 */
+	public Game(List<Player> players, int smallBlind, int bigBlind, Deck deck) {
 		// Preprocessing
 		if (bigBlind < 1) {
 			bigBlind = 1;
@@ -108,21 +174,23 @@ public class Game {
 		this.players = players;
 		this.smallBlind = smallBlind;
 		this.bigBlind = bigBlind;
+		this.deck = deck;
 		
 		playersLeft = new LinkedList<>(players);
 		pIterator = playersLeft.iterator();
-		subPots = new ArrayList<>(s);
-		contributions = new ArrayList<>(s);
+		contributions = new int[s];
+		lastBets = new int[s];
+		preActions = new PreAction[s];
+		potManager = new PotManager(s);
 
 		// Handles players and deals cards:
-		for (Player player : players) {
+		for (int i = 0; i < s; i++) {
+			Player player = players.get(i);
 			player.setGame(this);
+			player.setIndex(i);
 
-			Card[] cards = { cIterator.next(), cIterator.next() };
+			Card[] cards = { deck.deal(), deck.deal() };
 			player.setCards(cards);
-
-			subPots.add(null);
-			contributions.add(0);
 		}
 	}
 
@@ -131,36 +199,261 @@ public class Game {
 	// ---------------
 
 	/**
-	 * The game loop as a switch for {@link #street}. Proceeds with the following
-	 * methods based on cases: 'p': {@link #preFlop()}, 'f': {@link #flop()}, 't':
-	 * {@link #turn()}, 'r': {@link #river()}, 's': {@link #showDown()}.
+	 * Plays the game on the calling thread. Starts the game, then lets each
+	 * player on action decide by {@link Player#onAction()} until the game is
+	 * finished, waiting for the action if it is not taken before
+	 * {@link Player#onAction()} returns, and for the board to be run out if it is
+	 * held off.
+	 * 
+	 * @see #start()
+	 * @see #apply(Action)
 	 */
 	public void play() {
-		// Loop as long as game is not finished
-		while (!gameFinished) {
-			// Switch for what street the game is on
-			switch (street) {
-			case 'p':
-				// Pre-flop
-				preFlop();
-				break;
-			case 'f':
-				// Flop
-				flop();
-				break;
-			case 't':
-				// Turn
-				turn();
-				break;
-			case 'r':
-				// River
-				river();
-				break;
-			case 's':
-				// Show-down
-				showDown();
+		start();
+
+		// Loop as long as the game is not finished, with no player on action while
+		// the board is held off
+		while (!isFinished()) {
+			int actions = getNumActions();
+			Player player = getPlayerOnAction();
+			if (player != null) {
+				player.onAction();
+			}
+			awaitAction(actions);
+		}
+	}
+
+	/**
+	 * Starts the game by posting the blinds, and moves it forward to the first
+	 * player on action. Does nothing if the game is already started.
+	 * <p>
+	 * The game is then driven by {@link #apply(Action)}, so it does not need a
+	 * thread of its own while waiting for players.
+	 * 
+	 * @see #getPlayerOnAction()
+	 */
+	public synchronized void start() {
+		if (started) {
+			return;
+		}
+		started = true;
+
+		preFlop();
+		advance();
+	}
+
+	/**
+	 * Applies the action of the player on action, and moves the game forward to
+	 * the next player on action or to the end of the game.
+	 * 
+	 * @param action Action to apply
+	 * @throws IllegalArgumentException if the player of param action is not on
+	 *                                  action
+	 */
+	public synchronized void apply(Action action) {
+		// Exceptions
+		Player player = action.getPlayer();
+		if (player == null || player != playerOnAction) {
+			throw new IllegalArgumentException("The player of Action action must be on action.");
+		}
+
+		// Player acted in time
+		if (deadline != null) {
+			actionClock.stop(deadline, player, (System.nanoTime() - actionStart) / 1000000);
+			deadline = null;
+		}
+
+		perform(action);
+		advance();
+	}
+
+	/**
+	 * Queues an action a player decides on ahead of their turn, to be taken as
+	 * soon as they come on action on the current street, replacing any they have
+	 * queued before. Is taken at once if the player is on action.
+	 * 
+	 * @param preAction Action decided on ahead
+	 * @throws IllegalArgumentException if the player of param preAction is not in
+	 *                                  the game, has folded or the game is
+	 *                                  finished
+	 */
+	public synchronized void queuePreAction(PreAction preAction) {
+		// Exceptions
+		Player player = preAction.getPlayer();
+		if (gameFinished || player == null || player.getGame() != this || !playersLeft.contains(player)) {
+			throw new IllegalArgumentException("The player of PreAction preAction must be in the game and not have folded.");
+		}
+
+		// Take at once if player is on action, otherwise when they come on action
+		if (player == playerOnAction) {
+			Action action = preAction.resolve(getAmountToCall(), lastBet);
+			if (action != null) {
+				apply(action);
+			}
+		} else {
+			preActions[player.getIndex()] = preAction;
+		}
+	}
+
+	/**
+	 * Removes the action a player has decided on ahead of their turn, if any.
+	 * 
+	 * @param player A player in the game
+	 */
+	public synchronized void clearPreAction(Player player) {
+		preActions[player.getIndex()] = null;
+	}
+
+	/**
+	 * Performs the action of the player on action.
+	 * 
+	 * @param action Action of the player on action
+	 */
+	private void perform(Action action) {
+		// Perform the action
+		Player player = action.getPlayer();
+		switch (action.getType()) {
+		case Action.FOLD:
+			fold(player);
+			break;
+		case Action.CHECK_OR_CALL:
+			checkOrCall(player);
+			break;
+		case Action.BET:
+			bet(player, action.getBetTo());
+			break;
+		}
+		numActions++;
+
+		// Check if all players have folded or are all in
+		allFold();
+		allAllIn();
+	}
+
+	/**
+	 * Moves the game forward until there is a player on action or the game is
+	 * finished. Goes past players that are all-in, takes the actions players have
+	 * decided on ahead of their turn, goes through the ends of the betting rounds
+	 * and the dealing of the streets, and wakes up threads waiting in
+	 * {@link #awaitAction(int)}.
+	 */
+	private void advance() {
+		playerOnAction = null;
+
+		while (true) {
+			// Go to the next street when the betting round is over, unless the board
+			// is held off until the equity is shown
+			if (roundFinished || allAllIn) {
+				if (holdingRunout) {
+					break;
+				}
+				nextStreet();
+				if (gameFinished) {
+					break;
+				}
+				continue;
+			}
+
+			// Player is on action if they are not all-in
+			Player player = nextPlayer();
+			if (player != null && player.getStack() > 0) {
+				playerOnAction = player;
+
+				// Take the action player has decided on ahead, if it still applies
+				PreAction preAction = preActions[player.getIndex()];
+				if (preAction != null) {
+					preActions[player.getIndex()] = null;
+					Action action = preAction.resolve(getAmountToCall(), lastBet);
+					if (action != null) {
+						playerOnAction = null;
+						perform(action);
+						continue;
+					}
+				}
+
+				// Start the clock of player
+				if (actionClock != null) {
+					actionStart = System.nanoTime();
+					deadline = actionClock.start(this, player, numActions);
+				}
 				break;
 			}
+
+			// Check if all players have folded or are all in
+			allFold();
+			allAllIn();
+		}
+
+		// Only notify if needed, as it makes the lock of the game heavier
+		if (numWaiting > 0) {
+			notifyAll();
+		}
+		if (afterAction != null) {
+			Runnable task = afterAction;
+			afterAction = null;
+			task.run();
+		}
+	}
+
+	/**
+	 * Makes a player that has run out of time check if they can and fold
+	 * otherwise, and empties their time bank.
+	 * 
+	 * @param player  Player whose time has run out
+	 * @param actions Number of actions applied before param player came on
+	 *                action
+	 * @return True if param player was made to act, false if they have acted in
+	 *         the meantime
+	 */
+	synchronized boolean expireAction(Player player, int actions) {
+		if (player != playerOnAction || numActions != actions) {
+			return false;
+		}
+
+		deadline = null;
+		player.setTimeBank(0);
+		apply(new Action(player, (getAmountToCall() == 0) ? Action.CHECK_OR_CALL : Action.FOLD));
+		return true;
+	}
+
+	/**
+	 * Schedules a task to run when an action is applied after a number of
+	 * actions, or the held off board is run out, unless it already is or the game
+	 * is finished. The task runs on the
+	 * thread applying the action, with the game locked, so it should only hand
+	 * the work on.
+	 * 
+	 * @param actions Number of actions applied before scheduling
+	 * @param task    Task to run
+	 * @return True if param task was scheduled, false if the action is already
+	 *         applied and the caller may go on
+	 */
+	public synchronized boolean runAfterAction(int actions, Runnable task) {
+		if (numActions != actions || gameFinished) {
+			return false;
+		}
+		afterAction = task;
+		return true;
+	}
+
+	/**
+	 * Waits until an action is applied after a number of actions, or the game is
+	 * finished, which is the only way on while the board is held off.
+	 * 
+	 * @param actions Number of actions applied before waiting
+	 */
+	private synchronized void awaitAction(int actions) {
+		while (numActions == actions && !gameFinished) {
+			numWaiting++;
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				System.out.println("Error while waiting for action.");
+				Thread.currentThread().interrupt();
+				return;
+			} finally {
+				numWaiting--;
+			}
 		}
 	}
 
@@ -169,10 +462,66 @@ public class Game {
 	// --------------------
 
 	/**
-	 * Handles the course of the pre-flop street.
+	 * Ends the current street and starts the next, unless the game is finished.
+	 * Proceeds with the following methods based on the next {@link #street}:
+	 * 'f': {@link #flop()}, 't': {@link #turn()}, 'r': {@link #river()}, 's':
+	 * {@link #showDown()}.
+	 */
+	private void nextStreet() {
+		// Switch for what street the game is on
+		switch (street) {
+		case 'p':
+			// There is no longer a big blind in play
+			for (Player player : players) {
+				player.setIsBigBlind(false);
+			}
+
+			// Next street is the flop
+			street = 'f';
+			break;
+		case 'f':
+			// Next street is the turn
+			street = 't';
+			break;
+		case 't':
+			// Next street is the river
+			street = 'r';
+			break;
+		case 'r':
+			// Next street is the show-down
+			street = 's';
+			break;
+		}
+
+		if (gameFinished) {
+			return;
+		}
+
+		// Switch for what street the game is on
+		switch (street) {
+		case 'f':
+			// Flop
+			flop();
+			break;
+		case 't':
+			// Turn
+			turn();
+			break;
+		case 'r':
+			// River
+			river();
+			break;
+		case 's':
+			// Show-down
+			showDown();
+			break;
+		}
+	}
+
+	/**
+	 * Handles the start of the pre-flop street.
 	 * 
 	 * @see #blinds()
-	 * @see #round()
 	 */
 	private void preFlop() {
 		// Observers: new street
@@ -189,104 +538,69 @@ public class Game {
 			playersLeft.set(0, playersLeft.get(1));
 			playersLeft.set(1, p);
 		}
-
-		// Round of betting
-		round();
-
-		// There is no longer a big blind in play
-		for (Player player : players) {
-			player.setIsBigBlind(false);
-		}
-
-		// Next street is the flop
-		street = 'f';
 	}
 
 	/**
-	 * Handles the course of the flop street.
-	 * 
-	 * @see #round()
+	 * Handles the start of the flop street.
 	 */
 	private void flop() {
 		// Put three cards on board
 		for (int i = 0; i < 3; i++) {
-			board[i] = cIterator.next();
+			dealBoard(i);
 		}
 
 		// Observers: new street
 		for (TableObserver obs : observers) {
 			obs.newStreet(street);
 		}
-		
-		// Round of betting
-		round();
 
-		// Next street is the turn
-		street = 't';
+		// Round of betting
+		roundFinished = false;
 	}
 
 	/**
-	 * Handles the course of the turn street.
-	 * 
-	 * @see #round()
+	 * Handles the start of the turn street.
 	 */
 	private void turn() {
 		// Put fourth card on board
-		board[3] = cIterator.next();
+		dealBoard(3);
 
 		// Observers: new street
 		for (TableObserver obs : observers) {
 			obs.newStreet(street);
 		}
-		
-		// Round of betting
-		round();
 
-		// Next street is the river
-		street = 'r';
+		// Round of betting
+		roundFinished = false;
 	}
 
 	/**
-	 * Handles the course of the river street.
-	 * 
-	 * @see #round()
+	 * Handles the start of the river street.
 	 */
 	private void river() {
 		// Put fifth card on board
-		board[4] = cIterator.next();
+		dealBoard(4);
 
 		// Observers: new street
 		for (TableObserver obs : observers) {
 			obs.newStreet(street);
 		}
-		
-		// Round of betting
-		round();
 
-		// Next street is the show-down
-		street = 's';
+		// Round of betting
+		roundFinished = false;
 	}
 
 	/**
 	 * Handles the show-down of the remaining players' hands.
 	 */
 	private void showDown() {
-		// Find the hand and sub-pots of all players remaining
-		for (Player p1 : playersLeft) {
-			p1.findHand();
-			
-			int i = players.indexOf(p1);
-			int c1 = contributions.get(i);
-			int subPot = 0;
-			
-			// Each player may win maximum what they have contributed from each player
-			for (Player p2 : players) {
-				int j = players.indexOf(p2);
-				int c2 = contributions.get(j);
-				subPot += Integer.min(c1, c2);
-			}
-			
-			subPots.set(i, subPot);
+		// Find the hands of all players remaining, folded players have no strength
+		int numPlayers = players.size();
+		int[] strengths = new int[numPlayers];
+		Arrays.fill(strengths, PotManager.FOLDED);
+		for (Player player : playersLeft) {
+			player.findHand();
+			strengths[player.getIndex()] = player.getStrength();
 		}
 
 		// Observers: new street and reveal hands of players left
@@ -294,106 +608,25 @@ public class Game {
 			obs.newStreet(street);
 			obs.revealHands(playersLeft);
 		}
-		
-		// Sort remaining players by hand values in descending order
-		int numPlayers = playersLeft.size();
-		List<Player> sortedByHand = new ArrayList<>(numPlayers);
-		sortedByHand.addAll(playersLeft);
+
+		// Chips each player wins from the pot
+		int[] payouts = potManager.resolve(contributions, strengths, numPlayers);
+
+		// Sort remaining players by hand values in descending order, then by position
+		List<Player> sortedByHand = new ArrayList<>(playersLeft);
 		sortedByHand.sort(new Comparator<Player>() {
 			@Override
 			public int compare(Player p1, Player p2) {
-				return p2.getHand().compareTo(p1.getHand());
+				int cmp = Integer.compare(p2.getStrength(), p1.getStrength());
+				return (cmp != 0) ? cmp : Integer.compare(p1.getIndex(), p2.getIndex());
 			}
 		});
 
-		// List of lists of players with equal hand values
-		List<List<Player>> winners = new ArrayList<>(numPlayers);
-
-		// Add player with best hand
-		List<Player> first = new LinkedList<>();
-		first.add(sortedByHand.get(0));
-		winners.add(first);
-
-		// Add players with equal hand values to the same list in winners
-		for (int i = 1; i < sortedByHand.size(); i++) {
-			Player p1 = sortedByHand.get(i);
-			Player p2 = sortedByHand.get(i - 1);
-			if (p1.getHand().compareTo(p2.getHand()) == 0) {
-				int ws = winners.size();
-				List<Player> l = winners.get(ws - 1);
-				l.add(p1);
-				winners.set(ws - 1, l);
-			} else {
-				List<Player> l = new LinkedList<>();
-				l.add(p1);
-				winners.add(l);
-			}
-		}
-
 		// Pay players
-		for (List<Player> ties : winners) {
-			// When pot is empty stop paying
-			if (pot == 0) {
-				break;
-			}
-
-			// List for storing chip amounts each player in ties should get
-			int tiedPlayers = ties.size();
-			List<Integer> amounts = new ArrayList<>(tiedPlayers);
-			for (int i = 0; i < tiedPlayers; i++) {
-				amounts.add(0);
-			}
-
-			// Sort tied players by subPot size in ascending order
-			ties.sort(new Comparator<Player>() {
-				@Override
-				public int compare(Player p1, Player p2) {
-					int subPot1 = subPots.get(players.indexOf(p1));
-					int subPot2 = subPots.get(players.indexOf(p2));
-					return subPot2 - subPot1;
-				}
-			});
-
-			// Find the chip amounts each tied player should get
-			int localPot = pot;
-			for (int i = 0; i < tiedPlayers; i++) {
-				// Stop if no chips left in local pot
-				if (localPot == 0) {
-					break;
-				}
-
-				// Find total amount of chips player should win
-				Player player = ties.get(i);
-				int subPot = subPots.get(players.indexOf(player));
-				int total = Integer.min(subPot, localPot);
-				localPot -= total;
-
-				// Increase the amounts to win for each player by the total to be payed out
-				// divided by number of tied players
-				int split = tiedPlayers - i;
-				for (int j = i; j < tiedPlayers; j++) {
-					amounts.set(j, amounts.get(j) + total / split);
-				}
-
-				// Remaining amount of chips to be split by tied players
-				int rest = total % split;
-				List<Integer> splitRest = new ArrayList<>(tiedPlayers);
-				for (int j = i; j < tiedPlayers; j++) {
-					splitRest.add(j);
-				}
-
-				// Pay one chip at a time from rest at random
-				for (int j = 0; j < rest; j++) {
-					int r = new Random().nextInt(splitRest.size());
-					int k = splitRest.get(r);
-					amounts.set(k, amounts.get(k) + 1);
-					splitRest.remove(r);
-				}
-			}
-
-			// Pay appropriate amount to each tied player
-			for (int i = 0; i < tiedPlayers; i++) {
-				win(ties.get(i), amounts.get(i));
+		for (Player player : sortedByHand) {
+			int amount = payouts[player.getIndex()];
+			if (amount > 0) {
+				win(player, amount);
 			}
 		}
 
@@ -406,66 +639,44 @@ public class Game {
 	// ------------------
 
 	/**
-	 * Handles one round of betting.
+	 * Finds the next player to act on the current betting round, and finishes the
+	 * round if every player has had their turn.
+	 * 
+	 * @return The next player to act, null if the round was finished
 	 */
-	private void round() {
-		// Make sure that round is not finished
-		roundFinished = false;
-
-		// Player on action
-		Player currentPlayer;
-		
-		// Action before first bet is put into pot
-		while (lastBet == 0 && !allAllIn && !roundFinished) {
-			// Go through all players and finish round if no one bets
+	private Player nextPlayer() {
+		// Before first bet, finish round if no one bets
+		if (lastBet == 0) {
 			if (pIterator.hasNext()) {
-				currentPlayer = pIterator.next();
-				currentPlayer.onAction();
-			} else {
-				finishRound();
+				return pIterator.next();
 			}
+			finishRound();
+			return null;
+		}
 
-			// Check if all players have folded or are all in
-			allFold();
-			allAllIn();
+		// Restart player iteration if end is reached
+		if (!pIterator.hasNext()) {
+			pIterator = playersLeft.iterator();
 		}
+		Player player = pIterator.next();
 
-		// If someone has put in a bet
-		while (!allAllIn && !roundFinished) {
-			// Restart player iteration if end is reached
-			if (!pIterator.hasNext()) {
-				pIterator = playersLeft.iterator();
+		// Handle if player was last to bet, otherwise player is to act
+		if (player == lastBettor) {
+			if (!player.getIsBigBlind()) {
+				// Finish round if player is not the big blind
+				finishRound();
+				return null;
 			}
 
-			// Player on action
-			currentPlayer = pIterator.next();
-
-			// Handle if player was last to bet, otherwise player is to act
-			if (currentPlayer == lastBettor) {
-				if (!currentPlayer.getIsBigBlind()) {
-					// Finish round if player is not the big blind
-					finishRound();
-				} else {
-					// Otherwise change last bettor to another player
-					int i = playersLeft.indexOf(currentPlayer);
-					if (playersLeft.size() != 2 || i == 0) {
-						lastBettor = playersLeft.get(i + 1);
-					} else {
-						lastBettor = playersLeft.get(0);
-					}
-
-					// Player is to act
-					currentPlayer.onAction();
-				}
+			// Otherwise change last bettor to another player
+			int i = playersLeft.indexOf(player);
+			if (playersLeft.size() != 2 || i == 0) {
+				lastBettor = playersLeft.get(i + 1);
 			} else {
-				currentPlayer.onAction();
+				lastBettor = playersLeft.get(0);
 			}
-
-			// Check if all players have folded or are all in
-			allFold();
-			allAllIn();
 		}
-
+		return player;
 	}
 
 	/**
@@ -476,9 +687,8 @@ public class Game {
 		lastRaise = 0;
 		numBets = 0;
 		lastBettor = null;
-		for (Player player : players) {
-			player.setLastBet(0);
-		}
+		Arrays.fill(lastBets, 0);
+		Arrays.fill(preActions, null);
 		pIterator = playersLeft.iterator();
 		roundFinished = true;
 	}
@@ -493,9 +703,9 @@ public class Game {
 	 * 
 	 * @param player Player that is checking or calling
 	 */
-	public void checkOrCall(Player player) {
+	private void checkOrCall(Player player) {
 		// Amount to call
-		int plb = player.getLastBet();
+		int plb = lastBets[player.getIndex()];
 		int amount = lastBet - plb;
 		int stack = player.getStack();
 		if (stack + plb < lastBet) {
@@ -516,7 +726,7 @@ public class Game {
 		}
 
 		// Set last amount put into pot by player
-		player.setLastBet(plb + amount);
+		lastBets[player.getIndex()] = plb + amount;
 	}
 
 	/**
@@ -525,7 +735,7 @@ public class Game {
 	 * @param player Player that is betting
 	 * @param betTo  Amount player is betting to
 	 */
-	public void bet(Player player, int betTo) {
+	private void bet(Player player, int betTo) {
 		// Control the bet
 		betTo = controlBet(player, betTo);
 
@@ -535,7 +745,7 @@ public class Game {
 			player.setIsBigBlind(false);
 
 			// How much more player needs to contribute
-			int bet = betTo - player.getLastBet();
+			int bet = betTo - lastBets[player.getIndex()];
 			contribute(player, bet);
 
 			// Bet is a raise if the last bet is not zero
@@ -545,7 +755,7 @@ public class Game {
 
 			// Set some variables
 			lastBet = betTo;
-			player.setLastBet(betTo);
+			lastBets[player.getIndex()] = betTo;
 			lastBettor = player;
 			numBets++;
 			
@@ -566,7 +776,7 @@ public class Game {
 	 * 
 	 * @param player Player that is folding
 	 */
-	public void fold(Player player) {
+	private void fold(Player player) {
 		// Remove player from the game
 		pIterator.remove();
 		
@@ -586,7 +796,7 @@ public class Game {
 	 */
 	private int controlBet(Player player, int betTo) {
 		// Size of the bet for player to be all-in
-		int allIn = player.getStack() + player.getLastBet();
+		int allIn = player.getStack() + lastBets[player.getIndex()];
 
 		// Corrections of the bet size
 		if (lastBet > 0) {
@@ -627,9 +837,8 @@ public class Game {
 		// Remove chips from stack
 		player.adjustStack(-amount);
 
-		// Adds the players contribution to the list of player contributions
-		int i = players.indexOf(player);
-		contributions.set(i, contributions.get(i) + amount);
+		// Adds the players contribution to the player contributions
+		contributions[player.getIndex()] += amount;
 
 		// Increase the size of the pot
 		increasePot(amount);
@@ -639,6 +848,18 @@ public class Game {
 	// Other:
 	// ------
 
+	/**
+	 * Deals a card to the board and adds it to the hands of the players left.
+	 * 
+	 * @param i Index of the card on the board
+	 */
+	private void dealBoard(int i) {
+		board[i] = deck.deal();
+		for (Player player : playersLeft) {
+			player.addBoardCard(board[i]);
+		}
+	}
+
 	/**
 	 * Handles the posting of the blinds.
 	 */
@@ -659,7 +880,7 @@ public class Game {
 	private void smallBlind(Player player) {
 		int amount = Integer.min(smallBlind, player.getStack());
 		contribute(player, amount);
-		player.setLastBet(amount);
+		lastBets[player.getIndex()] = amount;
 	}
 
 	/**
@@ -699,15 +920,72 @@ public class Game {
 			}
 			// If player is not all in and their last contribution to the pot is less than
 			// the last bet, they are yet to act
-			else if (player.getLastBet() < lastBet) {
+			else if (lastBets[player.getIndex()] < lastBet) {
 				yetToAct = true;
 				break;
 			}
 		}
 
 		// Stores the result in the boolean field allAllIn
+		boolean wasAllAllIn = allAllIn;
 		allAllIn = (notAllIn > 1 || yetToAct) ? false : true;
 
+		// Show the equity of the players when they have just become all-in
+		if (allAllIn && !wasAllAllIn) {
+			showEquity();
+		}
+	}
+
+	/**
+	 * Calculates the equity of the players left using {@link #equityCalculator}
+	 * without waiting for it, and holds off the rest of the board until it is
+	 * shown to the observers, or the time budget of the calculator and
+	 * {@link #EQUITY_WAIT_MILLIS} have run out. Does nothing if there are no
+	 * observers, only one player left or the board is complete.
+	 * 
+	 * @see #runOut(List, Equity)
+	 */
+	private void showEquity() {
+		if (equityCalculator == null || observers.isEmpty() || playersLeft.size() < 2 || board[4] != null) {
+			return;
+		}
+
+		// Hole cards of players left
+		List<Player> players = new ArrayList<>(playersLeft);
+		Card[][] holeCards = new Card[players.size()][];
+		for (int i = 0; i < holeCards.length; i++) {
+			holeCards[i] = players.get(i).getCards();
+		}
+
+		// Run out the board when the equity is found, or without it when it takes too long
+		holdingRunout = true;
+		long wait = equityCalculator.getTimeBudget() + EQUITY_WAIT_MILLIS;
+		RUNOUT_SCHEDULER.schedule(() -> runOut(players, null), wait, TimeUnit.MILLISECONDS);
+		equityCalculator.calculateAsync(holeCards, board, CardSet.EMPTY)
+				.thenAccept(equity -> RUNOUT_SCHEDULER.execute(() -> runOut(players, equity)));
+	}
+
+	/**
+	 * Shows the equity of the players left to the observers, then runs out the
+	 * held off board. Does nothing if the board is not held off.
+	 * 
+	 * @param players Players left
+	 * @param equity  Equity of param players, null if not found in time
+	 */
+	private synchronized void runOut(List<Player> players, Equity equity) {
+		if (!holdingRunout) {
+			return;
+		}
+		holdingRunout = false;
+
+		// Observers: equity of players left
+		if (equity != null) {
+			for (TableObserver obs : observers) {
+				obs.equity(players, equity);
+			}
+		}
+
+		advance();
 	}
 
 	/**
@@ -756,10 +1034,93 @@ public class Game {
 	// Setters/Getters:
 	// ----------------
 
+	public void setEquityCalculator(EquityCalculator equityCalculator) {
+		this.equityCalculator = equityCalculator;
+	}
+
+	/**
+	 * @param actionClock Limits the time to act, null if there is no limit, set
+	 *                    before the game is started
+	 */
+	public void setActionClock(ActionClock actionClock) {
+		this.actionClock = actionClock;
+	}
+
+	/**
+	 * @param oddChipPolicy Decides who gets the odd chips of a split pot
+	 * @throws IllegalArgumentException if oddChipPolicy is null
+	 */
+	public void setOddChipPolicy(OddChipPolicy oddChipPolicy) {
+		potManager.setOddChipPolicy(oddChipPolicy);
+	}
+
+	public synchronized Player getPlayerOnAction() {
+		return playerOnAction;
+	}
+
+	public synchronized int getNumActions() {
+		return numActions;
+	}
+
+	public synchronized boolean isFinished() {
+		return gameFinished;
+	}
+
+	/**
+	 * @return Chips the player on action needs to put into pot to call, 0 if they
+	 *         may check or there is no player on action
+	 */
+	public synchronized int getAmountToCall() {
+		if (playerOnAction == null) {
+			return 0;
+		}
+		return Integer.min(lastBet - lastBets[playerOnAction.getIndex()], playerOnAction.getStack());
+	}
+
+	/**
+	 * @return The smallest amount the player on action may bet to, 0 if there is
+	 *         no player on action
+	 */
+	public synchronized int getMinBetTo() {
+		if (playerOnAction == null) {
+			return 0;
+		}
+		int minBet = (lastBet == 0) ? bigBlind : (lastRaise > 0) ? lastBet + lastRaise : 2 * lastBet;
+		return Integer.min(minBet, getMaxBetTo());
+	}
+
+	/**
+	 * @return The largest amount the player on action may bet to, that is going
+	 *         all-in, 0 if there is no player on action
+	 */
+	public synchronized int getMaxBetTo() {
+		if (playerOnAction == null) {
+			return 0;
+		}
+		return playerOnAction.getStack() + lastBets[playerOnAction.getIndex()];
+	}
+
+	/**
+	 * @return If the player on action may bet or raise, rather than only
+	 *         check/call or fold
+	 */
+	public synchronized boolean canBet() {
+		return playerOnAction != null && getMaxBetTo() > lastBet;
+	}
+
 	public int getLastBet() {
 		return lastBet;
 	}
 
+	/**
+	 * @param player A player in the game
+	 * @return Last amount of chips put into pot by param player on current betting
+	 *         round
+	 */
+	public int getLastBet(Player player) {
+		return lastBets[player.getIndex()];
+	}
+
 	public int getLastRaise() {
 		return lastRaise;
 	}
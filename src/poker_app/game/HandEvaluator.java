@@ -0,0 +1,279 @@
+package poker_app.game;
+
+import java.util.List;
+
+/**
+ * Evaluates poker hands of 5 to 7 playing cards of class
+ * {@link poker_app.game.Card} into a single comparable integer, the strength of
+ * the hand.
+ * <p>
+ * The strength holds the hand ranking (an index in {@link Hand#RANKING_NAMES})
+ * in the bits from {@link #CATEGORY_SHIFT} and up, and the values of the cards
+ * deciding ties below it as 4-bit values, most significant first. A higher
+ * strength means a better hand, and two hands of equal strength are tied.
+ * <p>
+ * All work is done with bit operations on one 13-bit mask of card values per
+ * suit and lookups in tables that are precomputed once, so no objects are
+ * allocated per evaluation.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class HandEvaluator {
+	// STATIC
+	/** Number of bits the hand ranking is shifted by in a strength. */
+	public final static int CATEGORY_SHIFT = 20;
+	/** Mask of all 13 card values. */
+	private final static int ALL_VALUES = 0x1FFF;
+	/**
+	 * The five highest values in each 13-bit mask of values, as 4-bit values where
+	 * the highest value is in bits 16-19.
+	 */
+	private final static int[] TOP_FIVE = new int[ALL_VALUES + 1];
+	/**
+	 * The value of the highest card of the best straight in each 13-bit mask of
+	 * values, -1 if there is none.
+	 */
+	private final static byte[] STRAIGHT = new byte[ALL_VALUES + 1];
+
+	static {
+		for (int mask = 0; mask <= ALL_VALUES; mask++) {
+			// Find the five highest values in mask
+			int top = 0;
+			int found = 0;
+			for (int value = 12; value >= 0 && found < 5; value--) {
+				if ((mask & (1 << value)) != 0) {
+					top |= value << (4 * (4 - found));
+					found++;
+				}
+			}
+			TOP_FIVE[mask] = top;
+
+			// Find the highest straight in mask, where the ace ('A') also counts as the
+			// lowest card
+			int withLowAce = (mask << 1) | (mask >>> 12);
+			int high = -1;
+			for (int value = 12; value >= 3 && high < 0; value--) {
+				int straight = 0x1F << (value - 3);
+				if ((withLowAce & straight) == straight) {
+					high = value;
+				}
+			}
+			STRAIGHT[mask] = (byte) high;
+		}
+	}
+
+	/**
+	 * Not to be instantiated.
+	 */
+	private HandEvaluator() {
+
+	}
+
+	// -----------
+	// Evaluation:
+	// -----------
+
+	/**
+	 * Evaluates the strength of the best hand that can be made from param cards.
+	 *
+	 * @param cards 5 to 7 cards
+	 * @return The strength of the best hand
+	 */
+	public static int evaluate(List<Card> cards) {
+		// Set of the cards
+		long set = CardSet.EMPTY;
+		for (int i = 0; i < cards.size(); i++) {
+			set |= cards.get(i).mask();
+		}
+
+		return evaluate(set);
+	}
+
+	/**
+	 * Evaluates the strength of the best hand that can be made from a set of cards.
+	 *
+	 * @param cards A {@link CardSet} of 5 to 7 cards
+	 * @return The strength of the best hand
+	 */
+	public static int evaluate(long cards) {
+		return evaluate(CardSet.values(cards, 0), CardSet.values(cards, 1), CardSet.values(cards, 2),
+				CardSet.values(cards, 3));
+	}
+
+	/**
+	 * Evaluates the strengths of the best hands of a number of players sharing a
+	 * board in one pass, splitting the board into values per suit only once.
+	 *
+	 * @param board     A {@link CardSet} of the cards on the board
+	 * @param holes     A {@link CardSet} of the hole cards of each player
+	 * @param strengths Array to put the strength of each player's best hand in
+	 * @param n         Number of players, the first n of param holes are evaluated
+	 */
+	public static void evaluate(long board, long[] holes, int[] strengths, int n) {
+		// Values per suit of the board
+		int spades = CardSet.values(board, 0);
+		int diamonds = CardSet.values(board, 1);
+		int clubs = CardSet.values(board, 2);
+		int hearts = CardSet.values(board, 3);
+
+		for (int i = 0; i < n; i++) {
+			long hole = holes[i];
+			strengths[i] = evaluate(spades | CardSet.values(hole, 0), diamonds | CardSet.values(hole, 1),
+					clubs | CardSet.values(hole, 2), hearts | CardSet.values(hole, 3));
+		}
+	}
+
+	/**
+	 * Evaluates the strength of the best hand that can be made from the cards given
+	 * as one 13-bit mask of values per suit, where bit n is set if the card of
+	 * value n is present.
+	 *
+	 * @param spades   Values of the spades
+	 * @param diamonds Values of the diamonds
+	 * @param clubs    Values of the clubs
+	 * @param hearts   Values of the hearts
+	 * @return The strength of the best hand
+	 */
+	public static int evaluate(int spades, int diamonds, int clubs, int hearts) {
+		// Find the suit with five or more cards, if there is one
+		int flush = 0;
+		if (Integer.bitCount(spades) >= 5) {
+			flush = spades;
+		} else if (Integer.bitCount(diamonds) >= 5) {
+			flush = diamonds;
+		} else if (Integer.bitCount(clubs) >= 5) {
+			flush = clubs;
+		} else if (Integer.bitCount(hearts) >= 5) {
+			flush = hearts;
+		}
+
+		// Royal/Straight flush
+		if (flush != 0) {
+			int high = STRAIGHT[flush];
+			if (high == 12) {
+				return strength(9, 0);
+			} else if (high >= 0) {
+				return strength(8, high);
+			}
+		}
+
+		// Values present at least once, twice, three times and four times
+		int one = spades | diamonds | clubs | hearts;
+		int two = (spades & diamonds) | (spades & clubs) | (spades & hearts) | (diamonds & clubs)
+				| (diamonds & hearts) | (clubs & hearts);
+		int three = (spades & diamonds & clubs) | (spades & diamonds & hearts) | (spades & clubs & hearts)
+				| (diamonds & clubs & hearts);
+		int four = spades & diamonds & clubs & hearts;
+
+		// Four of a kind, with the highest other card as kicker
+		if (four != 0) {
+			int quads = highest(four);
+			return strength(7, (quads << 4) | top(one & ~(1 << quads), 1));
+		}
+
+		// Full house, where the pair may be a second three of a kind
+		if (three != 0) {
+			int trips = highest(three);
+			int pairs = two & ~(1 << trips);
+			if (pairs != 0) {
+				return strength(6, (trips << 4) | highest(pairs));
+			}
+		}
+
+		// Flush
+		if (flush != 0) {
+			return strength(5, TOP_FIVE[flush]);
+		}
+
+		// Straight
+		int high = STRAIGHT[one];
+		if (high >= 0) {
+			return strength(4, high);
+		}
+
+		// Three of a kind, with the two highest other cards as kickers
+		if (three != 0) {
+			int trips = highest(three);
+			return strength(3, (trips << 8) | top(one & ~(1 << trips), 2));
+		}
+
+		// Two pair, with the highest other card as kicker
+		if (Integer.bitCount(two) >= 2) {
+			int pairs = top(two, 2);
+			int kickers = one & ~(1 << (pairs >>> 4)) & ~(1 << (pairs & 0xF));
+			return strength(2, (pairs << 4) | top(kickers, 1));
+		}
+
+		// Pair, with the three highest other cards as kickers
+		if (two != 0) {
+			int pair = highest(two);
+			return strength(1, (pair << 12) | top(one & ~(1 << pair), 3));
+		}
+
+		// High card
+		return strength(0, TOP_FIVE[one]);
+	}
+
+	// ----------------
+	// Helping methods:
+	// ----------------
+
+	/**
+	 * Combines a hand ranking and the values deciding ties into a strength.
+	 *
+	 * @param ranking Index of the hand ranking in {@link Hand#RANKING_NAMES}
+	 * @param values  Values deciding ties, as 4-bit values
+	 * @return The strength
+	 */
+	private static int strength(int ranking, int values) {
+		return (ranking << CATEGORY_SHIFT) | values;
+	}
+
+	/**
+	 * Finds the highest value in a mask of values.
+	 *
+	 * @param mask A non-empty 13-bit mask of values
+	 * @return The highest value
+	 */
+	private static int highest(int mask) {
+		return 31 - Integer.numberOfLeadingZeros(mask);
+	}
+
+	/**
+	 * Finds the param n highest values in a mask of values.
+	 *
+	 * @param mask A 13-bit mask of values
+	 * @param n    Number of values to find, in range [1, 5]
+	 * @return The n highest values as 4-bit values, where the highest value is in
+	 *         the most significant position
+	 */
+	private static int top(int mask, int n) {
+		return TOP_FIVE[mask] >>> (4 * (5 - n));
+	}
+
+	// ----------------
+	// Setters/Getters:
+	// ----------------
+
+	/**
+	 * Gives the hand ranking of a strength.
+	 *
+	 * @param strength A strength given by this evaluator
+	 * @return Index of the hand ranking in {@link Hand#RANKING_NAMES}
+	 */
+	public static int ranking(int strength) {
+		return strength >>> CATEGORY_SHIFT;
+	}
+
+	/**
+	 * Gives the values deciding ties of a strength.
+	 *
+	 * @param strength A strength given by this evaluator
+	 * @return The values deciding ties, as 4-bit values
+	 */
+	public static int values(int strength) {
+		return strength & ((1 << CATEGORY_SHIFT) - 1);
+	}
+}
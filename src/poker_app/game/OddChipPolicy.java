@@ -0,0 +1,56 @@
+package poker_app.game;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Decides which of the players splitting a pot get the chips left over when
+ * the pot can not be split evenly.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+@FunctionalInterface
+public interface OddChipPolicy {
+	/**
+	 * Gives the odd chips to the winners first in position, that is the first
+	 * winners to the left of the button.
+	 */
+	OddChipPolicy BY_POSITION = (winners, numWinners, oddChips, payouts) -> {
+		for (int i = 0; i < oddChips; i++) {
+			payouts[winners[i]]++;
+		}
+	};
+
+	/**
+	 * Gives one odd chip each to some of the winners of a pot.
+	 *
+	 * @param winners    Indexes of the winners in ascending order, that is in
+	 *                   order of position from the small blind, in range [0,
+	 *                   numWinners)
+	 * @param numWinners Number of winners
+	 * @param oddChips   Number of odd chips, in range [1, numWinners)
+	 * @param payouts    Chips to pay each player by index, to be increased by one
+	 *                   for each winner that gets an odd chip
+	 */
+	void award(int[] winners, int numWinners, int oddChips, int[] payouts);
+
+	/**
+	 * Gives a policy that gives the odd chips to winners drawn at random.
+	 *
+	 * @param random Random generator to draw the winners with
+	 * @return A policy drawing from param random
+	 */
+	static OddChipPolicy random(RandomGenerator random) {
+		return (winners, numWinners, oddChips, payouts) -> {
+			// Partial Fisher-Yates shuffle of the winners
+			for (int i = 0; i < oddChips; i++) {
+				int j = i + random.nextInt(numWinners - i);
+				int winner = winners[j];
+				winners[j] = winners[i];
+				winners[i] = winner;
+				payouts[winner]++;
+			}
+		};
+	}
+}
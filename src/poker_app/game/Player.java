@@ -1,15 +1,12 @@
 package poker_app.game;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import poker_app.Table;
 import poker_app.user.User;
 
 /**
  * Represents a poker player.
  * <p>
- * Last modified: 4 April 2021
+ * Last modified: 18 October 2026
  * 
  * @author Jakob Martin Torsvik
  */
@@ -24,22 +21,33 @@ public class Player {
 	private Position position;
 	/** Current game this player is participating in. */
 	private Game game;
+	/** Index of this player in the players of {@link #game}. */
+	private int index;
 	/** Complete hand player is holding. */
 	private Hand hand;
 	/** Cards held by player. */
 	private Card[] cards = { null, null };
+	/** A {@link CardSet} of the cards held by player and the cards dealt on the board so far. */
+	private long cardSet = CardSet.EMPTY;
+	/**
+	 * Strength of the best hand that can be made from {@link #cardSet}, kept up to
+	 * date as cards are dealt.
+	 * 
+	 * @see HandEvaluator
+	 */
+	private int strength;
 	/** If player is big blind, can only be true pre-flop. */
 	private boolean isBigBlind = false;
 	/** If player is sitting out of the next game at {@link #table}. */
 	private boolean sittingOut = false;
 	/** Amount of chips won or lost by player. */
 	private int profit = 0;
-	/** Last amount of chips put into pot by player. */
-	private int lastBet = 0;
 	/** Default bet size. */
 	private int betSize = 10;
 	/** Amount of chips possessed by player. */
 	private int stack;
+	/** Milliseconds player may act for beyond the time of each action, see {@link ActionClock}. */
+	private long timeBank = 0;
 
 	public Player() {
 
@@ -79,29 +87,51 @@ public class Player {
 	 * Tells {@link #game} that player either checks or calls depending if there is
 	 * a bet to call or not.
 	 * 
-	 * @see Game#checkOrCall(Player)
+	 * @see Game#apply(Action)
 	 */
 	public void checkOrCall() {
-		game.checkOrCall(this);
+		game.apply(new Action(this, Action.CHECK_OR_CALL));
 	}
 
 	/**
 	 * Tells {@link #game} that player bets.
 	 * 
 	 * @param betTo Amount of chips to bet
-	 * @see {@link Game#bet(Player, int)}
+	 * @see Game#apply(Action)
 	 */
 	public void bet(int betTo) {
-		game.bet(this, betTo);
+		game.apply(new Action(this, Action.BET, betTo));
 	}
 
 	/**
 	 * Tells {@link #game} that player folds.
 	 * 
-	 * @see Game#fold(Player)
+	 * @see Game#apply(Action)
 	 */
 	public void fold() {
-		game.fold(this);
+		game.apply(new Action(this, Action.FOLD));
+	}
+
+	/**
+	 * Tells {@link #game} that player decides on an action ahead of their turn.
+	 * 
+	 * @param type {@link PreAction#CHECK_OR_FOLD}, {@link PreAction#CHECK} or
+	 *             {@link PreAction#CALL_ANY}
+	 * @see Game#queuePreAction(PreAction)
+	 */
+	public void preAct(char type) {
+		game.queuePreAction(new PreAction(this, type));
+	}
+
+	/**
+	 * Tells {@link #game} that player decides ahead of their turn to call a bet
+	 * up to some amount.
+	 * 
+	 * @param callTo Largest bet to call
+	 * @see Game#queuePreAction(PreAction)
+	 */
+	public void preCall(int callTo) {
+		game.queuePreAction(new PreAction(this, PreAction.CALL, callTo));
 	}
 
 	// -------------------
@@ -109,28 +139,22 @@ public class Player {
 	// -------------------
 
 	/**
-	 * Finds and {@link #hand} based on the cards on the board and the
-	 * {@link #cards} of the player.
+	 * Adds a card dealt on the board to {@link #cardSet} and updates
+	 * {@link #strength}.
+	 * 
+	 * @param card Card dealt on the board
 	 */
-	public void findHand() {
-		// Cards to find hand of
-		List<Card> cardsInHand = new ArrayList<>(7);
-
-		// Add all cards from board to cardsInHand
-		Card[] board = game.getBoard();
-		for (int i = 0; i < 5; i++) {
-			if (board[i] == null) {
-				break;
-			}
-			cardsInHand.add(board[i]);
-		}
-
-		// Add the cards that player is holding to cardsInHand
-		cardsInHand.add(cards[0]);
-		cardsInHand.add(cards[1]);
+	public void addBoardCard(Card card) {
+		cardSet = CardSet.add(cardSet, card);
+		strength = HandEvaluator.evaluate(cardSet);
+	}
 
-		// Find and set the hand
-		hand = new Hand(cardsInHand);
+	/**
+	 * Finds and sets {@link #hand} based on the cards on the board and the
+	 * {@link #cards} of the player, as they are in {@link #cardSet}.
+	 */
+	public void findHand() {
+		hand = new Hand(cardSet, strength);
 	}
 
 	/**
@@ -200,12 +224,44 @@ public class Player {
 		return game;
 	}
 
+	public void setIndex(int index) {
+		this.index = index;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @param timeBank Milliseconds player may act for beyond the time of each
+	 *                 action, set to 0 if less than 0
+	 */
+	public void setTimeBank(long timeBank) {
+		this.timeBank = Long.max(timeBank, 0);
+	}
+
+	public long getTimeBank() {
+		return timeBank;
+	}
+
 	public Hand getHand() {
 		return hand;
 	}
 
+	public int getStrength() {
+		return strength;
+	}
+
+	/**
+	 * Sets {@link #cards}, and {@link #cardSet} and {@link #strength} as only the
+	 * cards held.
+	 * 
+	 * @param cards The two cards held by player
+	 */
 	public void setCards(Card[] cards) {
 		this.cards = cards;
+		cardSet = CardSet.of(cards);
+		strength = HandEvaluator.evaluate(cardSet);
 	}
 
 	public Card[] getCards() {
@@ -228,12 +284,13 @@ public class Player {
 		return profit;
 	}
 
-	public void setLastBet(int lastBet) {
-		this.lastBet = lastBet;
-	}
-
+	/**
+	 * @return Last amount of chips put into pot by player on the current betting
+	 *         round of {@link #game}
+	 * @see Game#getLastBet(Player)
+	 */
 	public int getLastBet() {
-		return lastBet;
+		return game.getLastBet(this);
 	}
 
 	public boolean getIsBigBlind() {
@@ -0,0 +1,187 @@
+package poker_app.game;
+
+import java.util.Arrays;
+
+/**
+ * Splits the pot of a game between the players at show-down.
+ * <p>
+ * The pot is split into layers by the distinct amounts the players have
+ * contributed, where the layer between two such amounts is contested by the
+ * players that have contributed at least the larger one and has not folded.
+ * Each layer goes to the players with the strongest hand among those
+ * contesting it, split evenly, with the odd chips given out by an
+ * {@link OddChipPolicy}. A layer no player contests, which only the chips of
+ * folded players can make up, goes to the layer below it.
+ * <p>
+ * The layers are found by sorting the contributions once, and are resolved
+ * from the top down while adding the players that contest each layer, so the
+ * strongest hand of each layer is known without going through the players
+ * again.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class PotManager {
+	// STATIC
+	/** Strength given to players that have folded. */
+	public final static int FOLDED = -1;
+	/** Number of bits used for the index of a player in {@link #order}. */
+	private final static int INDEX_BITS = 5;
+	/** Mask of the index of a player in {@link #order}. */
+	private final static long INDEX_MASK = (1 << INDEX_BITS) - 1;
+
+	// CONSTANTS
+	/** Chips won by each player by index. */
+	private final int[] payouts;
+	/** Contribution and index of each contributing player, as (contribution << {@link #INDEX_BITS} | index). */
+	private final long[] order;
+	/** Indexes of the winners of the current layer. */
+	private final int[] winners;
+
+	// NON-CONSTANTS
+	/** Decides who gets the odd chips of a split layer. */
+	private OddChipPolicy oddChipPolicy;
+
+	/**
+	 * Inits: {@link #oddChipPolicy} as {@link OddChipPolicy#BY_POSITION}
+	 *
+	 * @param numPlayers Maximum number of players in the pots to resolve
+	 * @see #PotManager(int, OddChipPolicy)
+	 */
+	public PotManager(int numPlayers) {
+		this(numPlayers, OddChipPolicy.BY_POSITION);
+	}
+
+	/**
+	 * Inits: {@link #oddChipPolicy} as param oddChipPolicy, {@link #payouts},
+	 * {@link #order} and {@link #winners} as arrays of one value per player
+	 *
+	 * @param numPlayers    Maximum number of players in the pots to resolve
+	 * @param oddChipPolicy Decides who gets the odd chips of a split layer
+	 * @throws IllegalArgumentException if numPlayers is less than 1 or greater than
+	 *                                  2 ^ {@link #INDEX_BITS}
+	 */
+	public PotManager(int numPlayers, OddChipPolicy oddChipPolicy) {
+		// Exceptions
+		if (numPlayers < 1 || numPlayers > 1 << INDEX_BITS) {
+			throw new IllegalArgumentException("The int numPlayers must be in the interval [1, " + (1 << INDEX_BITS) + "].");
+		}
+
+		// Inits
+		payouts = new int[numPlayers];
+		order = new long[numPlayers];
+		winners = new int[numPlayers];
+		setOddChipPolicy(oddChipPolicy);
+	}
+
+	/**
+	 * Finds the chips each player wins from the pot.
+	 *
+	 * @param contributions Chips each player has put into the pot by index
+	 * @param strengths     Strength of the hand of each player by index, as
+	 *                      given by {@link Hand#getStrength()}, or
+	 *                      {@link #FOLDED} for players that have folded
+	 * @param numPlayers    Number of players, the first numPlayers values of
+	 *                      param contributions and param strengths are used
+	 * @return The chips each player wins by index, which is reused by the next
+	 *         call and sums up to the sum of param contributions
+	 * @throws IllegalArgumentException if numPlayers is greater than the number of
+	 *                                  players this was made for, or if every
+	 *                                  player that has contributed has folded
+	 */
+	public int[] resolve(int[] contributions, int[] strengths, int numPlayers) {
+		// Exceptions
+		if (numPlayers > payouts.length) {
+			throw new IllegalArgumentException("This PotManager is made for at most " + payouts.length + " players.");
+		}
+
+		// Sort contributing players by contribution in ascending order
+		Arrays.fill(payouts, 0);
+		int contributors = 0;
+		for (int i = 0; i < numPlayers; i++) {
+			if (contributions[i] > 0) {
+				order[contributors++] = (long) contributions[i] << INDEX_BITS | i;
+			}
+		}
+		Arrays.sort(order, 0, contributors);
+
+		// Go through the layers from the top down
+		int best = FOLDED;
+		int numWinners = 0;
+		int carried = 0;
+		for (int i = contributors - 1; i >= 0; i--) {
+			// Player i contests this layer and all below it
+			int player = (int) (order[i] & INDEX_MASK);
+			int strength = strengths[player];
+			if (strength != FOLDED && strength >= best) {
+				if (strength > best) {
+					best = strength;
+					numWinners = 0;
+				}
+				winners[numWinners++] = player;
+			}
+
+			// The layer ends at the next lower contribution
+			int top = (int) (order[i] >>> INDEX_BITS);
+			int bottom = (i > 0) ? (int) (order[i - 1] >>> INDEX_BITS) : 0;
+			if (top == bottom) {
+				continue;
+			}
+
+			// Chips of the layer, and of any layers above it no player contests
+			int amount = carried + (top - bottom) * (contributors - i);
+			if (numWinners == 0) {
+				carried = amount;
+			} else {
+				split(amount, numWinners);
+				carried = 0;
+			}
+		}
+
+		if (carried > 0) {
+			throw new IllegalArgumentException("Every player that has contributed to the pot has folded.");
+		}
+		return payouts;
+	}
+
+	/**
+	 * Splits a layer evenly between its winners, and gives out the odd chips by
+	 * {@link #oddChipPolicy}.
+	 *
+	 * @param amount     Chips of the layer
+	 * @param numWinners Number of winners in {@link #winners}
+	 */
+	private void split(int amount, int numWinners) {
+		int share = amount / numWinners;
+		for (int i = 0; i < numWinners; i++) {
+			payouts[winners[i]] += share;
+		}
+
+		int oddChips = amount % numWinners;
+		if (oddChips > 0) {
+			// The winners in order of position for the policy
+			Arrays.sort(winners, 0, numWinners);
+			oddChipPolicy.award(winners, numWinners, oddChips, payouts);
+		}
+	}
+
+	// ----------------
+	// Setters/Getters:
+	// ----------------
+
+	/**
+	 * @param oddChipPolicy Decides who gets the odd chips of a split layer
+	 * @throws IllegalArgumentException if oddChipPolicy is null
+	 */
+	public void setOddChipPolicy(OddChipPolicy oddChipPolicy) {
+		if (oddChipPolicy == null) {
+			throw new IllegalArgumentException("The OddChipPolicy oddChipPolicy can not be null.");
+		}
+		this.oddChipPolicy = oddChipPolicy;
+	}
+
+	public OddChipPolicy getOddChipPolicy() {
+		return oddChipPolicy;
+	}
+}
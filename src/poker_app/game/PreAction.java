@@ -0,0 +1,114 @@
+package poker_app.game;
+
+/**
+ * Represents an action a player decides on ahead of their turn, to be taken
+ * by the {@link Game} as soon as they come on action on the current street, if
+ * it still applies then.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class PreAction {
+	// STATIC
+	/** Type that checks if there is no bet to call, and folds otherwise. */
+	public final static char CHECK_OR_FOLD = 'x';
+	/** Type that checks if there is no bet to call, and otherwise lets the player decide. */
+	public final static char CHECK = 'k';
+	/** Type that checks or calls any bet. */
+	public final static char CALL_ANY = 'a';
+	/**
+	 * Type that checks or calls a bet up to {@link #callTo}, and otherwise lets
+	 * the player decide.
+	 */
+	public final static char CALL = 'c';
+
+	// NON-STATIC
+	/** Player deciding ahead. */
+	private final Player player;
+	/**
+	 * Type of the pre-action, {@link #CHECK_OR_FOLD}, {@link #CHECK},
+	 * {@link #CALL_ANY} or {@link #CALL}.
+	 */
+	private final char type;
+	/** Largest bet to call if the type is {@link #CALL}, 0 otherwise. */
+	private final int callTo;
+
+	/**
+	 * Inits: {@link #player} as param player, {@link #type} as param type,
+	 * {@link #callTo} as 0
+	 *
+	 * @param player Player deciding ahead
+	 * @param type   {@link #CHECK_OR_FOLD}, {@link #CHECK} or {@link #CALL_ANY}
+	 * @see #PreAction(Player, char, int)
+	 */
+	public PreAction(Player player, char type) {
+		this(player, type, 0);
+	}
+
+	/**
+	 * Inits: {@link #player} as param player, {@link #type} as param type,
+	 * {@link #callTo} as param callTo
+	 *
+	 * @param player Player deciding ahead
+	 * @param type   {@link #CHECK_OR_FOLD}, {@link #CHECK}, {@link #CALL_ANY} or
+	 *               {@link #CALL}
+	 * @param callTo Largest bet to call if param type is {@link #CALL}
+	 * @throws IllegalArgumentException if param type is not a type of pre-action
+	 */
+	public PreAction(Player player, char type, int callTo) {
+		// Exceptions
+		if (type != CHECK_OR_FOLD && type != CHECK && type != CALL_ANY && type != CALL) {
+			throw new IllegalArgumentException("The char type must be 'x', 'k', 'a' or 'c'.");
+		}
+
+		// Inits
+		this.player = player;
+		this.type = type;
+		this.callTo = (type == CALL) ? callTo : 0;
+	}
+
+	/**
+	 * Finds the action to take for the pre-action when the player comes on
+	 * action.
+	 *
+	 * @param amountToCall Chips the player needs to put into pot to call
+	 * @param lastBet      Last bet made on the current betting round
+	 * @return The action to take, null if the pre-action no longer applies and the
+	 *         player should decide
+	 */
+	Action resolve(int amountToCall, int lastBet) {
+		switch (type) {
+		case CHECK_OR_FOLD:
+			return new Action(player, (amountToCall == 0) ? Action.CHECK_OR_CALL : Action.FOLD);
+		case CHECK:
+			return (amountToCall == 0) ? new Action(player, Action.CHECK_OR_CALL) : null;
+		case CALL_ANY:
+			return new Action(player, Action.CHECK_OR_CALL);
+		case CALL:
+			return (lastBet <= callTo) ? new Action(player, Action.CHECK_OR_CALL) : null;
+		}
+		return null;
+	}
+
+	// ----------------
+	// Setters/Getters:
+	// ----------------
+
+	public Player getPlayer() {
+		return player;
+	}
+
+	public char getType() {
+		return type;
+	}
+
+	public int getCallTo() {
+		return callTo;
+	}
+
+	@Override
+	public String toString() {
+		return player.getUser() + " " + ((type == CALL) ? type + " " + callTo : type);
+	}
+}
@@ -0,0 +1,272 @@
+package poker_app.game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * The heads-up pre-flop equity of each of the 169 classes of starting hands
+ * against each other, read from a file of the format:
+ * <p>
+ * * The int {@link #MAGIC}, the int {@link #VERSION} and the int
+ * {@link #CLASSES}.
+ * <p>
+ * * One float per pair of classes (a, b) at index (a * {@link #CLASSES} + b),
+ * the equity of class a against class b.
+ * <p>
+ * * A {@link CRC32} checksum of all preceding bytes as an int.
+ * <p>
+ * The file is memory-mapped, so loading it does not read it and each lookup
+ * reads only the float asked for. Running this class generates the file.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class PreflopEquityTable {
+	// STATIC
+	/** Default path of the file. */
+	public final static String DEFAULT_PATH = "assets/preflop_equity.bin";
+	/** Number of classes of starting hands. */
+	public final static int CLASSES = 169;
+	/** First int of the file, "PFEQ" in ASCII. */
+	private final static int MAGIC = 0x50464551;
+	/** Version of the file format. */
+	private final static int VERSION = 1;
+	/** Number of bytes before the equities. */
+	private final static int HEADER_SIZE = 12;
+	/** Number of bytes of the file. */
+	private final static int FILE_SIZE = HEADER_SIZE + 4 * CLASSES * CLASSES + 4;
+
+	// NON-STATIC
+	/** The mapped file. */
+	private final MappedByteBuffer buffer;
+
+	/**
+	 * Inits: {@link #buffer} as param buffer
+	 *
+	 * @param buffer The mapped file, already validated
+	 */
+	private PreflopEquityTable(MappedByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Memory-maps a file and validates its header and checksum.
+	 *
+	 * @param path Path to the file
+	 * @return The table of the file
+	 * @throws IOException if the file can not be read or is not a valid table
+	 */
+	public static PreflopEquityTable load(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() != FILE_SIZE) {
+				throw new IOException("The file " + path + " is not of the size of a pre-flop equity table.");
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_SIZE);
+
+			// Validate header
+			if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != CLASSES) {
+				throw new IOException("The file " + path + " does not have the header of a pre-flop equity table.");
+			}
+
+			// Validate checksum
+			CRC32 crc = new CRC32();
+			crc.update(buffer.duplicate().limit(FILE_SIZE - 4));
+			if ((int) crc.getValue() != buffer.getInt(FILE_SIZE - 4)) {
+				throw new IOException("The checksum of the file " + path + " does not match its contents.");
+			}
+
+			return new PreflopEquityTable(buffer);
+		}
+	}
+
+	/**
+	 * Finds the class of a starting hand, where the classes are laid out as a 13 x
+	 * 13 grid of values: pairs on the diagonal, suited hands at (higher value * 13
+	 * + lower value) and offsuit hands at (lower value * 13 + higher value).
+	 *
+	 * @param c1 One hole card
+	 * @param c2 The other hole card
+	 * @return The class in range [0, {@link #CLASSES})
+	 */
+	public static int classOf(Card c1, Card c2) {
+		int high = Integer.max(c1.getValue(), c2.getValue());
+		int low = Integer.min(c1.getValue(), c2.getValue());
+		if (c1.getSuit() == c2.getSuit()) {
+			return high * 13 + low;
+		}
+		return low * 13 + high;
+	}
+
+	/**
+	 * Gives the equity of one class of starting hands against another.
+	 *
+	 * @param hero    Class of one starting hand
+	 * @param villain Class of the other starting hand
+	 * @return The average share of the pot param hero wins against param villain
+	 */
+	public float getEquity(int hero, int villain) {
+		return buffer.getFloat(HEADER_SIZE + 4 * (hero * CLASSES + villain));
+	}
+
+	/**
+	 * Gives the equity of one starting hand against another, by their classes.
+	 *
+	 * @param hero    The two hole cards of one player
+	 * @param villain The two hole cards of the other player
+	 * @return The average share of the pot param hero wins against param villain
+	 */
+	public float getEquity(Card[] hero, Card[] villain) {
+		return getEquity(classOf(hero[0], hero[1]), classOf(villain[0], villain[1]));
+	}
+
+	// -----------
+	// Generation:
+	// -----------
+
+	/**
+	 * Calculates the equity of every pair of classes of starting hands, with the
+	 * pairs calculated in parallel on the pool of param calculator, and writes
+	 * the table to a file.
+	 *
+	 * @param path       Path to the file
+	 * @param calculator Calculator to find the equity of each matchup with
+	 * @param exact      If every runout should be gone through, rather than
+	 *                   {@link EquityCalculator#getSamples()} random runouts
+	 * @throws IOException if the file can not be written
+	 */
+	public static void generate(Path path, EquityCalculator calculator, boolean exact) throws IOException {
+		// The concrete hole cards of each class
+		List<List<Card[]>> hands = handsByClass();
+
+		// Equity of each pair of classes, where only (a, b) with a <= b is calculated
+		float[] equities = new float[CLASSES * CLASSES];
+		calculator.getPool().submit(() -> IntStream.range(0, CLASSES * CLASSES).parallel().forEach(i -> {
+			int a = i / CLASSES;
+			int b = i % CLASSES;
+			if (a <= b) {
+				double equity = matchup(hands.get(a), hands.get(b), calculator, exact);
+				equities[b * CLASSES + a] = (float) (1 - equity);
+				equities[a * CLASSES + b] = (float) equity;
+			}
+		})).join();
+
+		// Write header, equities and checksum
+		ByteBuffer buffer = ByteBuffer.allocate(FILE_SIZE);
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(CLASSES);
+		for (float equity : equities) {
+			buffer.putFloat(equity);
+		}
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), 0, FILE_SIZE - 4);
+		buffer.putInt((int) crc.getValue());
+		buffer.flip();
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Calculates the average equity of one class of starting hands against
+	 * another, over every pair of their hole cards not sharing a card. Pairs that
+	 * are the same up to a renaming of the suits are calculated only once.
+	 *
+	 * @param hero       Hole cards of one class
+	 * @param villain    Hole cards of the other class
+	 * @param calculator Calculator to find the equity with
+	 * @param exact      If every runout should be gone through
+	 * @return The average share of the pot param hero wins
+	 */
+	private static double matchup(List<Card[]> hero, List<Card[]> villain, EquityCalculator calculator,
+			boolean exact) {
+		// Count the pairs of hole cards per canonical form
+		Map<List<Long>, Integer> weights = new HashMap<>();
+		Map<List<Long>, Card[][]> representatives = new HashMap<>();
+		for (Card[] h : hero) {
+			for (Card[] v : villain) {
+				long[] holes = { CardSet.of(h), CardSet.of(v) };
+				if ((holes[0] & holes[1]) == 0) {
+					long[] canonical = SuitIsomorphism.canonical(CardSet.EMPTY, holes, CardSet.EMPTY);
+					List<Long> key = Arrays.asList(canonical[1], canonical[2]);
+					weights.merge(key, 1, Integer::sum);
+					representatives.putIfAbsent(key, new Card[][] { h, v });
+				}
+			}
+		}
+
+		// Weighted average of the equity of each canonical pair
+		double sum = 0;
+		int total = 0;
+		Card[] board = new Card[5];
+		for (Map.Entry<List<Long>, Integer> entry : weights.entrySet()) {
+			Card[][] holeCards = representatives.get(entry.getKey());
+			Equity equity = exact ? calculator.enumerate(holeCards, board, CardSet.EMPTY)
+					: calculator.simulate(holeCards, board, CardSet.EMPTY);
+			sum += entry.getValue() * equity.getEquity(0);
+			total += entry.getValue();
+		}
+		return sum / total;
+	}
+
+	/**
+	 * Finds the concrete hole cards of each class of starting hands.
+	 *
+	 * @return A list of hole cards per class
+	 */
+	private static List<List<Card[]>> handsByClass() {
+		List<List<Card[]>> hands = new ArrayList<>(CLASSES);
+		for (int i = 0; i < CLASSES; i++) {
+			hands.add(new ArrayList<>());
+		}
+		for (int i = 0; i < 52; i++) {
+			for (int j = i + 1; j < 52; j++) {
+				Card c1 = Card.get(i);
+				Card c2 = Card.get(j);
+				hands.get(classOf(c1, c2)).add(new Card[] { c1, c2 });
+			}
+		}
+		return hands;
+	}
+
+	/**
+	 * Generates the table and validates the written file.
+	 *
+	 * @param args Path to the file (default {@link #DEFAULT_PATH}), and number of
+	 *             random runouts per matchup (default 0, which means every runout)
+	 */
+	public static void main(String[] args) {
+		Path path = Paths.get(args.length > 0 ? args[0] : DEFAULT_PATH);
+		int samples = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+
+		EquityCalculator calculator = new EquityCalculator();
+		if (samples > 0) {
+			calculator.setSamples(samples);
+		}
+
+		try {
+			long start = System.nanoTime();
+			generate(path, calculator, samples <= 0);
+			PreflopEquityTable table = load(path);
+			System.out.println("Wrote " + path + " in " + (System.nanoTime() - start) / 1000000000 + " s. AA vs KK: "
+					+ table.getEquity(12 * 13 + 12, 11 * 13 + 11));
+		} catch (IOException e) {
+			System.out.println("Error while generating " + path + ": " + e.getMessage());
+		}
+	}
+}
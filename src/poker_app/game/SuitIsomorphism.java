@@ -0,0 +1,110 @@
+package poker_app.game;
+
+/**
+ * Maps spots of hole cards and board cards to a canonical form, such that two
+ * spots that are the same up to a renaming of the suits get the same form.
+ * <p>
+ * As all suits are equal in poker, the equity and hand strengths of two such
+ * spots are the same, so results found for one can be reused for the other.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class SuitIsomorphism {
+	// STATIC
+	/** All 24 ways to rename the four suits, as the new index of each suit. */
+	private final static int[][] PERMUTATIONS = new int[24][];
+
+	static {
+		int p = 0;
+		for (int a = 0; a < 4; a++) {
+			for (int b = 0; b < 4; b++) {
+				for (int c = 0; c < 4; c++) {
+					int d = 6 - a - b - c;
+					if (a != b && a != c && b != c && d != a && d != b && d != c) {
+						PERMUTATIONS[p++] = new int[] { a, b, c, d };
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Not to be instantiated.
+	 */
+	private SuitIsomorphism() {
+
+	}
+
+	/**
+	 * Finds the canonical form of a spot as the smallest of the spots given by
+	 * every renaming of the suits, compared set by set in the order board, hole
+	 * cards of each player, dead cards.
+	 *
+	 * @param board     A {@link CardSet} of the cards on the board
+	 * @param holes     Set of hole cards per player
+	 * @param deadCards Set of dead cards
+	 * @return The canonical form as the sets in the order board, hole cards of
+	 *         each player, dead cards
+	 */
+	public static long[] canonical(long board, long[] holes, long deadCards) {
+		// The spot as one array of sets
+		int n = holes.length + 2;
+		long[] spot = new long[n];
+		spot[0] = board;
+		System.arraycopy(holes, 0, spot, 1, holes.length);
+		spot[n - 1] = deadCards;
+
+		long[] best = spot.clone();
+		long[] renamed = new long[n];
+		for (int[] permutation : PERMUTATIONS) {
+			// Rename the sets one at a time while they are not larger than best
+			int cmp = 0;
+			for (int i = 0; i < n; i++) {
+				renamed[i] = rename(spot[i], permutation);
+				if (cmp == 0) {
+					cmp = Long.compare(renamed[i], best[i]);
+					if (cmp > 0) {
+						break;
+					}
+				}
+			}
+
+			if (cmp < 0) {
+				System.arraycopy(renamed, 0, best, 0, n);
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Finds the canonical form of a set of cards, that is the smallest set given by
+	 * every renaming of the suits.
+	 *
+	 * @param cards A {@link CardSet}
+	 * @return The canonical form of param cards
+	 */
+	public static long canonical(long cards) {
+		long best = cards;
+		for (int[] permutation : PERMUTATIONS) {
+			best = Long.min(best, rename(cards, permutation));
+		}
+		return best;
+	}
+
+	/**
+	 * Renames the suits of the cards in a set.
+	 *
+	 * @param cards       A {@link CardSet}
+	 * @param permutation New index of each suit
+	 * @return The set with the cards of suit i moved to suit permutation[i]
+	 */
+	private static long rename(long cards, int[] permutation) {
+		long result = CardSet.EMPTY;
+		for (int suit = 0; suit < 4; suit++) {
+			result |= (long) CardSet.values(cards, suit) << (13 * permutation[suit]);
+		}
+		return result;
+	}
+}
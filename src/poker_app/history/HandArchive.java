@@ -0,0 +1,1095 @@
+package poker_app.history;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import poker_app.game.Card;
+import poker_app.writer.PrinterWriter;
+import poker_app.writer.Writer;
+
+/**
+ * Represents an append-only archive of hands, with indexes from hand id,
+ * table and hand number, and user to the hands, all read through files mapped
+ * to memory.
+ * <p>
+ * Each hand is given the next id, and is stored as a record of the
+ * {@link History} format in a segment file, hands-00000.seg and on, each of
+ * at most {@link #segmentBytes}. Sidecar files in the same directory index
+ * the hands:
+ * <p>
+ * * hands.idx: {@link #ENTRY_BYTES} bytes per hand id, the segment and offset
+ * of the record as a long, the table as an int and the hand number as an int,
+ * so any hand is found from its id in constant time.
+ * <p>
+ * * names.dict: names of tables and users, each an int of the number of bytes
+ * followed by the bytes in UTF-8, and given ids in order.
+ * <p>
+ * * tables.post and users.post: posting lists, as blocks of the id of a name,
+ * the number of hand ids, and the hand ids in increasing order, one block per
+ * name for each {@link #flush()}.
+ * <p>
+ * * keys.hash: a hash table from table and hand number to the last hand id
+ * with them, as hand numbers start over each time a table is run.
+ * <p>
+ * * hands.next: an int per hand id, the hand id before it with the same table
+ * and hand number, -1 if none, so all hands with them are found from the
+ * last.
+ * <p>
+ * Appended hands are found once flushed. The hand index is written after the
+ * segments, names and posting lists, so on opening, anything written after
+ * the last whole entry in it is dropped. The keys are written after the hand
+ * index, and are hashed again on opening if not in step with it.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class HandArchive {
+	// STATIC
+	/** Most bytes of a segment by default. */
+	public final static int DEFAULT_SEGMENT_BYTES = 1 << 30;
+	/** Bytes of an entry in the hand index. */
+	private final static int ENTRY_BYTES = 16;
+	/** Most bytes of a file mapped at once. */
+	private final static long CHUNK_BYTES = 1 << 30;
+	/** Bytes written to a file at a time. */
+	private final static int BUFFER_BYTES = 1 << 16;
+	/** Number of board cards at each street in {@link History#STREETS}. */
+	private final static int[] BOARD_CARDS = { 0, 3, 4, 5, 5 };
+
+	// CONSTANTS
+	/** Directory of the files. */
+	private final Path directory;
+	/** Most bytes of a segment. */
+	private final int segmentBytes;
+	/** Names of tables and users, by id. */
+	private final List<String> names = new ArrayList<>();
+	/** Ids of {@link #names}. */
+	private final Map<String, Integer> nameIds = new HashMap<>();
+	/** Segments, by number. */
+	private final List<AppendFile> segments = new ArrayList<>();
+	/** Posting lists of tables, by name id, null where none. */
+	private final List<Postings> tables = new ArrayList<>();
+	/** Posting lists of users, by name id, null where none. */
+	private final List<Postings> users = new ArrayList<>();
+	/** Posting lists with hand ids not yet flushed. */
+	private final List<Postings> unflushed = new ArrayList<>();
+	/** Events of the hand being appended. */
+	private final HistoryBuffer events = new HistoryBuffer(1024);
+
+	// NON-CONSTANTS
+	/** The hand index. */
+	private AppendFile index;
+	/** The names. */
+	private AppendFile nameFile;
+	/** The posting lists of tables. */
+	private AppendFile tableFile;
+	/** The posting lists of users. */
+	private AppendFile userFile;
+	/** The hand ids before each with the same table and hand number. */
+	private AppendFile nextFile;
+	/** The last hand id of each table and hand number. */
+	private KeyTable keys;
+	/** Number of hands appended. */
+	private int count = 0;
+	/** Number of hands flushed, and found by lookups. */
+	private int flushed = 0;
+	/** If open. */
+	private boolean open = false;
+
+	/**
+	 * Inits: {@link #segmentBytes} as {@link #DEFAULT_SEGMENT_BYTES}
+	 *
+	 * @see #HandArchive(String, int)
+	 */
+	public HandArchive(String directory) {
+		this(directory, DEFAULT_SEGMENT_BYTES);
+	}
+
+	/**
+	 * Inits: {@link #directory} as param directory, {@link #segmentBytes} as
+	 * param segmentBytes
+	 *
+	 * @param directory    Directory of the files
+	 * @param segmentBytes Most bytes of a segment, set to {@link #CHUNK_BYTES} if
+	 *                     greater, and never less than a hand
+	 */
+	public HandArchive(String directory, int segmentBytes) {
+		this.directory = Paths.get(directory);
+		this.segmentBytes = (int) Long.min(segmentBytes, CHUNK_BYTES);
+	}
+
+	/**
+	 * Opens the archive, making it if it is not there, and drops anything written
+	 * after the last whole entry of the hand index.
+	 *
+	 * @throws IOException if the files can not be read
+	 */
+	public synchronized void open() throws IOException {
+		if (open) {
+			return;
+		}
+		Files.createDirectories(directory);
+
+		// Names
+		nameFile = new AppendFile(directory.resolve("names.dict"));
+		long position = 0;
+		while (position + 4 <= nameFile.length()) {
+			int length = nameFile.getInt(position);
+			if (position + 4 + length > nameFile.length()) {
+				break;
+			}
+			byte[] utf8 = new byte[length];
+			nameFile.get(position + 4, utf8);
+			String name = new String(utf8, StandardCharsets.UTF_8);
+			nameIds.put(name, names.size());
+			names.add(name);
+			position += 4 + length;
+		}
+		nameFile.truncate(position);
+
+		// Hand index
+		index = new AppendFile(directory.resolve("hands.idx"));
+		count = (int) (index.length() / ENTRY_BYTES);
+		index.truncate((long) count * ENTRY_BYTES);
+
+		// Segments, cut after the last hand in the index
+		flushed = count;
+		int last = (count == 0) ? 0 : (int) (index.getLong((long) (count - 1) * ENTRY_BYTES) >>> 32);
+		for (int i = 0; Files.exists(segmentPath(i)); i++) {
+			if (i > last) {
+				Files.delete(segmentPath(i));
+			}
+		}
+		for (int i = 0; i <= last; i++) {
+			segments.add(new AppendFile(segmentPath(i)));
+		}
+		if (count > 0) {
+			ByteBuffer record = getRecord(count - 1);
+			segments.get(last).truncate((int) index.getLong((long) (count - 1) * ENTRY_BYTES) + record.remaining());
+		} else {
+			segments.get(last).truncate(0);
+		}
+
+		// Posting lists
+		tableFile = new AppendFile(directory.resolve("tables.post"));
+		userFile = new AppendFile(directory.resolve("users.post"));
+		load(tableFile, tables);
+		load(userFile, users);
+
+		// Keys, hashed again from the start if not in step with the hand index
+		nextFile = new AppendFile(directory.resolve("hands.next"));
+		keys = new KeyTable(directory.resolve("keys.hash"));
+		int hashed = keys.getHashed();
+		if (hashed < 0 || hashed > count || nextFile.length() < 4L * hashed) {
+			keys.clear();
+			hashed = 0;
+		}
+		nextFile.truncate(4L * hashed);
+
+		open = true;
+		flush();
+	}
+
+	/**
+	 * Flushes and closes the archive.
+	 */
+	public synchronized void close() {
+		if (!open) {
+			return;
+		}
+		try {
+			flush();
+			for (AppendFile file : segments) {
+				file.close();
+			}
+			nameFile.close();
+			tableFile.close();
+			userFile.close();
+			index.close();
+			nextFile.close();
+			keys.close();
+		} catch (IOException e) {
+			System.out.println("Error while closing archive " + directory + ": " + e.getMessage());
+		}
+		open = false;
+	}
+
+	/**
+	 * Appends a hand, to be found once flushed.
+	 *
+	 * @param hand Hand to append
+	 * @return The id of the hand
+	 * @throws IOException if the hand can not be written
+	 */
+	public synchronized int append(HandRecord hand) throws IOException {
+		byte[] record = encode(hand);
+
+		// Move on to a new segment if the hand does not fit
+		AppendFile segment = segments.get(segments.size() - 1);
+		if (segment.length() > 0 && segment.length() + record.length > segmentBytes) {
+			segment.flush();
+			segment = new AppendFile(segmentPath(segments.size()));
+			segments.add(segment);
+		}
+		long offset = ((long) (segments.size() - 1) << 32) | segment.length();
+		segment.put(record);
+
+		// Index the hand
+		int id = count++;
+		int table = nameId(hand.getTable() == null ? "" : hand.getTable());
+		index.putLong(offset);
+		index.putInt(table);
+		index.putInt(hand.getNumber());
+		postings(tables, table).add(id);
+		for (int i = 0; i < hand.getNumPlayers(); i++) {
+			postings(users, nameId(hand.getName(i))).add(id);
+		}
+		return id;
+	}
+
+	/**
+	 * Writes all appended hands, so lookups find them. The hand index is written
+	 * after the hands, names and posting lists, and the keys after the index.
+	 *
+	 * @throws IOException if the files can not be written
+	 */
+	public synchronized void flush() throws IOException {
+		segments.get(segments.size() - 1).flush();
+		nameFile.flush();
+
+		// A block for each posting list with new hand ids
+		for (Postings postings : unflushed) {
+			AppendFile file = (postings.users) ? userFile : tableFile;
+			postings.addBlock(file.length(), postings.numPending);
+			file.putInt(postings.name);
+			file.putInt(postings.numPending);
+			for (int i = 0; i < postings.numPending; i++) {
+				file.putInt(postings.pending[i]);
+			}
+			postings.numPending = 0;
+		}
+		unflushed.clear();
+		tableFile.flush();
+		userFile.flush();
+
+		index.flush();
+		hashKeys();
+		flushed = count;
+	}
+
+	/**
+	 * Adds the hands in the hand index but not in {@link #keys} to it, marking
+	 * it as not in step while doing so.
+	 */
+	private void hashKeys() throws IOException {
+		int from = keys.getHashed();
+		if (from == count) {
+			return;
+		}
+		keys.setHashed(-1);
+		for (int id = from; id < count; id++) {
+			long entry = (long) id * ENTRY_BYTES;
+			int table = index.getInt(entry + 8);
+			int number = index.getInt(entry + 12);
+			nextFile.putInt(keys.get(table, number));
+			keys.put(table, number, id);
+		}
+		nextFile.flush();
+		keys.setHashed(count);
+	}
+
+	/**
+	 * Gives the record of a hand in the {@link History} format, to be read by a
+	 * {@link HistoryReader} or converted to text by {@link HistoryConverter}.
+	 *
+	 * @param id Id of the hand
+	 * @return A read-only buffer of the record, from the number of its bytes to
+	 *         its end
+	 * @throws IllegalArgumentException if param id is not of a flushed hand
+	 */
+	public synchronized ByteBuffer getRecord(int id) {
+		long offset = index.getLong(entry(id));
+		ByteBuffer segment = segments.get((int) (offset >>> 32)).chunk(0).duplicate();
+		int from = (int) offset;
+
+		// Bytes of the record after the varint of its length
+		int length = 0;
+		int at = from;
+		for (int shift = 0;; shift += 7) {
+			byte b = segment.get(at++);
+			length |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				break;
+			}
+		}
+		return segment.position(from).limit(at + length).slice().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Converts a hand to the text of {@link poker_app.observer.TextObserver}.
+	 *
+	 * @param id     Id of the hand
+	 * @param writer Writer to write the text to
+	 * @throws IOException if the record is not in a known version of the format
+	 * @throws IllegalArgumentException if param id is not of a flushed hand
+	 */
+	public void write(int id, Writer writer) throws IOException {
+		new HistoryConverter(writer).convert(getRecord(id));
+	}
+
+	/**
+	 * Finds the hands with a table and hand number. There may be more than one,
+	 * as hand numbers start over each time a table is run.
+	 *
+	 * @param table  Name of the table
+	 * @param number Hand number
+	 * @return The ids of the flushed hands, in increasing order, empty if none
+	 */
+	public synchronized int[] find(String table, int number) {
+		Integer name = nameIds.get(table);
+		if (name == null) {
+			return new int[0];
+		}
+
+		// Follow the hands from the last back
+		int[] ids = new int[4];
+		int n = 0;
+		for (int id = keys.get(name, number); id >= 0; id = nextFile.getInt(4L * id)) {
+			if (n == ids.length) {
+				ids = Arrays.copyOf(ids, 2 * n);
+			}
+			ids[n++] = id;
+		}
+
+		int[] found = new int[n];
+		for (int i = 0; i < n; i++) {
+			found[i] = ids[n - 1 - i];
+		}
+		return found;
+	}
+
+	/**
+	 * @param table Name of the table
+	 * @return The ids of the flushed hands at the table, in increasing order
+	 */
+	public synchronized int[] getTableHands(String table) {
+		return ids(postings(tables, table));
+	}
+
+	/**
+	 * @param user Name of the user
+	 * @return The ids of the flushed hands the user played, in increasing order
+	 */
+	public synchronized int[] getUserHands(String user) {
+		return ids(postings(users, user));
+	}
+
+	/**
+	 * @param id Id of the hand
+	 * @return The name of the table of the hand
+	 * @throws IllegalArgumentException if param id is not of a flushed hand
+	 */
+	public synchronized String getTable(int id) {
+		return names.get(index.getInt(entry(id) + 8));
+	}
+
+	/**
+	 * @param id Id of the hand
+	 * @return The number of the hand at its table
+	 * @throws IllegalArgumentException if param id is not of a flushed hand
+	 */
+	public synchronized int getHandNumber(int id) {
+		return index.getInt(entry(id) + 12);
+	}
+
+	/**
+	 * @return The number of flushed hands
+	 */
+	public synchronized int size() {
+		return flushed;
+	}
+
+	/**
+	 * Encodes a hand as a record of the {@link History} format. Equity is put
+	 * before the wins, as a record does not tell when it was found.
+	 *
+	 * @param hand Hand to encode
+	 * @return The record
+	 */
+	private byte[] encode(HandRecord hand) {
+		int n = hand.getNumPlayers();
+		events.put(History.START_HAND).putNumber(hand.getNumber()).putNumber(n);
+		int stack = 0;
+		for (int i = 0; i < n; i++) {
+			events.putString(hand.getName(i)).putSigned(hand.getStack(i) - stack);
+			stack = hand.getStack(i);
+		}
+
+		// Board cards known
+		int known = 0;
+		while (known < History.BOARD_CARDS && hand.getBoard(known) != null) {
+			known++;
+		}
+
+		// Each street with its actions, and the revealed hands at showdown
+		int last = History.STREETS.indexOf(hand.getStreet());
+		int action = 0;
+		int cards = 0;
+		for (int s = 0; s <= last; s++) {
+			char street = History.STREETS.charAt(s);
+			int board = Integer.min(BOARD_CARDS[s], known);
+			events.put(street).putNumber(board);
+			for (; cards < board; cards++) {
+				events.put(hand.getBoard(cards).index());
+			}
+
+			int betTo = 0;
+			for (; action < hand.getNumActions() && hand.getActionStreet(action) == street; action++) {
+				char type = hand.getActionType(action);
+				int amount = hand.getActionAmount(action);
+				events.put(type);
+				player(hand, hand.getActionPlayer(action));
+				switch (type) {
+				case 'C':
+					events.putSigned(0);
+					break;
+				case 'B':
+					events.putNumber(amount);
+					betTo = amount;
+					break;
+				case 'R':
+					events.putSigned(amount - betTo);
+					betTo = amount;
+					break;
+				}
+			}
+
+			if (street == 's' && hand.getNumReveals() > 0) {
+				events.put(History.REVEAL).putNumber(hand.getNumReveals());
+				for (int i = 0; i < hand.getNumReveals(); i++) {
+					player(hand, hand.getRevealPlayer(i));
+					events.put(card(hand.getRevealCard(i, 0))).put(card(hand.getRevealCard(i, 1)))
+							.put(Integer.max(hand.getRevealRanking(i), 0));
+				}
+			}
+		}
+
+		if (hand.getNumEquities() > 0) {
+			events.put(History.EQUITY).putNumber(hand.getNumEquities());
+			for (int i = 0; i < hand.getNumEquities(); i++) {
+				player(hand, hand.getEquityPlayer(i));
+				events.putDouble(hand.getEquity(i));
+			}
+		}
+		for (int i = 0; i < hand.getNumWins(); i++) {
+			events.put(History.WIN);
+			player(hand, hand.getWinPlayer(i));
+			events.putNumber(hand.getWinAmount(i));
+		}
+		events.put(History.END_HAND).putSigned(0);
+		return events.takeRecord();
+	}
+
+	/**
+	 * Encodes a player of a hand, with an empty name if not in the hand.
+	 */
+	private void player(HandRecord hand, int player) {
+		if (player >= 0) {
+			events.putNumber(player);
+		} else {
+			events.putNumber(hand.getNumPlayers()).putString("");
+		}
+	}
+
+	/**
+	 * @return The index of param card, or of the first card if null
+	 */
+	private static int card(Card card) {
+		return (card == null) ? 0 : card.index();
+	}
+
+	/**
+	 * Gives the id of a name, adding it if new.
+	 *
+	 * @param name Name of a table or user
+	 * @return The id
+	 */
+	private int nameId(String name) {
+		Integer id = nameIds.get(name);
+		if (id != null) {
+			return id;
+		}
+		byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+		nameFile.putInt(utf8.length);
+		nameFile.put(utf8);
+		nameIds.put(name, names.size());
+		names.add(name);
+		return names.size() - 1;
+	}
+
+	/**
+	 * Gives the posting list of a name, making it if there is none.
+	 *
+	 * @param lists {@link #tables} or {@link #users}
+	 * @param name  Id of the name
+	 * @return The posting list
+	 */
+	private Postings postings(List<Postings> lists, int name) {
+		while (lists.size() <= name) {
+			lists.add(null);
+		}
+		Postings postings = lists.get(name);
+		if (postings == null) {
+			postings = new Postings(name, lists == users);
+			lists.set(name, postings);
+		}
+		return postings;
+	}
+
+	/**
+	 * Gives the posting list of a name.
+	 *
+	 * @param lists {@link #tables} or {@link #users}
+	 * @param name  Name of a table or user
+	 * @return The posting list, null if there is none
+	 */
+	private Postings postings(List<Postings> lists, String name) {
+		Integer id = nameIds.get(name);
+		return (id == null || id >= lists.size()) ? null : lists.get(id);
+	}
+
+	/**
+	 * @return The flushed hand ids of param postings, empty if null
+	 */
+	private int[] ids(Postings postings) {
+		if (postings == null) {
+			return new int[0];
+		}
+		AppendFile file = postings.users ? userFile : tableFile;
+		int[] ids = new int[postings.size()];
+		int i = 0;
+		for (int block = 0; block < postings.numBlocks; block++) {
+			long position = postings.blocks[block] + 8;
+			for (int end = (block + 1 < postings.numBlocks) ? postings.starts[block + 1] : ids.length; i < end; i++) {
+				ids[i] = file.getInt(position);
+				position += 4;
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Loads the blocks of a posting list file. A block of hand ids not in the
+	 * hand index is cut from the file, along with all after it, and its ids that
+	 * are in the index are written again at the next flush.
+	 *
+	 * @param file  Posting list file
+	 * @param lists {@link #tables} or {@link #users}
+	 */
+	private void load(AppendFile file, List<Postings> lists) throws IOException {
+		long position = 0;
+		long cut = -1;
+		while (position + 8 <= file.length()) {
+			int name = file.getInt(position);
+			int n = file.getInt(position + 4);
+			long end = position + 8 + 4L * n;
+			if (n < 0 || end > file.length()) {
+				break;
+			}
+
+			Postings postings = postings(lists, name);
+			if (cut < 0 && (n == 0 || file.getInt(end - 4) < count)) {
+				postings.addBlock(position, n);
+			} else {
+				if (cut < 0) {
+					cut = position;
+				}
+				for (long at = position + 8; at < end; at += 4) {
+					int id = file.getInt(at);
+					if (id < count) {
+						postings.add(id);
+					}
+				}
+			}
+			position = end;
+		}
+		file.truncate((cut < 0) ? position : cut);
+	}
+
+	/**
+	 * @return The position in {@link #index} of the entry of param id
+	 * @throws IllegalArgumentException if param id is not of a flushed hand
+	 */
+	private long entry(int id) {
+		if (id < 0 || id >= flushed) {
+			throw new IllegalArgumentException("The int id must be in the interval [0, " + flushed + ").");
+		}
+		return (long) id * ENTRY_BYTES;
+	}
+
+	/**
+	 * @return The path of segment number param segment
+	 */
+	private Path segmentPath(int segment) {
+		return directory.resolve(String.format("hands-%05d.seg", segment));
+	}
+
+	/**
+	 * Imports hand histories in the text of
+	 * {@link poker_app.observer.TextObserver} to an archive, or looks up hands in
+	 * it and writes them as text.
+	 *
+	 * @param args Directory of the archive, followed by either: "import" and the
+	 *             paths of text files; "hand" and a hand id; "table", a table name
+	 *             and a hand number; or "user" and a user name
+	 */
+	public static void main(String[] args) {
+		if (args.length < 3) {
+			System.out.println("Usage: HandArchive <directory> import <text file>... | hand <id>"
+					+ " | table <name> <number> | user <name>");
+			return;
+		}
+
+		HandArchive archive = new HandArchive(args[0]);
+		try {
+			archive.open();
+			long start = System.nanoTime();
+			switch (args[1]) {
+			case "import":
+				for (int i = 2; i < args.length; i++) {
+					HandParser.parse(Paths.get(args[i]), 1, hand -> {
+						try {
+							archive.append(hand);
+						} catch (IOException e) {
+							throw new RuntimeException(e);
+						}
+					});
+				}
+				archive.flush();
+				System.out.println(archive.size() + " hands in " + args[0] + ", imported in "
+						+ (System.nanoTime() - start) / 1000000 + " ms.");
+				break;
+			case "hand":
+				archive.write(Integer.parseInt(args[2]), new PrinterWriter());
+				break;
+			case "table":
+				int[] found = archive.find(args[2], Integer.parseInt(args[3]));
+				long micros = (System.nanoTime() - start) / 1000;
+				for (int id : found) {
+					archive.write(id, new PrinterWriter());
+				}
+				System.out.println("Hand ids " + Arrays.toString(found) + ", found in " + micros + " us.");
+				break;
+			case "user":
+				int[] ids = archive.getUserHands(args[2]);
+				System.out.println(ids.length + " hands, found in " + (System.nanoTime() - start) / 1000 + " us.");
+				break;
+			default:
+				System.out.println("Unknown command " + args[1] + ".");
+			}
+		} catch (IOException | RuntimeException e) {
+			System.out.println("Error while using archive " + args[0] + ": " + e.getMessage());
+		}
+		archive.close();
+	}
+
+	// --------
+	// Classes:
+	// --------
+
+	/**
+	 * The hand ids of one table or user, as blocks in a posting list file
+	 * followed by ids not yet flushed.
+	 */
+	private class Postings {
+		/** Id of the name of the table or user. */
+		private final int name;
+		/** If of a user, otherwise of a table. */
+		private final boolean users;
+		/** Positions of the blocks in the file. */
+		private long[] blocks = new long[1];
+		/** Number of hand ids before each block. */
+		private int[] starts = new int[1];
+		/** Number of blocks. */
+		private int numBlocks = 0;
+		/** Number of hand ids in the blocks. */
+		private int size = 0;
+		/** Hand ids not yet flushed. */
+		private int[] pending = new int[4];
+		/** Number of {@link #pending}. */
+		private int numPending = 0;
+
+		private Postings(int name, boolean users) {
+			this.name = name;
+			this.users = users;
+		}
+
+		/**
+		 * Adds a hand id to be flushed.
+		 */
+		private void add(int id) {
+			if (numPending == 0) {
+				unflushed.add(this);
+			}
+			if (numPending == pending.length) {
+				pending = Arrays.copyOf(pending, 2 * numPending);
+			}
+			pending[numPending++] = id;
+		}
+
+		/**
+		 * Adds a block in the file.
+		 */
+		private void addBlock(long position, int n) {
+			if (numBlocks == blocks.length) {
+				blocks = Arrays.copyOf(blocks, 2 * numBlocks);
+				starts = Arrays.copyOf(starts, 2 * numBlocks);
+			}
+			blocks[numBlocks] = position;
+			starts[numBlocks] = size;
+			numBlocks++;
+			size += n;
+		}
+
+		/**
+		 * @return The number of hand ids in the blocks
+		 */
+		private int size() {
+			return size;
+		}
+	}
+
+	/**
+	 * A file appended to through a buffer, and read through mappings of up to
+	 * {@link #CHUNK_BYTES} each, renewed when flushed.
+	 */
+	private static class AppendFile {
+		/** The file. */
+		private final FileChannel channel;
+		/** Bytes not yet written. */
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+		/** Mappings of the written bytes. */
+		private final List<MappedByteBuffer> chunks = new ArrayList<>();
+		/** Number of bytes written. */
+		private long size;
+
+		/**
+		 * Opens a file, making it if it is not there.
+		 */
+		private AppendFile(Path path) throws IOException {
+			channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE);
+			size = channel.size();
+			map();
+		}
+
+		/**
+		 * @return The number of bytes, written or not
+		 */
+		private long length() {
+			return size + buffer.position();
+		}
+
+		/**
+		 * Cuts the file. Only done before appending.
+		 */
+		private void truncate(long length) throws IOException {
+			if (length < size) {
+				channel.truncate(length);
+				size = length;
+				chunks.clear();
+				map();
+			}
+		}
+
+		private void putInt(int value) {
+			room(4).putInt(value);
+		}
+
+		private void putLong(long value) {
+			room(8).putLong(value);
+		}
+
+		private void put(byte[] bytes) {
+			if (bytes.length > buffer.capacity()) {
+				write();
+				ByteBuffer whole = ByteBuffer.wrap(bytes);
+				try {
+					while (whole.hasRemaining()) {
+						size += channel.write(whole, size);
+					}
+				} catch (IOException e) {
+					throw new IllegalStateException("Error while writing: " + e.getMessage(), e);
+				}
+				return;
+			}
+			room(bytes.length).put(bytes);
+		}
+
+		/**
+		 * Makes room in {@link #buffer}, writing it if full.
+		 */
+		private ByteBuffer room(int bytes) {
+			if (buffer.remaining() < bytes) {
+				write();
+			}
+			return buffer;
+		}
+
+		/**
+		 * Writes {@link #buffer} to the end of the file.
+		 */
+		private void write() {
+			buffer.flip();
+			try {
+				while (buffer.hasRemaining()) {
+					size += channel.write(buffer, size);
+				}
+			} catch (IOException e) {
+				throw new IllegalStateException("Error while writing: " + e.getMessage(), e);
+			} finally {
+				buffer.clear();
+			}
+		}
+
+		/**
+		 * Writes {@link #buffer}, and maps what is written.
+		 */
+		private void flush() throws IOException {
+			try {
+				write();
+			} catch (IllegalStateException e) {
+				throw new IOException(e.getMessage(), e);
+			}
+			map();
+		}
+
+		/**
+		 * Maps the bytes written, renewing the last mapping, which may have grown.
+		 */
+		private void map() throws IOException {
+			if (!chunks.isEmpty()) {
+				chunks.remove(chunks.size() - 1);
+			}
+			for (long from = chunks.size() * CHUNK_BYTES; from < size; from += CHUNK_BYTES) {
+				chunks.add(channel.map(FileChannel.MapMode.READ_ONLY, from, Long.min(CHUNK_BYTES, size - from)));
+			}
+		}
+
+		/**
+		 * @return The mapping of the bytes from param chunk times
+		 *         {@link #CHUNK_BYTES}
+		 */
+		private MappedByteBuffer chunk(int chunk) {
+			return chunks.get(chunk);
+		}
+
+		private int getInt(long position) {
+			return chunks.get((int) (position / CHUNK_BYTES)).getInt((int) (position % CHUNK_BYTES));
+		}
+
+		private long getLong(long position) {
+			return chunks.get((int) (position / CHUNK_BYTES)).getLong((int) (position % CHUNK_BYTES));
+		}
+
+		private void get(long position, byte[] bytes) {
+			chunks.get((int) (position / CHUNK_BYTES)).get((int) (position % CHUNK_BYTES), bytes);
+		}
+
+		/**
+		 * Writes {@link #buffer}, forces the file to the disk, and closes it.
+		 */
+		private void close() throws IOException {
+			write();
+			channel.force(false);
+			channel.close();
+		}
+	}
+
+	/**
+	 * A hash table in a file mapped to memory, from a table and hand number to a
+	 * hand id, with open addressing. The file holds a header of the number of
+	 * slots, the number of keys and the number of hands hashed, followed by the
+	 * slots, each the table, the hand number and the hand id plus one, 0 if empty.
+	 * The table is made anew with twice the slots when half full.
+	 */
+	private static class KeyTable {
+		/** Bytes of the header. */
+		private final static int HEADER_BYTES = 16;
+		/** Bytes of a slot. */
+		private final static int SLOT_BYTES = 12;
+		/** Number of slots of a new table. */
+		private final static int INITIAL_SLOTS = 1 << 16;
+
+		/** Path of the file. */
+		private final Path path;
+		/** Mappings of the file. */
+		private final List<MappedByteBuffer> chunks = new ArrayList<>();
+		/** The file. */
+		private FileChannel channel;
+		/** Number of slots, a power of two. */
+		private int slots;
+		/** Number of keys. */
+		private int size;
+
+		/**
+		 * Opens a table, making it if it is not there or not whole.
+		 */
+		private KeyTable(Path path) throws IOException {
+			this.path = path;
+			channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE);
+			long length = channel.size();
+			if (length >= HEADER_BYTES) {
+				map(length);
+				slots = getInt(0);
+				size = getInt(4);
+			}
+			if (length < HEADER_BYTES || slots < INITIAL_SLOTS || Integer.bitCount(slots) != 1
+					|| length != HEADER_BYTES + (long) SLOT_BYTES * slots) {
+				clear();
+			}
+		}
+
+		/**
+		 * Empties the table, setting the number of hands hashed to 0.
+		 */
+		private void clear() throws IOException {
+			chunks.clear();
+			channel.truncate(0);
+			slots = INITIAL_SLOTS;
+			size = 0;
+			map(HEADER_BYTES + (long) SLOT_BYTES * slots);
+			putInt(0, slots);
+			putInt(4, size);
+			putInt(8, 0);
+		}
+
+		/**
+		 * @return The number of hands hashed, -1 if the table is being changed
+		 */
+		private int getHashed() {
+			return getInt(8);
+		}
+
+		private void setHashed(int hashed) {
+			putInt(8, hashed);
+		}
+
+		/**
+		 * @return The hand id of param table and param number, -1 if none
+		 */
+		private int get(int table, int number) {
+			long slot = find(table, number);
+			return getInt(slot + 8) - 1;
+		}
+
+		/**
+		 * Sets the hand id of param table and param number.
+		 */
+		private void put(int table, int number, int id) throws IOException {
+			long slot = find(table, number);
+			if (getInt(slot + 8) == 0) {
+				putInt(slot, table);
+				putInt(slot + 4, number);
+				putInt(4, ++size);
+			}
+			putInt(slot + 8, id + 1);
+			if (2L * size > slots) {
+				grow();
+			}
+		}
+
+		/**
+		 * @return The position of the slot of param table and param number, or of
+		 *         the empty slot where it goes
+		 */
+		private long find(int table, int number) {
+			int hash = table * 0x9E3779B9 + number;
+			hash ^= hash >>> 16;
+			hash *= 0x85EBCA6B;
+			hash ^= hash >>> 13;
+			for (int i = hash & (slots - 1);; i = (i + 1) & (slots - 1)) {
+				long slot = HEADER_BYTES + (long) SLOT_BYTES * i;
+				if (getInt(slot + 8) == 0 || (getInt(slot) == table && getInt(slot + 4) == number)) {
+					return slot;
+				}
+			}
+		}
+
+		/**
+		 * Makes the table anew with twice the slots, in a new file moved over the
+		 * old one.
+		 */
+		private void grow() throws IOException {
+			Path grown = path.resolveSibling(path.getFileName() + ".new");
+			Files.deleteIfExists(grown);
+			KeyTable table = new KeyTable(grown);
+			table.chunks.clear();
+			table.slots = 2 * slots;
+			table.map(HEADER_BYTES + (long) SLOT_BYTES * table.slots);
+			table.putInt(0, table.slots);
+			table.putInt(8, getHashed());
+			for (int i = 0; i < slots; i++) {
+				long slot = HEADER_BYTES + (long) SLOT_BYTES * i;
+				int id = getInt(slot + 8);
+				if (id != 0) {
+					long to = table.find(getInt(slot), getInt(slot + 4));
+					table.putInt(to, getInt(slot));
+					table.putInt(to + 4, getInt(slot + 4));
+					table.putInt(to + 8, id);
+				}
+			}
+			table.putInt(4, size);
+			table.close();
+			close();
+
+			Files.move(grown, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			chunks.clear();
+			slots *= 2;
+			map(channel.size());
+		}
+
+		/**
+		 * Maps the file, growing it to param length.
+		 */
+		private void map(long length) throws IOException {
+			for (long from = 0; from < length; from += CHUNK_BYTES) {
+				chunks.add(channel.map(FileChannel.MapMode.READ_WRITE, from, Long.min(CHUNK_BYTES, length - from)));
+			}
+		}
+
+		private int getInt(long position) {
+			return chunks.get((int) (position / CHUNK_BYTES)).getInt((int) (position % CHUNK_BYTES));
+		}
+
+		private void putInt(long position, int value) {
+			chunks.get((int) (position / CHUNK_BYTES)).putInt((int) (position % CHUNK_BYTES), value);
+		}
+
+		/**
+		 * Forces the table to the disk, and closes it.
+		 */
+		private void close() throws IOException {
+			for (MappedByteBuffer chunk : chunks) {
+				chunk.force();
+			}
+			channel.close();
+		}
+	}
+}
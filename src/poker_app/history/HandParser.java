@@ -0,0 +1,856 @@
+package poker_app.history;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import poker_app.game.Card;
+import poker_app.game.Hand;
+
+/**
+ * Represents a streaming parser of hand histories in the text of
+ * {@link poker_app.observer.TextObserver}, which hands each hand to a consumer
+ * as a {@link HandRecord}.
+ * <p>
+ * Text is read through a window of bytes from a channel or a buffer, such as
+ * a part of a file mapped to memory, so a file is never loaded whole. Lines
+ * are parsed as bytes in the window, names are looked up in a cache instead of
+ * made anew, and the same record is filled in for every hand, so parsing
+ * allocates next to nothing. A big file is split at the starts of hands into
+ * parts parsed in parallel, each by a parser of its own.
+ * <p>
+ * Lines that are not understood are skipped and counted, as are hands that
+ * never end. Equity found after the end of its hand is left out.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class HandParser {
+	// STATIC
+	/** Bytes of the window, grown if a line is longer. */
+	private final static int WINDOW_BYTES = 1 << 16;
+	/** Most bytes of a part of a file mapped at once. */
+	private final static long MAX_PART_BYTES = 1 << 30;
+	/** Default file to benchmark with. */
+	private final static String DEFAULT_BENCHMARK_PATH = "assets/test-hands/TestHand_1.txt";
+
+	// Lines and parts of lines
+	private final static byte[] START_OF_HAND = ascii("---START OF HAND ");
+	private final static byte[] END_OF_HAND = ascii("---END OF HAND ");
+	private final static byte[] TABLE = ascii("<<<Table ");
+	private final static byte[] BLINDS = ascii(" | Blinds ");
+	private final static byte[] PLAYERS = ascii("Players:");
+	private final static byte[][] STREETS = { ascii("PREFLOP ["), ascii("FLOP ["), ascii("TURN ["), ascii("RIVER ["),
+			ascii("SHOWDOWN [") };
+	private final static byte[] FOLDED = ascii(" folded");
+	private final static byte[] CHECKED = ascii(" checked");
+	private final static byte[] CALLED = ascii(" called");
+	private final static byte[] BET = ascii(" bet ");
+	private final static byte[] RAISED = ascii(" raised to ");
+	private final static byte[] WON = ascii(" won ");
+	private final static byte[] HAD = ascii(" had [");
+	private final static byte[] HAS = ascii(" has ");
+	private final static byte[] EQUITY = ascii("% equity");
+	private final static byte[][] RANKINGS = new byte[Hand.RANKING_NAMES.size()][];
+	static {
+		for (int i = 0; i < RANKINGS.length; i++) {
+			RANKINGS[i] = ascii(Hand.RANKING_NAMES.get(i));
+		}
+	}
+
+	// CONSTANTS
+	/** Takes each hand parsed. */
+	private final Consumer<HandRecord> consumer;
+	/** Record filled in for every hand. */
+	private final HandRecord record = new HandRecord();
+	/** Names and positions seen. */
+	private final NameCache names = new NameCache();
+
+	// NON-CONSTANTS
+	/** Bytes being parsed. */
+	private byte[] window = new byte[WINDOW_BYTES];
+	/** Offset in the file of the first byte of {@link #window}. */
+	private long offset;
+	/** Names of the players of the current hand as bytes, to find players by. */
+	private byte[][] playerNames = new byte[10][];
+	/** If in a hand. */
+	private boolean inHand = false;
+	/** If in the list of players of a hand. */
+	private boolean inPlayers = false;
+	/** Name of the table, from the last table line, null if none. */
+	private String table;
+	/** Small blind of the table. */
+	private int smallBlind;
+	/** Big blind of the table. */
+	private int bigBlind;
+	/** Number of hands parsed. */
+	private long hands = 0;
+	/** Number of lines skipped. */
+	private long skipped = 0;
+
+	/**
+	 * Inits: {@link #consumer} as param consumer
+	 *
+	 * @param consumer Takes each hand parsed, with a record valid only until it
+	 *                 returns
+	 */
+	public HandParser(Consumer<HandRecord> consumer) {
+		this.consumer = consumer;
+	}
+
+	/**
+	 * Parses from the position of a buffer to its limit, such as a part of a
+	 * file mapped to memory.
+	 *
+	 * @param buffer Buffer of text
+	 * @param offset Offset in the file of the position of param buffer
+	 */
+	public void parse(ByteBuffer buffer, long offset) {
+		try {
+			parse((bytes, from, length) -> {
+				int n = Integer.min(length, buffer.remaining());
+				if (n == 0) {
+					return -1;
+				}
+				buffer.get(bytes, from, n);
+				return n;
+			}, offset);
+		} catch (IOException e) {
+			// A buffer is read without any IOException
+		}
+	}
+
+	/**
+	 * Parses from a channel until it ends.
+	 *
+	 * @param channel Channel of text
+	 * @param offset  Offset in the file of the first byte read from param channel
+	 * @throws IOException if param channel can not be read
+	 */
+	public void parse(ReadableByteChannel channel, long offset) throws IOException {
+		parse((bytes, from, length) -> channel.read(ByteBuffer.wrap(bytes, from, length)), offset);
+	}
+
+	/**
+	 * Parses a file, split at the starts of hands into parts parsed in parallel.
+	 * Each part is mapped to memory and parsed by a parser of its own, and starts
+	 * out with the table of the last table line before it.
+	 *
+	 * @param path     Path of the file
+	 * @param threads  Number of threads, and the least number of parts
+	 * @param consumer Takes each hand parsed, and must be thread-safe if param
+	 *                 threads is more than 1. Hands of a part are taken in order,
+	 *                 but parts are taken at the same time
+	 * @return The number of hands parsed
+	 * @throws IOException if the file can not be read
+	 */
+	public static long parse(Path path, int threads, Consumer<HandRecord> consumer) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			int parts = (int) Long.max(Integer.max(threads, 1), (size + MAX_PART_BYTES - 1) / MAX_PART_BYTES);
+			long[][] split = split(channel, parts);
+			long[] starts = split[0];
+			long[] tables = split[1];
+
+			ExecutorService executor = Executors.newFixedThreadPool(Integer.max(threads, 1));
+			try {
+				List<Future<Long>> results = new ArrayList<>();
+				for (int i = 0; i < starts.length - 1; i++) {
+					long from = starts[i];
+					long to = starts[i + 1];
+					long table = tables[i];
+					results.add(executor.submit(() -> {
+						HandParser parser = new HandParser(consumer);
+						if (table >= 0) {
+							parser.parseLine(channel, table);
+						}
+						parser.parse(channel.map(FileChannel.MapMode.READ_ONLY, from, to - from), from);
+						return parser.hands;
+					}));
+				}
+
+				long hands = 0;
+				for (Future<Long> result : results) {
+					hands += result.get();
+				}
+				return hands;
+			} catch (InterruptedException | ExecutionException e) {
+				throw new IOException("Error while parsing " + path + ": " + e.getCause(), e);
+			} finally {
+				executor.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Splits a file into parts of about equal size, each starting at the start
+	 * of a hand, and finds the table line each part starts out with, as a file
+	 * holds a table line for each time a table was observed.
+	 *
+	 * @param channel Channel of the file
+	 * @param parts   Number of parts wanted
+	 * @return At [0], the offsets of the starts of the parts, and last the size of
+	 *         the file, with fewer parts than wanted if the hands are too few. At
+	 *         [1], for each part, the offset of the last table line before it, -1
+	 *         if none
+	 * @throws IOException if the file can not be read
+	 */
+	public static long[][] split(FileChannel channel, int parts) throws IOException {
+		long size = channel.size();
+		long[] starts = new long[parts + 1];
+		int n = 0;
+		for (int i = 0; i < parts; i++) {
+			long start = findHand(channel, Long.max(size * i / parts, n > 0 ? starts[n - 1] + 1 : 0));
+			if (n == 0 || start > starts[n - 1]) {
+				starts[n++] = start;
+			}
+		}
+		if (starts[n - 1] == size && n > 1) {
+			n--;
+		}
+		starts[n++] = size;
+		starts = Arrays.copyOf(starts, n);
+
+		// Last table line before each part, looked for back to the part before
+		long[] tables = new long[n - 1];
+		for (int i = 0; i < n - 1; i++) {
+			long table = findTable(channel, (i == 0) ? 0 : starts[i - 1], starts[i]);
+			tables[i] = (table < 0 && i > 0) ? tables[i - 1] : table;
+		}
+		return new long[][] { starts, tables };
+	}
+
+	/**
+	 * Finds the last table line starting between two offsets, looking back from
+	 * the end.
+	 *
+	 * @param channel Channel of the file
+	 * @param from    Offset to look back to
+	 * @param to      Offset to look back from
+	 * @return The offset of the line, -1 if there is none
+	 * @throws IOException if the file can not be read
+	 */
+	private static long findTable(FileChannel channel, long from, long to) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((1 << 13) + TABLE.length + 1);
+		long end = to;
+		while (end > from) {
+			long start = Long.max(from, end - (1 << 13));
+
+			// Read from the byte before, to tell if a line starts at start
+			long position = Long.max(start - 1, 0);
+			buffer.clear();
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer, position + buffer.position()) <= 0) {
+					break;
+				}
+			}
+			byte[] bytes = buffer.array();
+			int n = buffer.position();
+
+			for (long at = end - 1; at >= start; at--) {
+				int i = (int) (at - position);
+				boolean lineStart = (at == 0) || (i > 0 && bytes[i - 1] == '\n');
+				if (lineStart && i + TABLE.length <= n && startsWith(bytes, i, i + TABLE.length, TABLE)) {
+					return at;
+				}
+			}
+			end = start;
+		}
+		return -1;
+	}
+
+	/**
+	 * Parses the line at an offset of a file, such as a table line.
+	 *
+	 * @param channel Channel of the file
+	 * @param from    Offset of the line
+	 * @throws IOException if the file can not be read
+	 */
+	private void parseLine(FileChannel channel, long from) throws IOException {
+		offset = from;
+		int size = 0;
+		while (true) {
+			if (size == window.length) {
+				window = Arrays.copyOf(window, 2 * window.length);
+			}
+			int n = channel.read(ByteBuffer.wrap(window, size, Integer.min(window.length - size, 256)), from + size);
+			for (int i = size; i < size + Integer.max(n, 0); i++) {
+				if (window[i] == '\n') {
+					line(0, i);
+					return;
+				}
+			}
+			if (n <= 0) {
+				line(0, size);
+				return;
+			}
+			size += n;
+		}
+	}
+
+	/**
+	 * Finds the first line starting a hand at or after an offset.
+	 *
+	 * @param channel Channel of the file
+	 * @param from    Offset to look from
+	 * @return The offset of the line, or the size of the file if there is none
+	 * @throws IOException if the file can not be read
+	 */
+	private static long findHand(FileChannel channel, long from) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 13);
+		int overlap = START_OF_HAND.length;
+		long position = Long.max(from - 1, 0);
+		while (true) {
+			buffer.clear();
+			int n = channel.read(buffer, position);
+			if (n <= 0) {
+				return channel.size();
+			}
+			byte[] bytes = buffer.array();
+
+			// A hand starts after a newline, or at the start of the file
+			for (int i = 0; i < n; i++) {
+				boolean lineStart = (position + i == 0) || (i > 0 && bytes[i - 1] == '\n');
+				if (lineStart && position + i >= from && i + START_OF_HAND.length <= n
+						&& startsWith(bytes, i, i + START_OF_HAND.length, START_OF_HAND)) {
+					return position + i;
+				}
+			}
+			if (n < buffer.capacity()) {
+				return channel.size();
+			}
+			position += n - overlap;
+		}
+	}
+
+	/**
+	 * Reads and parses all lines.
+	 *
+	 * @param source Where to read bytes from
+	 * @param offset Offset in the file of the first byte read
+	 * @throws IOException if param source can not be read
+	 */
+	private void parse(Source source, long offset) throws IOException {
+		this.offset = offset;
+		int size = 0;
+		int scanned = 0;
+		while (true) {
+			if (size == window.length) {
+				window = Arrays.copyOf(window, 2 * window.length);
+			}
+			int n = source.read(window, size, window.length - size);
+			if (n < 0) {
+				break;
+			}
+			size += n;
+
+			// Parse whole lines
+			byte[] bytes = window;
+			int from = 0;
+			for (int i = scanned; i < size; i++) {
+				if (bytes[i] == '\n') {
+					line(from, i);
+					from = i + 1;
+				}
+			}
+
+			// Keep the part of a line left
+			System.arraycopy(window, from, window, 0, size - from);
+			this.offset += from;
+			size -= from;
+			scanned = size;
+		}
+
+		// Last line, if it does not end with a newline
+		if (size > 0) {
+			line(0, size);
+		}
+		if (inHand) {
+			skipped++;
+			inHand = false;
+		}
+	}
+
+	/**
+	 * Parses one line.
+	 *
+	 * @param from Index in {@link #window} of the start of the line
+	 * @param to   Index in {@link #window} of the end of the line
+	 */
+	private void line(int from, int to) {
+		if (to > from && window[to - 1] == '\r') {
+			to--;
+		}
+
+		// Empty lines end the list of players
+		if (to == from) {
+			inPlayers = false;
+			return;
+		}
+
+		// Lines about players start with two spaces
+		if (window[from] == ' ') {
+			if (!inHand || to - from < 3 || window[from + 1] != ' ') {
+				skipped++;
+			} else if (inPlayers) {
+				player(from + 2, to);
+			} else {
+				event(from + 2, to);
+			}
+			return;
+		}
+		inPlayers = false;
+
+		if (startsWith(window, from, to, START_OF_HAND)) {
+			if (inHand) {
+				skipped++;
+			}
+			inHand = true;
+			record.start(number(from + START_OF_HAND.length, to), offset + from, table, smallBlind, bigBlind);
+		} else if (startsWith(window, from, to, END_OF_HAND)) {
+			if (inHand) {
+				inHand = false;
+				hands++;
+				consumer.accept(record);
+			} else {
+				skipped++;
+			}
+		} else if (startsWith(window, from, to, PLAYERS)) {
+			inPlayers = inHand;
+		} else if (startsWith(window, from, to, TABLE)) {
+			int blinds = lastIndexOf(from, to, BLINDS);
+			if (blinds < 0) {
+				skipped++;
+				return;
+			}
+			table = names.get(window, from + TABLE.length, blinds);
+			int slash = blinds + BLINDS.length;
+			while (slash < to && window[slash] != '/') {
+				slash++;
+			}
+			smallBlind = number(blinds + BLINDS.length, slash);
+			bigBlind = number(slash + 1, to);
+		} else {
+			for (int i = 0; i < STREETS.length; i++) {
+				if (startsWith(window, from, to, STREETS[i])) {
+					street(i, from + STREETS[i].length, to);
+					return;
+				}
+			}
+			skipped++;
+		}
+	}
+
+	/**
+	 * Parses a player of the list of players, as name(position) stack.
+	 *
+	 * @param from Index in {@link #window} of the start of the name
+	 * @param to   Index in {@link #window} of the end of the line
+	 */
+	private void player(int from, int to) {
+		int space = lastIndexOf(from, to, ' ');
+		int open = lastIndexOf(from, space, '(');
+		if (space < 1 || open < 0 || window[space - 1] != ')') {
+			skipped++;
+			return;
+		}
+
+		int n = record.getNumPlayers();
+		if (n == playerNames.length) {
+			playerNames = Arrays.copyOf(playerNames, 2 * n);
+		}
+		String name = names.get(window, from, open);
+		playerNames[n] = names.getBytes();
+		record.addPlayer(name, names.get(window, open + 1, space - 1), number(space + 1, to));
+	}
+
+	/**
+	 * Parses a new street, as the board [_ _ _ _ _].
+	 *
+	 * @param street Index of the street in {@link #STREETS}
+	 * @param from   Index in {@link #window} of the first card
+	 * @param to     Index in {@link #window} of the end of the line
+	 */
+	private void street(int street, int from, int to) {
+		if (!inHand) {
+			skipped++;
+			return;
+		}
+		record.setStreet(History.STREETS.charAt(street));
+		for (int i = 0; i < History.BOARD_CARDS && from + 3 * i + 1 < to; i++) {
+			record.setBoard(i, card(from + 3 * i));
+		}
+	}
+
+	/**
+	 * Parses a line about a player in a hand, such as an action.
+	 *
+	 * @param from Index in {@link #window} of the start of the name
+	 * @param to   Index in {@link #window} of the end of the line
+	 */
+	private void event(int from, int to) {
+		// Tell the kind of line by its last byte
+		switch (window[to - 1]) {
+		case 'd':
+			// Actions without amounts
+			if (endsWith(from, to, FOLDED)) {
+				record.addAction(find(from, to - FOLDED.length), 'F', 0);
+			} else if (endsWith(from, to, CHECKED)) {
+				record.addAction(find(from, to - CHECKED.length), 'K', 0);
+			} else if (endsWith(from, to, CALLED)) {
+				record.addAction(find(from, to - CALLED.length), 'C', 0);
+			} else {
+				skipped++;
+			}
+			return;
+		case 'y':
+			// Equity, as name has x.y% equity
+			int has = lastIndexOf(from, to, HAS);
+			if (has < 0 || !endsWith(from, to, EQUITY)) {
+				skipped++;
+				return;
+			}
+			record.addEquity(find(from, has), percent(has + HAS.length, to - EQUITY.length) / 100);
+			return;
+		case ')':
+			// Revealed hand, as name had [Xx Yy] ("Ranking")
+			int had = lastIndexOf(from, to, HAD);
+			int cards = had + HAD.length;
+			if (had < 0 || cards + 11 > to || window[cards + 5] != ']') {
+				skipped++;
+				return;
+			}
+			record.addReveal(find(from, had), card(cards), card(cards + 3), ranking(cards + 9, to - 2));
+			return;
+		}
+
+		// Actions and wins with amounts, after the last space
+		int space = lastIndexOf(from, to, ' ');
+		int amount = number(space + 1, to);
+		if (endsWith(from, space + 1, BET)) {
+			record.addAction(find(from, space + 1 - BET.length), 'B', amount);
+		} else if (endsWith(from, space + 1, RAISED)) {
+			record.addAction(find(from, space + 1 - RAISED.length), 'R', amount);
+		} else if (endsWith(from, space + 1, WON)) {
+			record.addWin(find(from, space + 1 - WON.length), amount);
+		} else {
+			skipped++;
+		}
+	}
+
+	/**
+	 * Finds a player of the current hand by name.
+	 *
+	 * @param from Index in {@link #window} of the start of the name
+	 * @param to   Index in {@link #window} of the end of the name
+	 * @return The index of the player in the hand, -1 if not in it
+	 */
+	private int find(int from, int to) {
+		for (int i = 0; i < record.getNumPlayers(); i++) {
+			byte[] name = playerNames[i];
+			if (name.length == to - from && startsWith(window, from, to, name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Parses a card, as Xx or __.
+	 *
+	 * @param at Index in {@link #window} of the card
+	 * @return The card, null if __ or not a card
+	 */
+	private Card card(int at) {
+		char rank = (char) window[at];
+		char suit = (char) window[at + 1];
+		if (rank == '_') {
+			return null;
+		}
+		try {
+			return Card.of(Card.rankToValue(rank), suit);
+		} catch (IllegalArgumentException e) {
+			skipped++;
+			return null;
+		}
+	}
+
+	/**
+	 * Parses the name of a hand ranking.
+	 *
+	 * @return The index of the ranking in {@link Hand#RANKING_NAMES}, -1 if not a
+	 *         ranking
+	 */
+	private int ranking(int from, int to) {
+		for (int i = 0; i < RANKINGS.length; i++) {
+			if (RANKINGS[i].length == to - from && startsWith(window, from, to, RANKINGS[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Parses the digits at the start of a part of a line.
+	 *
+	 * @return The number, 0 if there are no digits
+	 */
+	private int number(int from, int to) {
+		int number = 0;
+		for (int i = from; i < to; i++) {
+			int digit = window[i] - '0';
+			if (digit < 0 || digit > 9) {
+				break;
+			}
+			number = 10 * number + digit;
+		}
+		return number;
+	}
+
+	/**
+	 * Parses a percent with a fraction, such as 65.6.
+	 *
+	 * @return The percent
+	 */
+	private double percent(int from, int to) {
+		long digits = 0;
+		long scale = 1;
+		boolean fraction = false;
+		for (int i = from; i < to; i++) {
+			byte b = window[i];
+			if (b == '.') {
+				fraction = true;
+			} else if (b >= '0' && b <= '9') {
+				digits = 10 * digits + (b - '0');
+				if (fraction) {
+					scale *= 10;
+				}
+			}
+		}
+		return (double) digits / scale;
+	}
+
+	/**
+	 * @return True if the part of {@link #window} ends with param suffix
+	 */
+	private boolean endsWith(int from, int to, byte[] suffix) {
+		return to - from >= suffix.length && startsWith(window, to - suffix.length, to, suffix);
+	}
+
+	/**
+	 * @return The index in {@link #window} of the last param b in the part, -1 if
+	 *         none
+	 */
+	private int lastIndexOf(int from, int to, char b) {
+		for (int i = to - 1; i >= from; i--) {
+			if (window[i] == b) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return The index in {@link #window} of the last param part in the part,
+	 *         -1 if none
+	 */
+	private int lastIndexOf(int from, int to, byte[] part) {
+		for (int i = to - part.length; i >= from; i--) {
+			if (startsWith(window, i, to, part)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return True if the part of param bytes starts with param prefix
+	 */
+	private static boolean startsWith(byte[] bytes, int from, int to, byte[] prefix) {
+		if (to - from < prefix.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (bytes[from + i] != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return The bytes of param string in US-ASCII
+	 */
+	private static byte[] ascii(String string) {
+		return string.getBytes(StandardCharsets.US_ASCII);
+	}
+
+	// ----------------
+	// Setters/Getters:
+	// ----------------
+
+	public long getHands() {
+		return hands;
+	}
+
+	public long getSkipped() {
+		return skipped;
+	}
+
+	/**
+	 * Benchmarks parsing a hand-history file replicated to a size, streamed by one
+	 * thread, mapped by one thread, and mapped by many threads.
+	 *
+	 * @param args Path to the file (default {@link #DEFAULT_BENCHMARK_PATH}),
+	 *             megabytes to replicate it to (default 1024), and number of
+	 *             threads (default the number of processors)
+	 */
+	public static void main(String[] args) {
+		Path source = Paths.get(args.length > 0 ? args[0] : DEFAULT_BENCHMARK_PATH);
+		long bytes = (args.length > 1 ? Long.parseLong(args[1]) : 1024) << 20;
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+		Path path = null;
+		try {
+			// Replicate the file
+			byte[] hands = Files.readAllBytes(source);
+			path = Files.createTempFile("hands", ".txt");
+			try (OutputStream out = Files.newOutputStream(path)) {
+				for (long written = 0; written < bytes; written += hands.length) {
+					out.write(hands);
+				}
+			}
+			long size = Files.size(path);
+			System.out.println("Parsing " + size / (1 << 20) + " MB of " + source + ".");
+
+			// Streamed by one thread
+			AtomicLong actions = new AtomicLong();
+			long start = System.nanoTime();
+			HandParser parser = new HandParser(record -> actions.addAndGet(record.getNumActions()));
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				parser.parse(channel, 0);
+			}
+			report("Streamed, 1 thread", size, parser.getHands(), actions.get(), start);
+
+			// Mapped by one thread, then by many
+			for (int t : new int[] { 1, threads }) {
+				actions.set(0);
+				start = System.nanoTime();
+				long parsed = parse(path, t, record -> actions.addAndGet(record.getNumActions()));
+				report("Mapped, " + t + " thread" + (t == 1 ? "" : "s"), size, parsed, actions.get(), start);
+			}
+		} catch (IOException e) {
+			System.out.println("Error while benchmarking " + source + ": " + e.getMessage());
+		} finally {
+			if (path != null) {
+				try {
+					Files.deleteIfExists(path);
+				} catch (IOException e) {
+					System.out.println("Error while deleting " + path + ".");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Prints the result of a run of the benchmark.
+	 */
+	private static void report(String run, long size, long hands, long actions, long start) {
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%-20s %8d hands %10d actions %7.2f s %8.1f MB/s %10.0f hands/s%n", run, hands, actions,
+				seconds, size / seconds / (1 << 20), hands / seconds);
+	}
+
+	// --------
+	// Classes:
+	// --------
+
+	/**
+	 * Where bytes are read from.
+	 */
+	private interface Source {
+		/**
+		 * Reads bytes into an array.
+		 *
+		 * @return The number of bytes read, -1 at the end
+		 * @throws IOException if the bytes can not be read
+		 */
+		int read(byte[] bytes, int from, int length) throws IOException;
+	}
+
+	/**
+	 * A cache of strings by their bytes, so names seen before are not made anew.
+	 * Holds up to a number of strings, and forgets some when more are seen.
+	 */
+	private static class NameCache {
+		/** Number of slots, a power of 2. */
+		private final static int SLOTS = 1 << 12;
+		/** Slots looked at for each string. */
+		private final static int PROBES = 8;
+
+		/** Bytes of the strings. */
+		private final byte[][] keys = new byte[SLOTS][];
+		/** The strings. */
+		private final String[] values = new String[SLOTS];
+		/** Bytes of the last string given. */
+		private byte[] last;
+
+		/**
+		 * Gives the string of bytes in an array, made only if not in the cache.
+		 *
+		 * @return The string, decoded as UTF-8
+		 */
+		private String get(byte[] bytes, int from, int to) {
+			int hash = 0;
+			for (int i = from; i < to; i++) {
+				hash = 31 * hash + bytes[i];
+			}
+			hash ^= hash >>> 16;
+
+			int empty = -1;
+			for (int p = 0; p < PROBES; p++) {
+				int slot = (hash + p) & (SLOTS - 1);
+				byte[] key = keys[slot];
+				if (key == null) {
+					empty = slot;
+					break;
+				}
+				if (key.length == to - from && startsWith(bytes, from, to, key)) {
+					last = key;
+					return values[slot];
+				}
+			}
+
+			// Put in an empty slot, or in place of the first looked at
+			int slot = (empty >= 0) ? empty : hash & (SLOTS - 1);
+			keys[slot] = Arrays.copyOfRange(bytes, from, to);
+			values[slot] = new String(keys[slot], StandardCharsets.UTF_8);
+			last = keys[slot];
+			return values[slot];
+		}
+
+		/**
+		 * @return The bytes of the last string given by {@link #get(byte[], int, int)}
+		 */
+		private byte[] getBytes() {
+			return last;
+		}
+	}
+}
@@ -0,0 +1,323 @@
+package poker_app.history;
+
+import java.util.Arrays;
+
+import poker_app.game.Card;
+
+/**
+ * Represents one hand parsed from a hand history by {@link HandParser}.
+ * <p>
+ * A parser fills in the same record for every hand, reusing its arrays, so a
+ * record is only valid while it is handed to the consumer. Players are
+ * referred to by their index in the hand, in order of position, or -1 if a
+ * line names a player not in the hand.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class HandRecord {
+	// CONSTANTS
+	/** Cards on the board, null where not dealt. */
+	private final Card[] board = new Card[History.BOARD_CARDS];
+
+	// NON-CONSTANTS
+	/** Name of the table, from the last table line, null if none. */
+	private String table;
+	/** Small blind of the table. */
+	private int smallBlind;
+	/** Big blind of the table. */
+	private int bigBlind;
+	/** Number of the hand. */
+	private int number;
+	/** Offset in the file of the line starting the hand. */
+	private long offset;
+	/** Last street reached, the street char, or ' ' before pre-flop. */
+	private char street;
+
+	/** Number of players. */
+	private int numPlayers;
+	/** Names of the players. */
+	private String[] names = new String[10];
+	/** Position names of the players. */
+	private String[] positions = new String[10];
+	/** Stacks of the players at the start of the hand. */
+	private int[] stacks = new int[10];
+
+	/** Number of actions. */
+	private int numActions;
+	/** Streets of the actions. */
+	private char[] actionStreets = new char[32];
+	/** Players of the actions. */
+	private int[] actionPlayers = new int[32];
+	/** Types of the actions, 'F', 'K', 'C', 'B' or 'R' for fold, check, call, bet or raise. */
+	private char[] actionTypes = new char[32];
+	/** Amounts bet or raised to, 0 for other actions. */
+	private int[] actionAmounts = new int[32];
+
+	/** Number of wins. */
+	private int numWins;
+	/** Players of the wins. */
+	private int[] winPlayers = new int[4];
+	/** Amounts won. */
+	private int[] winAmounts = new int[4];
+
+	/** Number of revealed hands. */
+	private int numReveals;
+	/** Players revealing. */
+	private int[] revealPlayers = new int[4];
+	/** Hole cards revealed, two per player. */
+	private Card[] revealCards = new Card[8];
+	/** Index of the rankings in {@link poker_app.game.Hand#RANKING_NAMES}, -1 if unknown. */
+	private int[] revealRankings = new int[4];
+
+	/** Number of equities. */
+	private int numEquities;
+	/** Players of the equities. */
+	private int[] equityPlayers = new int[4];
+	/** Equities, in range [0, 1], to the tenth of a percent written. */
+	private double[] equities = new double[4];
+
+	/**
+	 * Clears the record for a new hand.
+	 *
+	 * @param number     Number of the hand
+	 * @param offset     Offset in the file of the line starting the hand
+	 * @param table      Name of the table, null if not known
+	 * @param smallBlind Small blind of the table
+	 * @param bigBlind   Big blind of the table
+	 */
+	void start(int number, long offset, String table, int smallBlind, int bigBlind) {
+		this.number = number;
+		this.offset = offset;
+		this.table = table;
+		this.smallBlind = smallBlind;
+		this.bigBlind = bigBlind;
+		street = ' ';
+		Arrays.fill(board, null);
+		numPlayers = 0;
+		numActions = 0;
+		numWins = 0;
+		numReveals = 0;
+		numEquities = 0;
+	}
+
+	/**
+	 * Adds a player, in order of position.
+	 */
+	void addPlayer(String name, String position, int stack) {
+		if (numPlayers == names.length) {
+			names = Arrays.copyOf(names, 2 * numPlayers);
+			positions = Arrays.copyOf(positions, 2 * numPlayers);
+			stacks = Arrays.copyOf(stacks, 2 * numPlayers);
+		}
+		names[numPlayers] = name;
+		positions[numPlayers] = position;
+		stacks[numPlayers] = stack;
+		numPlayers++;
+	}
+
+	/**
+	 * Moves on to a new street.
+	 *
+	 * @param street Street char
+	 */
+	void setStreet(char street) {
+		this.street = street;
+	}
+
+	/**
+	 * Adds an action on the current street.
+	 */
+	void addAction(int player, char type, int amount) {
+		if (numActions == actionTypes.length) {
+			actionStreets = Arrays.copyOf(actionStreets, 2 * numActions);
+			actionPlayers = Arrays.copyOf(actionPlayers, 2 * numActions);
+			actionTypes = Arrays.copyOf(actionTypes, 2 * numActions);
+			actionAmounts = Arrays.copyOf(actionAmounts, 2 * numActions);
+		}
+		actionStreets[numActions] = street;
+		actionPlayers[numActions] = player;
+		actionTypes[numActions] = type;
+		actionAmounts[numActions] = amount;
+		numActions++;
+	}
+
+	/**
+	 * Adds a win.
+	 */
+	void addWin(int player, int amount) {
+		if (numWins == winPlayers.length) {
+			winPlayers = Arrays.copyOf(winPlayers, 2 * numWins);
+			winAmounts = Arrays.copyOf(winAmounts, 2 * numWins);
+		}
+		winPlayers[numWins] = player;
+		winAmounts[numWins] = amount;
+		numWins++;
+	}
+
+	/**
+	 * Adds a revealed hand.
+	 */
+	void addReveal(int player, Card card0, Card card1, int ranking) {
+		if (numReveals == revealPlayers.length) {
+			revealPlayers = Arrays.copyOf(revealPlayers, 2 * numReveals);
+			revealCards = Arrays.copyOf(revealCards, 4 * numReveals);
+			revealRankings = Arrays.copyOf(revealRankings, 2 * numReveals);
+		}
+		revealPlayers[numReveals] = player;
+		revealCards[2 * numReveals] = card0;
+		revealCards[2 * numReveals + 1] = card1;
+		revealRankings[numReveals] = ranking;
+		numReveals++;
+	}
+
+	/**
+	 * Adds an equity.
+	 */
+	void addEquity(int player, double equity) {
+		if (numEquities == equityPlayers.length) {
+			equityPlayers = Arrays.copyOf(equityPlayers, 2 * numEquities);
+			equities = Arrays.copyOf(equities, 2 * numEquities);
+		}
+		equityPlayers[numEquities] = player;
+		equities[numEquities] = equity;
+		numEquities++;
+	}
+
+	/**
+	 * Gives the index of a player in the hand.
+	 *
+	 * @param name Name of the player
+	 * @return The index of the player, -1 if not in the hand
+	 */
+	public int indexOf(String name) {
+		for (int i = 0; i < numPlayers; i++) {
+			if (names[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	// ----------------
+	// Setters/Getters:
+	// ----------------
+
+	public String getTable() {
+		return table;
+	}
+
+	public int getSmallBlind() {
+		return smallBlind;
+	}
+
+	public int getBigBlind() {
+		return bigBlind;
+	}
+
+	public int getNumber() {
+		return number;
+	}
+
+	public long getOffset() {
+		return offset;
+	}
+
+	public char getStreet() {
+		return street;
+	}
+
+	/**
+	 * @param i Index in range [0, 5)
+	 * @return The card on the board at param i, null if not dealt
+	 */
+	public Card getBoard(int i) {
+		return board[i];
+	}
+
+	void setBoard(int i, Card card) {
+		board[i] = card;
+	}
+
+	public int getNumPlayers() {
+		return numPlayers;
+	}
+
+	public String getName(int player) {
+		return names[player];
+	}
+
+	public String getPosition(int player) {
+		return positions[player];
+	}
+
+	public int getStack(int player) {
+		return stacks[player];
+	}
+
+	public int getNumActions() {
+		return numActions;
+	}
+
+	public char getActionStreet(int action) {
+		return actionStreets[action];
+	}
+
+	public int getActionPlayer(int action) {
+		return actionPlayers[action];
+	}
+
+	public char getActionType(int action) {
+		return actionTypes[action];
+	}
+
+	public int getActionAmount(int action) {
+		return actionAmounts[action];
+	}
+
+	public int getNumWins() {
+		return numWins;
+	}
+
+	public int getWinPlayer(int win) {
+		return winPlayers[win];
+	}
+
+	public int getWinAmount(int win) {
+		return winAmounts[win];
+	}
+
+	public int getNumReveals() {
+		return numReveals;
+	}
+
+	public int getRevealPlayer(int reveal) {
+		return revealPlayers[reveal];
+	}
+
+	/**
+	 * @param reveal Index of the revealed hand
+	 * @param card   0 or 1
+	 * @return The hole card
+	 */
+	public Card getRevealCard(int reveal, int card) {
+		return revealCards[2 * reveal + card];
+	}
+
+	public int getRevealRanking(int reveal) {
+		return revealRankings[reveal];
+	}
+
+	public int getNumEquities() {
+		return numEquities;
+	}
+
+	public int getEquityPlayer(int equity) {
+		return equityPlayers[equity];
+	}
+
+	public double getEquity(int equity) {
+		return equities[equity];
+	}
+}
@@ -0,0 +1,89 @@
+package poker_app.history;
+
+/**
+ * Represents the compact binary hand-history format written by
+ * {@link poker_app.observer.HistoryObserver}, holding the same observations
+ * as the text of {@link poker_app.observer.TextObserver}, from which
+ * {@link HistoryConverter} renders that text exactly.
+ * <p>
+ * A history is a sequence of records, each a varint number of bytes followed
+ * by that many bytes of events. A record holds one hand from its start to its
+ * end, or events observed between hands, so records can be appended to a
+ * shared {@link poker_app.writer.FileLog} and read from any record on.
+ * <p>
+ * Each event is a type byte followed by its fields, where:
+ * <p>
+ * * Numbers are unsigned varints, 7 bits a byte with the least significant
+ * first and the high bit set on all but the last byte.
+ * <p>
+ * * Signed numbers are zigzag encoded before the varint, so small differences
+ * either way take one byte.
+ * <p>
+ * * Cards are one byte of {@link poker_app.game.Card#index()}.
+ * <p>
+ * * Strings are a number of bytes followed by the bytes in UTF-8.
+ * <p>
+ * * Players are a number, the index of the player in the
+ * {@link #START_HAND} of the record, or the number of players in it followed
+ * by the name of a player not in it.
+ * <p>
+ * New streets have the street char as type, pre-flop 'p', flop 'f', turn
+ * 't', river 'r' or showdown 's', and the fields: number of board cards,
+ * followed by only the cards not on the board at the street before.
+ * <p>
+ * Amounts are delta encoded against what is known at the time, which is
+ * mostly the same amount, so most amounts take a byte.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class History {
+	// STATIC
+	/** Version of the format, bumped on any change to the events. */
+	public final static int VERSION = 1;
+	/** Number of board cards. */
+	public final static int BOARD_CARDS = 5;
+	/** The street chars, in the order of the streets. */
+	public final static String STREETS = "pftrs";
+
+	/** Start of observing. Fields: version, table name, small blind, big blind. */
+	public final static byte START_OBSERVING = 'o';
+	/**
+	 * Start of hand. Fields: hand number, number of players, and for each
+	 * player in order of position, from position 0 on: name, and stack as signed
+	 * difference from the stack of the player before.
+	 */
+	public final static byte START_HAND = 'h';
+	/** End of hand. Fields: hand number as signed difference from the start. */
+	public final static byte END_HAND = 'e';
+	/** Fold. Fields: player. */
+	public final static byte FOLD = 'F';
+	/** Check. Fields: player. */
+	public final static byte CHECK = 'K';
+	/** Call. Fields: player, amount to call to as signed difference from the bet. */
+	public final static byte CALL = 'C';
+	/** Bet. Fields: player, amount. */
+	public final static byte BET = 'B';
+	/** Raise. Fields: player, amount raised to as signed difference from the bet. */
+	public final static byte RAISE = 'R';
+	/** Win. Fields: player, amount won. */
+	public final static byte WIN = 'W';
+	/**
+	 * Revealed hands. Fields: number of players, and for each: player, the two
+	 * hole cards, and index of the ranking in
+	 * {@link poker_app.game.Hand#RANKING_NAMES}.
+	 */
+	public final static byte REVEAL = 'v';
+	/**
+	 * Equity. Fields: number of players, and for each: player, and the equity as
+	 * the 8 bytes of the double, big-endian.
+	 */
+	public final static byte EQUITY = 'q';
+
+	/**
+	 * Holds constants only.
+	 */
+	private History() {
+	}
+}
@@ -0,0 +1,147 @@
+package poker_app.history;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Represents a growable buffer that events of the {@link History} format are
+ * encoded into, until they are taken out as one record.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class HistoryBuffer {
+	// STATIC
+	/** Number of bytes of the longest varint of an int. */
+	private final static int MAX_VARINT_BYTES = 5;
+
+	// NON-CONSTANTS
+	/** Bytes of the events. */
+	private byte[] bytes;
+	/** Number of bytes in {@link #bytes}. */
+	private int size = 0;
+
+	/**
+	 * Inits: {@link #bytes} with room for param capacity bytes
+	 *
+	 * @param capacity Number of bytes to make room for at first, set to 16 if less
+	 *                 than 16
+	 */
+	public HistoryBuffer(int capacity) {
+		bytes = new byte[Integer.max(capacity, 16)];
+	}
+
+	/**
+	 * Puts one byte, such as a type or a card.
+	 *
+	 * @param b Byte to put
+	 * @return This buffer
+	 */
+	public HistoryBuffer put(int b) {
+		room(1);
+		bytes[size++] = (byte) b;
+		return this;
+	}
+
+	/**
+	 * Puts a number as an unsigned varint.
+	 *
+	 * @param number Number to put, taken as unsigned
+	 * @return This buffer
+	 */
+	public HistoryBuffer putNumber(int number) {
+		room(MAX_VARINT_BYTES);
+		while ((number & ~0x7F) != 0) {
+			bytes[size++] = (byte) ((number & 0x7F) | 0x80);
+			number >>>= 7;
+		}
+		bytes[size++] = (byte) number;
+		return this;
+	}
+
+	/**
+	 * Puts a signed number as a zigzag encoded varint.
+	 *
+	 * @param number Number to put
+	 * @return This buffer
+	 */
+	public HistoryBuffer putSigned(int number) {
+		return putNumber((number << 1) ^ (number >> 31));
+	}
+
+	/**
+	 * Puts a double as its 8 bytes, big-endian.
+	 *
+	 * @param value Double to put
+	 * @return This buffer
+	 */
+	public HistoryBuffer putDouble(double value) {
+		room(8);
+		long bits = Double.doubleToLongBits(value);
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			bytes[size++] = (byte) (bits >>> shift);
+		}
+		return this;
+	}
+
+	/**
+	 * Puts a string as its number of bytes and the bytes in UTF-8.
+	 *
+	 * @param string String to put
+	 * @return This buffer
+	 */
+	public HistoryBuffer putString(String string) {
+		byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+		putNumber(utf8.length);
+		room(utf8.length);
+		System.arraycopy(utf8, 0, bytes, size, utf8.length);
+		size += utf8.length;
+		return this;
+	}
+
+	/**
+	 * Takes out the events as one record, and empties the buffer.
+	 *
+	 * @return The number of bytes of the events as a varint, followed by the
+	 *         events
+	 */
+	public byte[] takeRecord() {
+		// Length of the varint of size
+		int prefix = 1;
+		for (int rest = size >>> 7; rest != 0; rest >>>= 7) {
+			prefix++;
+		}
+
+		byte[] record = new byte[prefix + size];
+		int i = 0;
+		int rest = size;
+		while ((rest & ~0x7F) != 0) {
+			record[i++] = (byte) ((rest & 0x7F) | 0x80);
+			rest >>>= 7;
+		}
+		record[i++] = (byte) rest;
+		System.arraycopy(bytes, 0, record, i, size);
+
+		size = 0;
+		return record;
+	}
+
+	/**
+	 * @return True if there are no events in the buffer
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Grows {@link #bytes} if there is no room for more bytes.
+	 *
+	 * @param more Number of bytes to make room for
+	 */
+	private void room(int more) {
+		if (size + more > bytes.length) {
+			bytes = Arrays.copyOf(bytes, Integer.max(2 * bytes.length, size + more));
+		}
+	}
+}
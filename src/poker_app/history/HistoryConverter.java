@@ -0,0 +1,282 @@
+package poker_app.history;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Formatter;
+
+import poker_app.game.Card;
+import poker_app.game.Hand;
+import poker_app.game.Position;
+import poker_app.writer.LocalFileWriter;
+import poker_app.writer.Writer;
+
+/**
+ * Represents a converter of histories in the {@link History} format to the
+ * text of {@link poker_app.observer.TextObserver}, line for line, so that a
+ * {@link Writer} gets the same lines and ends of hands from the history as it
+ * would have got from the table.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class HistoryConverter {
+	// CONSTANTS
+	/** Writer to write the text to. */
+	private final Writer writer;
+	/** Line being built. */
+	private final StringBuilder text = new StringBuilder(256);
+	/** Formats numbers into {@link #text}. */
+	private final Formatter formatter = new Formatter(text);
+	/** The board of the current hand. */
+	private final Card[] board = new Card[History.BOARD_CARDS];
+
+	// NON-CONSTANTS
+	/** Names of the players of the current record, in order of position. */
+	private String[] names = new String[0];
+	/** Number of the current hand. */
+	private int handNumber;
+	/** Amount bet or raised to on the current street. */
+	private int betTo;
+	/** Number of cards on {@link #board}. */
+	private int boardCards;
+
+	/**
+	 * Inits: {@link #writer} as param writer
+	 *
+	 * @param writer Writer to write the text to
+	 */
+	public HistoryConverter(Writer writer) {
+		this.writer = writer;
+	}
+
+	/**
+	 * Converts history files to one text file, each file in the order given, such
+	 * as the files of a {@link poker_app.writer.FileLog}.
+	 *
+	 * @param args Path of the text file to write, followed by the paths of the
+	 *             history files
+	 */
+	public static void main(String[] args) {
+		if (args.length < 2) {
+			System.out.println("Usage: HistoryConverter <text file> <history file>...");
+			return;
+		}
+
+		LocalFileWriter out = new LocalFileWriter(args[0]);
+		out.open();
+		HistoryConverter converter = new HistoryConverter(out);
+		for (int i = 1; i < args.length; i++) {
+			try (FileChannel channel = FileChannel.open(Paths.get(args[i]), StandardOpenOption.READ)) {
+				converter.convert(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+			} catch (IOException e) {
+				System.out.println("Error while converting " + args[i] + ": " + e.getMessage());
+			}
+		}
+		out.close();
+	}
+
+	/**
+	 * Converts all records from the position of a buffer to its limit.
+	 *
+	 * @param history Buffer of whole records
+	 * @throws IOException if the history is not in a known version of the format
+	 */
+	public void convert(ByteBuffer history) throws IOException {
+		HistoryReader reader = new HistoryReader(history);
+		while (reader.nextRecord()) {
+			names = new String[0];
+			while (reader.hasEvent()) {
+				event(reader);
+			}
+		}
+	}
+
+	/**
+	 * Converts one event to text, and tells {@link #writer} to write it.
+	 *
+	 * @param reader Reader at the type of the event
+	 * @throws IOException if the event is not in a known version of the format
+	 */
+	private void event(HistoryReader reader) throws IOException {
+		int type = reader.get();
+		switch (type) {
+		case History.START_OBSERVING:
+			int version = reader.getNumber();
+			if (version != History.VERSION) {
+				throw new IOException("Unknown history version " + version + ", expected " + History.VERSION + ".");
+			}
+			text.append("<<<Table ").append(reader.getString()).append(" | Blinds ").append(reader.getNumber())
+					.append('/').append(reader.getNumber()).append(">>>");
+			break;
+		case History.START_HAND:
+			startHand(reader);
+			break;
+		case History.END_HAND:
+			// Indicate end of hand with hand number, and let the writer know the hand is over
+			text.append("---END OF HAND ").append(handNumber + reader.getSigned()).append("---\n");
+			write();
+			writer.endOfHand();
+			return;
+		case 'p':
+		case 'f':
+		case 't':
+		case 'r':
+		case 's':
+			street(reader, (char) type);
+			break;
+		case History.FOLD:
+			text.append("  ").append(player(reader)).append(" folded");
+			break;
+		case History.CHECK:
+			text.append("  ").append(player(reader)).append(" checked");
+			break;
+		case History.CALL:
+			text.append("  ").append(player(reader)).append(" called");
+			reader.getSigned();
+			break;
+		case History.BET:
+			text.append("  ").append(player(reader)).append(" bet ");
+			betTo = reader.getNumber();
+			text.append(betTo);
+			break;
+		case History.RAISE:
+			text.append("  ").append(player(reader)).append(" raised to ");
+			betTo += reader.getSigned();
+			text.append(betTo);
+			break;
+		case History.WIN:
+			text.append("  ").append(player(reader)).append(" won ").append(reader.getNumber());
+			break;
+		case History.REVEAL:
+			for (int i = reader.getNumber(); i > 0; i--) {
+				text.append("  ").append(player(reader)).append(" had [").append(Card.get(reader.get())).append(' ')
+						.append(Card.get(reader.get())).append("] (\"").append(Hand.RANKING_NAMES.get(reader.get()))
+						.append("\")\n");
+			}
+			break;
+		case History.EQUITY:
+			for (int i = reader.getNumber(); i > 0; i--) {
+				text.append("  ").append(player(reader)).append(" has ");
+				formatter.format("%.1f", 100 * reader.getDouble());
+				text.append("% equity\n");
+			}
+			break;
+		default:
+			throw new IOException("Unknown history event '" + (char) type + "' at " + (reader.getPosition() - 1) + ".");
+		}
+		write();
+	}
+
+	/**
+	 * Converts the start of a hand to text, and keeps the names of the players.
+	 *
+	 * @param reader Reader after the type of the event
+	 * @throws IOException if the event goes past the end of the record
+	 */
+	private void startHand(HistoryReader reader) throws IOException {
+		handNumber = reader.getNumber();
+		betTo = 0;
+		boardCards = 0;
+
+		// Indicate start of hand with hand number
+		text.append("\n---START OF HAND ").append(handNumber).append("---");
+		write();
+
+		// Write participating players
+		int n = reader.getNumber();
+		names = new String[n];
+		text.append("Players:");
+		int stack = 0;
+		for (int i = 0; i < n; i++) {
+			names[i] = reader.getString();
+			stack += reader.getSigned();
+			text.append("\n  ").append(names[i]).append('(').append(Position.posToName(i, n)).append(") ")
+					.append(stack);
+		}
+	}
+
+	/**
+	 * Converts a new street to text, with the board as [_ _ _ _ _].
+	 *
+	 * @param reader Reader after the type of the event
+	 * @param street Street char
+	 * @throws IOException if the event goes past the end of the record
+	 */
+	private void street(HistoryReader reader, char street) throws IOException {
+		betTo = 0;
+		int cards = reader.getNumber();
+		if (cards > History.BOARD_CARDS) {
+			throw new IOException("Board of " + cards + " cards.");
+		}
+		for (int i = boardCards; i < cards; i++) {
+			board[i] = Card.get(reader.get());
+		}
+		boardCards = cards;
+
+		text.append('\n');
+
+		// Indicate new street
+		switch (street) {
+		case 'p':
+			text.append("PREFLOP");
+			break;
+		case 'f':
+			text.append("FLOP");
+			break;
+		case 't':
+			text.append("TURN");
+			break;
+		case 'r':
+			text.append("RIVER");
+			break;
+		case 's':
+			text.append("SHOWDOWN");
+			break;
+		}
+
+		// Board as [_ _ _ _ _]
+		text.append(" [");
+		for (int i = 0; i < 5; i++) {
+			if (i < boardCards) {
+				text.append(board[i]);
+			} else {
+				text.append("__");
+			}
+			if (i < 4) {
+				text.append(' ');
+			}
+		}
+		text.append(']');
+	}
+
+	/**
+	 * Reads a player.
+	 *
+	 * @param reader Reader at the player
+	 * @return The name of the player
+	 * @throws IOException if the player goes past the end of the record, or is
+	 *                     not a player
+	 */
+	private String player(HistoryReader reader) throws IOException {
+		int index = reader.getNumber();
+		if (index >= 0 && index < names.length) {
+			return names[index];
+		} else if (index == names.length) {
+			return reader.getString();
+		}
+		throw new IOException("Player " + index + " of " + names.length + " players.");
+	}
+
+	/**
+	 * Tells {@link #writer} to write {@link #text} as one line, and empties it.
+	 */
+	private void write() {
+		String line = text.toString();
+		text.setLength(0);
+		writer.write(line);
+	}
+}
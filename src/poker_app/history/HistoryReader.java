@@ -0,0 +1,137 @@
+package poker_app.history;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Represents a reader of the records and fields of the {@link History} format
+ * in a buffer, such as a file mapped to memory.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class HistoryReader {
+	/** Buffer to read from. */
+	private final ByteBuffer buffer;
+	/** Position in {@link #buffer} of the end of the current record. */
+	private int recordEnd;
+
+	/**
+	 * Inits: {@link #buffer} as param buffer, read from its position to its
+	 * limit
+	 *
+	 * @param buffer Buffer with whole records
+	 */
+	public HistoryReader(ByteBuffer buffer) {
+		this.buffer = buffer;
+		recordEnd = buffer.position();
+	}
+
+	/**
+	 * Moves on to the next record, skipping what is left of the current.
+	 *
+	 * @return True if there is a next record, false if the buffer is at its end
+	 * @throws IOException if the record goes past the end of the buffer
+	 */
+	public boolean nextRecord() throws IOException {
+		buffer.position(recordEnd);
+		if (!buffer.hasRemaining()) {
+			return false;
+		}
+		int length = getNumber();
+		if (length < 0 || length > buffer.remaining()) {
+			throw new IOException("Record of " + length + " bytes at " + recordEnd + " goes past the end.");
+		}
+		recordEnd = buffer.position() + length;
+		return true;
+	}
+
+	/**
+	 * @return True if there are events left in the current record
+	 */
+	public boolean hasEvent() {
+		return buffer.position() < recordEnd;
+	}
+
+	/**
+	 * @return The position in the buffer of the current record, after the
+	 *         number of its bytes
+	 */
+	public int getPosition() {
+		return buffer.position();
+	}
+
+	/**
+	 * @return One byte, such as a type or a card, in range [0, 256)
+	 * @throws IOException if the current record has ended
+	 */
+	public int get() throws IOException {
+		check(1);
+		return buffer.get() & 0xFF;
+	}
+
+	/**
+	 * @return An unsigned varint
+	 * @throws IOException if the current record has ended, or the varint is too
+	 *                     long
+	 */
+	public int getNumber() throws IOException {
+		int number = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			if (!buffer.hasRemaining()) {
+				throw new IOException("Varint goes past the end.");
+			}
+			int b = buffer.get();
+			number |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return number;
+			}
+		}
+		throw new IOException("Varint is longer than 5 bytes.");
+	}
+
+	/**
+	 * @return A zigzag encoded varint
+	 * @throws IOException if the current record has ended, or the varint is too
+	 *                     long
+	 */
+	public int getSigned() throws IOException {
+		int zigzag = getNumber();
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+
+	/**
+	 * @return A double from its 8 bytes
+	 * @throws IOException if the current record has ended
+	 */
+	public double getDouble() throws IOException {
+		check(8);
+		return buffer.getDouble();
+	}
+
+	/**
+	 * @return A string of UTF-8 bytes
+	 * @throws IOException if the current record has ended
+	 */
+	public String getString() throws IOException {
+		int length = getNumber();
+		check(length);
+		byte[] utf8 = new byte[length];
+		buffer.get(utf8);
+		return new String(utf8, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Checks that there is more of the current record.
+	 *
+	 * @param bytes Number of bytes to be read
+	 * @throws IOException if the current record ends before them
+	 */
+	private void check(int bytes) throws IOException {
+		if (bytes < 0 || bytes > recordEnd - buffer.position()) {
+			throw new IOException("Field goes past the end of the record.");
+		}
+	}
+}
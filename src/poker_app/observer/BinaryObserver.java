@@ -0,0 +1,224 @@
+package poker_app.observer;
+
+import java.util.List;
+
+import poker_app.Table;
+import poker_app.game.Card;
+import poker_app.game.Equity;
+import poker_app.game.Player;
+import poker_app.protocol.FrameBuffer;
+import poker_app.protocol.FramePool;
+import poker_app.protocol.FrameSink;
+import poker_app.protocol.Protocol;
+
+/**
+ * A {@link TableObserver} that encodes observations from a {@link Table} as
+ * frames of the {@link Protocol} into pooled buffers, and sends them to a
+ * {@link FrameSink}. Hole cards are only sent when revealed.
+ * <p>
+ * Frames are gathered in one buffer, which is sent when a player acts, a street
+ * is dealt or the hand ends, so a spectator sees each action as it happens
+ * while the deal and the results go out together.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class BinaryObserver extends TableObserver {
+	/** Where to send the frames. */
+	private final FrameSink sink;
+	/** Pool to take buffers from. */
+	private final FramePool pool;
+	/** Buffer being filled, null if none. */
+	private FrameBuffer frames;
+
+	/**
+	 * Inits: {@link #pool} as {@link FramePool#SHARED}
+	 *
+	 * @see #BinaryObserver(Table, FrameSink, FramePool)
+	 */
+	public BinaryObserver(Table table, FrameSink sink) {
+		this(table, sink, FramePool.SHARED);
+	}
+
+	/**
+	 * Inits: {@link #table} as param table, {@link #sink} as param sink,
+	 * {@link #pool} as param pool
+	 *
+	 * @param table Table to be observed
+	 * @param sink  Where to send the frames
+	 * @param pool  Pool to take buffers from
+	 */
+	public BinaryObserver(Table table, FrameSink sink, FramePool pool) {
+		super(table);
+		this.sink = sink;
+		this.pool = pool;
+	}
+
+	/**
+	 * Sends a {@link Protocol#HELLO} describing the table to one sink, such as a
+	 * connection that has just started watching.
+	 *
+	 * @param to Sink to send to
+	 */
+	public void hello(FrameSink to) {
+		FrameBuffer hello = pool.acquire();
+		hello.put(Protocol.HELLO, table.getSeats().size(), (char) Protocol.VERSION, table.getSmallBlind(),
+				table.getBigBlind());
+		to.send(hello);
+		hello.release();
+	}
+
+	@Override
+	public void startObserving() {
+	}
+
+	@Override
+	public void stopObserving() {
+		flush();
+	}
+
+	@Override
+	public synchronized void startHand() {
+		List<Player> players = game.getPlayers();
+		put(Protocol.START_HAND, players.size(), ' ', table.getHandsPlayed(), 0);
+		for (Player player : players) {
+			put(Protocol.DEAL, player.getSeat(), ' ', player.getStack(), 0);
+		}
+	}
+
+	@Override
+	public synchronized void endHand() {
+		put(Protocol.END_HAND, 0, ' ', table.getHandsPlayed(), 0);
+		flush();
+	}
+
+	@Override
+	public synchronized void newStreet(char street) {
+		// The cards dealt on the street
+		Card[] board = game.getBoard();
+		int from = 0, to = 0;
+		switch (street) {
+		case 'f':
+			to = 3;
+			break;
+		case 't':
+			from = 3;
+			to = 4;
+			break;
+		case 'r':
+			from = 4;
+			to = 5;
+			break;
+		}
+		int[] cards = { Protocol.NO_CARD, Protocol.NO_CARD, Protocol.NO_CARD };
+		for (int i = from; i < to; i++) {
+			cards[i - from] = board[i].index();
+		}
+
+		room();
+		frames.put(Protocol.STREET, 0, street, cards[0], cards[1], cards[2], 0, 0);
+		flush();
+	}
+
+	@Override
+	public synchronized void fold(Player player) {
+		action(player, 'f', 0);
+	}
+
+	@Override
+	public synchronized void check(Player player) {
+		action(player, 'k', 0);
+	}
+
+	@Override
+	public synchronized void call(Player player, int callTo) {
+		action(player, 'c', callTo);
+	}
+
+	@Override
+	public synchronized void bet(Player player, int amount) {
+		action(player, 'b', amount);
+	}
+
+	@Override
+	public synchronized void raise(Player player, int raiseTo) {
+		action(player, 'r', raiseTo);
+	}
+
+	@Override
+	public synchronized void win(Player player, int amount) {
+		put(Protocol.WIN, player.getSeat(), ' ', amount, 0);
+	}
+
+	@Override
+	public synchronized void revealHands(List<Player> players) {
+		for (Player player : players) {
+			Card[] cards = player.getCards();
+			room();
+			frames.put(Protocol.REVEAL, player.getSeat(), ' ', cards[0].index(), cards[1].index(), Protocol.NO_CARD,
+					player.getHand().getStrength(), 0);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * {@link BinaryObserver}: Synchronized like the other observations, as this
+	 * may be called from another thread.
+	 */
+	@Override
+	public synchronized void equity(List<Player> players, Equity equity) {
+		for (int i = 0; i < players.size(); i++) {
+			put(Protocol.EQUITY, players.get(i).getSeat(), ' ', (int) Math.round(10000 * equity.getEquity(i)), 0);
+		}
+		flush();
+	}
+
+	/**
+	 * Encodes an action and sends it right away.
+	 *
+	 * @param player Player that acted
+	 * @param code   Type of action
+	 * @param amount Chips called, bet or raised to
+	 */
+	private void action(Player player, char code, int amount) {
+		put(Protocol.ACTION, player.getSeat(), code, amount, 0);
+		flush();
+	}
+
+	/**
+	 * Encodes a frame without cards into {@link #frames}.
+	 *
+	 * @see FrameBuffer#put(byte, int, char, int, int)
+	 */
+	private void put(byte type, int seat, char code, int amount, int amount2) {
+		room();
+		frames.put(type, seat, code, amount, amount2);
+	}
+
+	/**
+	 * Makes sure {@link #frames} has room for one more frame, sending it and
+	 * taking a new one if it is full.
+	 */
+	private void room() {
+		if (frames != null && !frames.hasRoom()) {
+			flush();
+		}
+		if (frames == null) {
+			frames = pool.acquire();
+		}
+	}
+
+	/**
+	 * Sends {@link #frames} to {@link #sink} if anything is encoded, and lets go
+	 * of it.
+	 */
+	private synchronized void flush() {
+		if (frames != null && !frames.isEmpty()) {
+			sink.send(frames);
+			frames.release();
+			frames = null;
+		}
+	}
+}
@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import poker_app.Table;
+import poker_app.game.Equity;
 import poker_app.game.Player;
 
 public class GraphicObserver extends TableObserver {
@@ -137,4 +138,10 @@ public class GraphicObserver extends TableObserver {
 		
 	}
 
+	@Override
+	public void equity(List<Player> players, Equity equity) {
+		// TODO Auto-generated method stub
+		
+	}
+
 }
@@ -0,0 +1,222 @@
+package poker_app.observer;
+
+import java.util.List;
+
+import poker_app.Table;
+import poker_app.game.Card;
+import poker_app.game.Equity;
+import poker_app.game.HandEvaluator;
+import poker_app.game.Player;
+import poker_app.history.History;
+import poker_app.history.HistoryBuffer;
+import poker_app.user.User;
+import poker_app.writer.FileLog;
+
+/**
+ * A {@link TableObserver} that encodes observations from a {@link Table} in
+ * the compact binary {@link History} format, and appends each hand to a
+ * {@link FileLog} as one record. The text of {@link TextObserver} can be
+ * rendered from it by {@link poker_app.history.HistoryConverter}.
+ * <p>
+ * Equity may be found after the hand it is about has ended, and is then
+ * appended as a record of its own, just where {@link TextObserver} would
+ * write it.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class HistoryObserver extends TableObserver {
+	// CONSTANTS
+	/** Log to append records to. */
+	private final FileLog log;
+	/** Events of the current record. */
+	private final HistoryBuffer events = new HistoryBuffer(256);
+
+	// NON-CONSTANTS
+	/** Users of the current hand in order of position, null between hands. */
+	private User[] users;
+	/** Number of the current hand. */
+	private int handNumber;
+	/** Amount bet or raised to on the current street. */
+	private int betTo;
+	/** Number of cards on the board at the last street. */
+	private int boardCards;
+
+	/**
+	 * Inits: {@link #table} as param table, {@link #log} as param log
+	 *
+	 * @param table Table to be observed
+	 * @param log   Log to append records to, opened and closed by whoever made
+	 *              it, and may be shared with other tables
+	 */
+	public HistoryObserver(Table table, FileLog log) {
+		super(table);
+		this.log = log;
+	}
+
+	@Override
+	public synchronized void startObserving() {
+		events.put(History.START_OBSERVING).putNumber(History.VERSION).putString(table.getName())
+				.putNumber(table.getSmallBlind()).putNumber(table.getBigBlind());
+		commit();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * {@link HistoryObserver}: Appends what there is of the current hand.
+	 */
+	@Override
+	public synchronized void stopObserving() {
+		commit();
+	}
+
+	@Override
+	public synchronized void startHand() {
+		commit();
+		List<Player> players = game.getPlayers();
+		int n = players.size();
+		users = new User[n];
+		handNumber = table.getHandsPlayed();
+		betTo = 0;
+		boardCards = 0;
+
+		events.put(History.START_HAND).putNumber(handNumber).putNumber(n);
+		int stack = 0;
+		for (int i = 0; i < n; i++) {
+			Player player = players.get(i);
+			users[i] = player.getUser();
+			events.putString(users[i].toString()).putSigned(player.getStack() - stack);
+			stack = player.getStack();
+		}
+	}
+
+	@Override
+	public synchronized void endHand() {
+		events.put(History.END_HAND).putSigned(table.getHandsPlayed() - handNumber);
+		commit();
+		users = null;
+	}
+
+	@Override
+	public synchronized void newStreet(char street) {
+		betTo = 0;
+
+		// Only the cards not on the board at the street before
+		Card[] board = game.getBoard();
+		int cards = 0;
+		while (cards < History.BOARD_CARDS && board[cards] != null) {
+			cards++;
+		}
+		events.put(street).putNumber(cards);
+		for (int i = boardCards; i < cards; i++) {
+			events.put(board[i].index());
+		}
+		boardCards = cards;
+	}
+
+	@Override
+	public synchronized void fold(Player player) {
+		events.put(History.FOLD);
+		player(player.getUser());
+	}
+
+	@Override
+	public synchronized void check(Player player) {
+		events.put(History.CHECK);
+		player(player.getUser());
+	}
+
+	@Override
+	public synchronized void call(Player player, int callTo) {
+		events.put(History.CALL);
+		player(player.getUser());
+		events.putSigned(callTo - betTo);
+	}
+
+	@Override
+	public synchronized void bet(Player player, int amount) {
+		events.put(History.BET);
+		player(player.getUser());
+		events.putNumber(amount);
+		betTo = amount;
+	}
+
+	@Override
+	public synchronized void raise(Player player, int raiseTo) {
+		events.put(History.RAISE);
+		player(player.getUser());
+		events.putSigned(raiseTo - betTo);
+		betTo = raiseTo;
+	}
+
+	@Override
+	public synchronized void win(Player player, int amount) {
+		events.put(History.WIN);
+		player(player.getUser());
+		events.putNumber(amount);
+	}
+
+	@Override
+	public synchronized void revealHands(List<Player> players) {
+		events.put(History.REVEAL).putNumber(players.size());
+		for (Player player : players) {
+			player(player.getUser());
+			Card[] cards = player.getCards();
+			events.put(cards[0].index()).put(cards[1].index())
+					.put(HandEvaluator.ranking(player.getHand().getStrength()));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * {@link HistoryObserver}: Synchronized like the other observations, as this
+	 * may be called from another thread, and appended right away if between
+	 * hands.
+	 */
+	@Override
+	public synchronized void equity(List<Player> players, Equity equity) {
+		events.put(History.EQUITY).putNumber(players.size());
+		for (int i = 0; i < players.size(); i++) {
+			player(players.get(i).getUser());
+			events.putDouble(equity.getEquity(i));
+		}
+		if (users == null) {
+			commit();
+		}
+	}
+
+	/**
+	 * Encodes a player as the index of its user in {@link #users}, or the number
+	 * of users followed by the name if not in the hand.
+	 *
+	 * @param user User of the player
+	 */
+	private void player(User user) {
+		int n = (users == null) ? 0 : users.length;
+		for (int i = 0; i < n; i++) {
+			if (users[i] == user) {
+				events.putNumber(i);
+				return;
+			}
+		}
+		events.putNumber(n).putString(user.toString());
+	}
+
+	/**
+	 * Appends the events in {@link #events} to {@link #log} as one record, if
+	 * there are any.
+	 */
+	private void commit() {
+		if (events.isEmpty()) {
+			return;
+		}
+		try {
+			log.append(events.takeRecord());
+		} catch (IllegalStateException e) {
+			System.out.println("Error while appending history of table " + table.getName() + ": " + e.getMessage());
+		}
+	}
+}
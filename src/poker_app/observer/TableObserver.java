@@ -3,13 +3,14 @@ package poker_app.observer;
 import java.util.List;
 
 import poker_app.Table;
+import poker_app.game.Equity;
 import poker_app.game.Game;
 import poker_app.game.Player;
 
 /**
  * Represents an observer of a {@link poker_app.Table} for handling all events at the table.
  * <p>
- * Last modified: 4 April 2021
+ * Last modified: 18 October 2026
  * 
  * @author Jakob Martin Torsvik
  *
@@ -111,6 +112,15 @@ public abstract class TableObserver {
 	 */
 	public abstract void revealHands(List<Player> players);
 
+	/**
+	 * When the equity of players all-in before the river is found. May be called
+	 * from another thread than the one running the game.
+	 * 
+	 * @param players List of players all-in
+	 * @param equity  Equity of each player in the order of param players
+	 */
+	public abstract void equity(List<Player> players, Equity equity);
+
 	public void setGame(Game game) {
 		this.game = game;
 	}
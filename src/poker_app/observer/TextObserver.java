@@ -3,162 +3,454 @@ package poker_app.observer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Formatter;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import poker_app.Table;
 import poker_app.game.Card;
+import poker_app.game.Equity;
+import poker_app.game.Hand;
 import poker_app.game.Player;
+import poker_app.game.Position;
+import poker_app.user.User;
 import poker_app.writer.Writer;
 
 /**
  * A {@link TableObserver} that converts observations from a {@link Table} to text and shares this with multiple {@link Writer}s.
  * <p>
- * Last modified: 4 April 2021
- * 
+ * Each observation is taken as a small immutable {@link Event}. Synchronous
+ * observers convert it and tell the writers right away, on the thread of the
+ * table. Asynchronous observers only put it in a lock-free queue, and convert
+ * it and tell the writers on an {@link Executor}, so the table does not wait
+ * for the text to be built or written.
+ * <p>
+ * Last modified: 18 October 2026
+ *
  * @author Jakob Martin Torsvik
  *
  */
 public class TextObserver extends TableObserver {
+	// STATIC
+	/** Executor shared by asynchronous observers made without one. */
+	private final static Executor ASYNC = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "TextObserver");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	// CONSTANTS
 	/** Writers to write the converted text. */
 	private final Collection<Writer> writers = new ArrayList<>();
-	
+	/** Converts events to text and tells the writers, null if synchronous. */
+	private final Executor executor;
+	/** Events not yet converted, if asynchronous. */
+	private final Queue<Event> events = new ConcurrentLinkedQueue<>();
+	/** If a task draining {@link #events} is on {@link #executor}. */
+	private final AtomicBoolean draining = new AtomicBoolean();
+	/** Text being built, guarded by itself. */
+	private final StringBuilder text = new StringBuilder(256);
+	/** Formats numbers into {@link #text}. */
+	private final Formatter formatter = new Formatter(text);
+
 	/**
 	 * Inits: {@link #table} as param table, {@link #writers} as a list of param writer
-	 * 
+	 *
 	 * @param table    Table to be observed
 	 * @param writer   Writer to send observed text to
 	 */
 	public TextObserver(Table table, Writer writer) {
 		this(table, Arrays.asList(writer));
 	}
-	
+
 	/**
 	 * Inits: {@link #table} as param table, {@link #writers} as param writers
-	 * 
+	 *
 	 * @param table    Table to be observed
 	 * @param writers  A collection of writers to send observed text to
 	 */
 	public TextObserver(Table table, Collection<Writer> writers) {
+		this(table, writers, null);
+	}
+
+	/**
+	 * Inits: {@link #executor} as an executor shared by asynchronous observers if
+	 * param async, null otherwise
+	 *
+	 * @see #TextObserver(Table, Collection, Executor)
+	 */
+	public TextObserver(Table table, Writer writer, boolean async) {
+		this(table, Arrays.asList(writer), async ? ASYNC : null);
+	}
+
+	/**
+	 * Inits: {@link #table} as param table, {@link #writers} as param writers,
+	 * {@link #executor} as param executor
+	 *
+	 * @param table    Table to be observed
+	 * @param writers  A collection of writers to send observed text to
+	 * @param executor Converts observations to text and tells the writers, null to
+	 *                 do so on the thread of the table
+	 */
+	public TextObserver(Table table, Collection<Writer> writers, Executor executor) {
 		super(table);
 		this.writers.addAll(writers);
+		this.executor = executor;
 	}
 
 	@Override
 	public void startObserving() {
-		tellWriters("<<<Table " + table.getName() + " | Blinds " + table.getSmallBlind() + "/" + table.getBigBlind() + ">>>");
+		publish(new Event('o', table.getName(), table.getSmallBlind(), table.getBigBlind()));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * {@link TextObserver}: Waits until everything observed is written.
+	 */
 	@Override
 	public void stopObserving() {
+		drain();
 	}
-	
+
 	@Override
 	public void startHand() {
-		// Indicate start of hand with hand number
-		int number = table.getHandsPlayed();
-		tellWriters("\n---START OF HAND " + number + "---");
-		// Write participating players
-		String line = "Players:";
-		for (Player player : game.getPlayers()) {
-			line += "\n  " + player.getUser() + "(" + player.getPosition() + ")" + " " + player.getStack();
+		List<Player> players = game.getPlayers();
+		int n = players.size();
+		User[] users = new User[n];
+		Position[] positions = new Position[n];
+		int[] stacks = new int[n];
+		for (int i = 0; i < n; i++) {
+			Player player = players.get(i);
+			users[i] = player.getUser();
+			positions[i] = player.getPosition();
+			stacks[i] = player.getStack();
 		}
-		tellWriters(line);
+		publish(new Event('h', table.getHandsPlayed(), users, positions, stacks));
 	}
 
 	@Override
 	public void endHand() {
-		// Indicate end of hand with hand number
-		tellWriters("---END OF HAND " + table.getHandsPlayed() + "---\n");
+		publish(new Event('e', null, table.getHandsPlayed()));
 	}
 
 	@Override
 	public void newStreet(char street) {
-		String line = "\n";
-		
-		// Indicate new street
-		switch (street) {
-		case 'p':
-			line += "PREFLOP";
-			break;
-		case 'f':
-			line += "FLOP";
-			break;
-		case 't':
-			line += "TURN";
-			break;
-		case 'r':
-			line += "RIVER";
-			break;
-		case 's':
-			line += "SHOWDOWN";
-			break;
-		}
-		
-		// Board as [_ _ _ _ _]
-		line += " [";
-		Card[] board = game.getBoard();
-		for (int i = 0; i < 5; i++) {
-			Card card = board[i];
-			line += card == null ? "__" : card;
-			if (i < 4) {
-				line += " ";
-			}
-		}
-		line += "]";
-		
-		tellWriters(line);
+		publish(new Event(street, game.getBoard().clone()));
 	}
 
 	@Override
 	public void fold(Player player) {
-		tellWriters("  " + player.getUser() + " folded");
+		publish(new Event('F', player.getUser(), 0));
 	}
 
 	@Override
 	public void check(Player player) {
-		tellWriters("  " + player.getUser() + " checked");
+		publish(new Event('K', player.getUser(), 0));
 	}
 
 	@Override
 	public void call(Player player, int callTo) {
-		tellWriters("  " + player.getUser() + " called");
+		publish(new Event('C', player.getUser(), callTo));
 	}
 
 	@Override
 	public void bet(Player player, int amount) {
-		tellWriters("  " + player.getUser() + " bet " + amount);
+		publish(new Event('B', player.getUser(), amount));
 	}
 
 	@Override
 	public void raise(Player player, int raiseTo) {
-		tellWriters("  " + player.getUser() + " raised to " + raiseTo);
+		publish(new Event('R', player.getUser(), raiseTo));
 	}
 
 	@Override
 	public void win(Player player, int amount) {
-		tellWriters("  " + player.getUser() + " won " + amount);
+		publish(new Event('W', player.getUser(), amount));
 	}
 
 	@Override
 	public void revealHands(List<Player> players) {
-		String line = "";
-		for (Player player : players) {
-			Card[] cards = player.getCards();
-			line += "  " + player.getUser() + " had [" + cards[0] + " " + cards[1] + "] (\""
-					+ player.getHand().getRankingName() + "\")\n";
+		int n = players.size();
+		User[] users = new User[n];
+		Card[] cards = new Card[2 * n];
+		Hand[] hands = new Hand[n];
+		for (int i = 0; i < n; i++) {
+			Player player = players.get(i);
+			users[i] = player.getUser();
+			cards[2 * i] = player.getCards()[0];
+			cards[2 * i + 1] = player.getCards()[1];
+			hands[i] = player.getHand();
+		}
+		publish(new Event(users, cards, hands));
+	}
+
+	@Override
+	public void equity(List<Player> players, Equity equity) {
+		int n = players.size();
+		User[] users = new User[n];
+		double[] equities = new double[n];
+		for (int i = 0; i < n; i++) {
+			users[i] = players.get(i).getUser();
+			equities[i] = equity.getEquity(i);
+		}
+		publish(new Event(users, equities));
+	}
+
+	/**
+	 * Converts an event and tells the writers if synchronous, and queues it to be
+	 * converted on {@link #executor} otherwise.
+	 *
+	 * @param event Event observed
+	 */
+	private void publish(Event event) {
+		if (executor == null) {
+			synchronized (text) {
+				tellWriters(event);
+			}
+			return;
+		}
+
+		events.add(event);
+		if (draining.compareAndSet(false, true)) {
+			executor.execute(this::drainAsync);
+		}
+	}
+
+	/**
+	 * Drains {@link #events} on {@link #executor}, until it stays empty.
+	 */
+	private void drainAsync() {
+		while (true) {
+			drain();
+			draining.set(false);
+
+			// Drain again if events were queued after the last poll, and no other task took them
+			if (events.isEmpty() || !draining.compareAndSet(false, true)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Converts all events in {@link #events} and tells the writers, in order.
+	 */
+	private void drain() {
+		synchronized (text) {
+			Event event;
+			while ((event = events.poll()) != null) {
+				tellWriters(event);
+			}
 		}
-		tellWriters(line);
 	}
 
 	/**
-	 * Tells all writers in {@link #writers} to write param line.
-	 * 
-	 * @param line Line to write
+	 * Converts an event to text, and tells all writers in {@link #writers} to
+	 * write it. Called with the lock of {@link #text}, as
+	 * {@link #equity(List, Equity)} and the board run out after it are observed
+	 * on another thread than the rest of the hand.
+	 *
+	 * @param event Event to convert
 	 */
-	private void tellWriters(String line) {
+	private void tellWriters(Event event) {
+		text.setLength(0);
+		switch (event.type) {
+		case 'o':
+			text.append("<<<Table ").append(event.user).append(" | Blinds ").append(event.amounts[0]).append('/')
+					.append(event.amounts[1]).append(">>>");
+			break;
+		case 'h':
+			// Indicate start of hand with hand number
+			text.append("\n---START OF HAND ").append(event.number).append("---");
+			write();
+			// Write participating players
+			text.append("Players:");
+			for (int i = 0; i < event.users.length; i++) {
+				text.append("\n  ").append(event.users[i]).append('(').append(event.positions[i]).append(") ")
+						.append(event.amounts[i]);
+			}
+			break;
+		case 'e':
+			// Indicate end of hand with hand number, and let the writers know the hand is over
+			text.append("---END OF HAND ").append(event.number).append("---\n");
+			write();
+			for (Writer w : writers) {
+				w.endOfHand();
+			}
+			return;
+		case 'p':
+		case 'f':
+		case 't':
+		case 'r':
+		case 's':
+			street(event);
+			break;
+		case 'F':
+			text.append("  ").append(event.user).append(" folded");
+			break;
+		case 'K':
+			text.append("  ").append(event.user).append(" checked");
+			break;
+		case 'C':
+			text.append("  ").append(event.user).append(" called");
+			break;
+		case 'B':
+			text.append("  ").append(event.user).append(" bet ").append(event.number);
+			break;
+		case 'R':
+			text.append("  ").append(event.user).append(" raised to ").append(event.number);
+			break;
+		case 'W':
+			text.append("  ").append(event.user).append(" won ").append(event.number);
+			break;
+		case 'v':
+			for (int i = 0; i < event.users.length; i++) {
+				text.append("  ").append(event.users[i]).append(" had [").append(event.cards[2 * i]).append(' ')
+						.append(event.cards[2 * i + 1]).append("] (\"").append(event.hands[i].getRankingName())
+						.append("\")\n");
+			}
+			break;
+		case 'q':
+			for (int i = 0; i < event.users.length; i++) {
+				text.append("  ").append(event.users[i]).append(" has ");
+				formatter.format("%.1f", 100 * event.equities[i]);
+				text.append("% equity\n");
+			}
+			break;
+		}
+		write();
+	}
+
+	/**
+	 * Converts a new street to text, with the board as [_ _ _ _ _].
+	 *
+	 * @param event Event of the street
+	 */
+	private void street(Event event) {
+		text.append('\n');
+
+		// Indicate new street
+		switch (event.type) {
+		case 'p':
+			text.append("PREFLOP");
+			break;
+		case 'f':
+			text.append("FLOP");
+			break;
+		case 't':
+			text.append("TURN");
+			break;
+		case 'r':
+			text.append("RIVER");
+			break;
+		case 's':
+			text.append("SHOWDOWN");
+			break;
+		}
+
+		// Board as [_ _ _ _ _]
+		text.append(" [");
+		for (int i = 0; i < 5; i++) {
+			Card card = event.cards[i];
+			if (card == null) {
+				text.append("__");
+			} else {
+				text.append(card);
+			}
+			if (i < 4) {
+				text.append(' ');
+			}
+		}
+		text.append(']');
+	}
+
+	/**
+	 * Tells all writers in {@link #writers} to write {@link #text} as one line,
+	 * and empties it.
+	 */
+	private void write() {
+		String line = text.toString();
+		text.setLength(0);
 		for (Writer w : writers) {
 			w.write(line);
 		}
 	}
 
+	// --------
+	// Classes:
+	// --------
+
+	/**
+	 * An observation, holding only what is needed to convert it to text later.
+	 * Types are the street chars for new streets, 'o' for start of observing, 'h'
+	 * and 'e' for start and end of hand, 'F', 'K', 'C', 'B' and 'R' for actions,
+	 * 'W' for wins, 'v' for revealed hands and 'q' for equity.
+	 */
+	private static class Event {
+		/** Type of event. */
+		private final char type;
+		/** Hand number or amount. */
+		private final int number;
+		/** User the event is about, or name of table. */
+		private final Object user;
+		/** Users the event is about. */
+		private final User[] users;
+		/** Positions of {@link #users}. */
+		private final Position[] positions;
+		/** Amounts, such as stacks of {@link #users}. */
+		private final int[] amounts;
+		/** Cards, such as the board or the hole cards of {@link #users}. */
+		private final Card[] cards;
+		/** Hands of {@link #users}. */
+		private final Hand[] hands;
+		/** Equities of {@link #users}. */
+		private final double[] equities;
+
+		private Event(char type, int number, Object user, User[] users, Position[] positions, int[] amounts,
+				Card[] cards, Hand[] hands, double[] equities) {
+			this.type = type;
+			this.number = number;
+			this.user = user;
+			this.users = users;
+			this.positions = positions;
+			this.amounts = amounts;
+			this.cards = cards;
+			this.hands = hands;
+			this.equities = equities;
+		}
+
+		/** Start of observing. */
+		private Event(char type, String tableName, int smallBlind, int bigBlind) {
+			this(type, 0, tableName, null, null, new int[] { smallBlind, bigBlind }, null, null, null);
+		}
+
+		/** Start of hand. */
+		private Event(char type, int number, User[] users, Position[] positions, int[] stacks) {
+			this(type, number, null, users, positions, stacks, null, null, null);
+		}
+
+		/** End of hand, action or win. */
+		private Event(char type, User user, int number) {
+			this(type, number, user, null, null, null, null, null, null);
+		}
+
+		/** New street. */
+		private Event(char street, Card[] board) {
+			this(street, 0, null, null, null, null, board, null, null);
+		}
+
+		/** Revealed hands. */
+		private Event(User[] users, Card[] cards, Hand[] hands) {
+			this('v', 0, null, users, null, null, cards, hands, null);
+		}
+
+		/** Equity. */
+		private Event(User[] users, double[] equities) {
+			this('q', 0, null, users, null, null, null, null, equities);
+		}
+	}
 }
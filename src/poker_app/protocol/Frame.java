@@ -0,0 +1,79 @@
+package poker_app.protocol;
+
+import poker_app.game.Card;
+
+/**
+ * Represents one decoded frame of the {@link Protocol}. Is filled in again by
+ * each call to a {@link FrameDecoder}, so a client reading many frames makes
+ * no garbage.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class Frame {
+	/** Type of frame. */
+	private byte type;
+	/** Seat or count. */
+	private int seat;
+	/** Code. */
+	private char code;
+	/** Card bytes. */
+	private final int[] cards = new int[3];
+	/** First amount. */
+	private int amount;
+	/** Second amount. */
+	private int amount2;
+
+	/**
+	 * Fills in the frame. Called by {@link FrameDecoder}.
+	 */
+	void set(byte type, int seat, char code, int card0, int card1, int card2, int amount, int amount2) {
+		this.type = type;
+		this.seat = seat;
+		this.code = code;
+		cards[0] = card0;
+		cards[1] = card1;
+		cards[2] = card2;
+		this.amount = amount;
+		this.amount2 = amount2;
+	}
+
+	// ----------------
+	// Setters/Getters:
+	// ----------------
+
+	public byte getType() {
+		return type;
+	}
+
+	public int getSeat() {
+		return seat;
+	}
+
+	public char getCode() {
+		return code;
+	}
+
+	/**
+	 * @param i Index of card, 0 to 2
+	 * @return The card, null if {@link Protocol#NO_CARD}
+	 */
+	public Card getCard(int i) {
+		return (cards[i] == Protocol.NO_CARD) ? null : Card.get(cards[i]);
+	}
+
+	public int getAmount() {
+		return amount;
+	}
+
+	public int getAmount2() {
+		return amount2;
+	}
+
+	@Override
+	public String toString() {
+		return (char) type + " " + seat + " " + code + " " + getCard(0) + " " + getCard(1) + " " + getCard(2) + " "
+				+ amount + " " + amount2;
+	}
+}
@@ -0,0 +1,121 @@
+package poker_app.protocol;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents a direct {@link ByteBuffer} of frames of the {@link Protocol},
+ * taken from a {@link FramePool} and given back when every connection it was
+ * sent on has written it. Frames are encoded straight into the buffer, without
+ * building any strings.
+ * <p>
+ * A buffer is held by whoever took it from the pool. Each further holder calls
+ * {@link #retain()}, and each holder calls {@link #release()} when done.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class FrameBuffer {
+	// CONSTANTS
+	/** Pool to give the buffer back to, null if not pooled. */
+	private final FramePool pool;
+	/** The encoded frames, from 0 to the position. */
+	private final ByteBuffer buffer;
+	/** Number of holders. */
+	private final AtomicInteger refs = new AtomicInteger();
+
+	/**
+	 * Inits: {@link #pool} as param pool, {@link #buffer} as a direct buffer of
+	 * param numFrames frames
+	 *
+	 * @param pool      Pool to give the buffer back to, null if not pooled
+	 * @param numFrames Number of frames the buffer can hold
+	 */
+	FrameBuffer(FramePool pool, int numFrames) {
+		this.pool = pool;
+		buffer = ByteBuffer.allocateDirect(numFrames * Protocol.FRAME_BYTES);
+	}
+
+	/**
+	 * Encodes a frame at the end of the buffer.
+	 *
+	 * @param type    Type of frame
+	 * @param seat    Seat or count
+	 * @param code    Code
+	 * @param card0   First card, {@link Protocol#NO_CARD} if none
+	 * @param card1   Second card, {@link Protocol#NO_CARD} if none
+	 * @param card2   Third card, {@link Protocol#NO_CARD} if none
+	 * @param amount  First amount
+	 * @param amount2 Second amount
+	 * @return This buffer
+	 * @throws java.nio.BufferOverflowException if the buffer is full
+	 */
+	public FrameBuffer put(byte type, int seat, char code, int card0, int card1, int card2, int amount,
+			int amount2) {
+		buffer.put(type).put((byte) seat).put((byte) code);
+		buffer.put((byte) card0).put((byte) card1).put((byte) card2);
+		buffer.putShort((short) 0);
+		buffer.putInt(amount).putInt(amount2);
+		return this;
+	}
+
+	/**
+	 * Encodes a frame without cards at the end of the buffer.
+	 *
+	 * @see #put(byte, int, char, int, int, int, int, int)
+	 */
+	public FrameBuffer put(byte type, int seat, char code, int amount, int amount2) {
+		return put(type, seat, code, Protocol.NO_CARD, Protocol.NO_CARD, Protocol.NO_CARD, amount, amount2);
+	}
+
+	/**
+	 * @return True if there is room for one more frame
+	 */
+	public boolean hasRoom() {
+		return buffer.remaining() >= Protocol.FRAME_BYTES;
+	}
+
+	public boolean isEmpty() {
+		return buffer.position() == 0;
+	}
+
+	/**
+	 * Makes a view of the encoded frames with a position of its own, so each
+	 * connection can write the same buffer at its own pace.
+	 *
+	 * @return A read-only view of the encoded frames
+	 */
+	public ByteBuffer view() {
+		return buffer.asReadOnlyBuffer().flip();
+	}
+
+	/**
+	 * Adds a holder of the buffer.
+	 *
+	 * @return This buffer
+	 */
+	public FrameBuffer retain() {
+		refs.incrementAndGet();
+		return this;
+	}
+
+	/**
+	 * Removes a holder of the buffer, and gives it back to {@link #pool} if it was
+	 * the last one.
+	 */
+	public void release() {
+		if (refs.decrementAndGet() == 0 && pool != null) {
+			pool.release(this);
+		}
+	}
+
+	/**
+	 * Empties the buffer and makes the caller its only holder. Called by
+	 * {@link #pool} when handing it out.
+	 */
+	void reset() {
+		buffer.clear();
+		refs.set(1);
+	}
+}
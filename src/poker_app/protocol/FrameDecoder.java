@@ -0,0 +1,59 @@
+package poker_app.protocol;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes frames of the {@link Protocol}, either from a stream on the client
+ * or from a buffer on the server. Checks the version of each
+ * {@link Protocol#HELLO}.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class FrameDecoder {
+	/** Bytes of the frame being read from a stream. */
+	private final byte[] bytes = new byte[Protocol.FRAME_BYTES];
+	/** {@link #bytes} as a buffer. */
+	private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+	/**
+	 * Reads one frame from a stream, blocking until it is all there.
+	 *
+	 * @param in    Stream to read from
+	 * @param frame Frame to fill in
+	 * @throws IOException if the stream ends or can not be read, or a
+	 *                     {@link Protocol#HELLO} is of an unknown version
+	 */
+	public void read(DataInputStream in, Frame frame) throws IOException {
+		in.readFully(bytes);
+		buffer.clear();
+		decode(buffer, frame);
+	}
+
+	/**
+	 * Decodes the frame at the position of a buffer, and moves past it.
+	 *
+	 * @param buffer Buffer with at least {@link Protocol#FRAME_BYTES} remaining
+	 * @param frame  Frame to fill in
+	 * @throws IOException if a {@link Protocol#HELLO} is of an unknown version
+	 */
+	public static void decode(ByteBuffer buffer, Frame frame) throws IOException {
+		byte type = buffer.get();
+		int seat = buffer.get() & 0xFF;
+		char code = (char) (buffer.get() & 0xFF);
+		int card0 = buffer.get() & 0xFF;
+		int card1 = buffer.get() & 0xFF;
+		int card2 = buffer.get() & 0xFF;
+		buffer.getShort();
+		int amount = buffer.getInt();
+		int amount2 = buffer.getInt();
+
+		if (type == Protocol.HELLO && code != Protocol.VERSION) {
+			throw new IOException("Unknown protocol version " + (int) code + ", expected " + Protocol.VERSION + ".");
+		}
+		frame.set(type, seat, code, card0, card1, card2, amount, amount2);
+	}
+}
@@ -0,0 +1,83 @@
+package poker_app.protocol;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents a pool of {@link FrameBuffer}s, so direct buffers are allocated
+ * once and reused by every table and connection rather than made per event.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class FramePool {
+	// STATIC
+	/** Pool shared by everything made without one. */
+	public final static FramePool SHARED = new FramePool(64, 4096);
+
+	// CONSTANTS
+	/** Number of frames each buffer can hold. */
+	private final int framesPerBuffer;
+	/** Maximum number of free buffers kept, others are left to be collected. */
+	private final int maxFree;
+	/** Free buffers. */
+	private final Queue<FrameBuffer> free = new ConcurrentLinkedQueue<>();
+	/** Number of buffers in {@link #free}. */
+	private final AtomicInteger numFree = new AtomicInteger();
+
+	/**
+	 * Inits: {@link #framesPerBuffer} as param framesPerBuffer, {@link #maxFree}
+	 * as param maxFree
+	 *
+	 * @param framesPerBuffer Number of frames each buffer can hold
+	 * @param maxFree         Maximum number of free buffers kept
+	 * @throws IllegalArgumentException if param framesPerBuffer is less than 1
+	 */
+	public FramePool(int framesPerBuffer, int maxFree) {
+		// Exceptions
+		if (framesPerBuffer < 1) {
+			throw new IllegalArgumentException("The int framesPerBuffer must be at least 1.");
+		}
+
+		// Inits
+		this.framesPerBuffer = framesPerBuffer;
+		this.maxFree = maxFree;
+	}
+
+	/**
+	 * Takes an empty buffer from the pool, or allocates one if the pool is empty.
+	 * The caller is its only holder.
+	 *
+	 * @return The buffer
+	 */
+	public FrameBuffer acquire() {
+		FrameBuffer frames = free.poll();
+		if (frames == null) {
+			frames = new FrameBuffer(this, framesPerBuffer);
+		} else {
+			numFree.decrementAndGet();
+		}
+		frames.reset();
+		return frames;
+	}
+
+	/**
+	 * Gives a buffer without holders back to the pool. Called by
+	 * {@link FrameBuffer#release()}.
+	 *
+	 * @param frames The buffer
+	 */
+	void release(FrameBuffer frames) {
+		if (numFree.incrementAndGet() <= maxFree) {
+			free.add(frames);
+		} else {
+			numFree.decrementAndGet();
+		}
+	}
+
+	public int getFramesPerBuffer() {
+		return framesPerBuffer;
+	}
+}
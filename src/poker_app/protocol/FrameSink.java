@@ -0,0 +1,19 @@
+package poker_app.protocol;
+
+/**
+ * Represents somewhere to send encoded frames, such as the connections
+ * watching a table.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public interface FrameSink {
+	/**
+	 * Sends the frames of a buffer. The caller keeps its hold on param frames, and
+	 * the sink retains it for as long as it needs it.
+	 *
+	 * @param frames Encoded frames
+	 */
+	void send(FrameBuffer frames);
+}
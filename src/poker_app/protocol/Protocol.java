@@ -0,0 +1,90 @@
+package poker_app.protocol;
+
+/**
+ * Represents the binary protocol spoken between the server and clients that
+ * ask for it, as an alternative to the lines of text of
+ * {@link poker_app.observer.TextObserver}.
+ * <p>
+ * Everything is sent as frames of {@link #FRAME_BYTES} bytes, big-endian:
+ * <p>
+ * * byte 0: Type of frame.
+ * <p>
+ * * byte 1: Seat of the player the frame is about, or a count.
+ * <p>
+ * * byte 2: Code, such as the type of an action or a street.
+ * <p>
+ * * bytes 3-5: Up to three cards as {@link poker_app.game.Card#index()}, or
+ * {@link #NO_CARD}.
+ * <p>
+ * * bytes 6-7: Reserved, 0.
+ * <p>
+ * * bytes 8-11 and 12-15: Two amounts.
+ * <p>
+ * A server starts by sending {@link #HELLO} with {@link #VERSION}, and a client
+ * must not read on if it does not know that version.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class Protocol {
+	// STATIC
+	/** Version of the protocol, bumped on any change to the frames. */
+	public final static int VERSION = 1;
+	/** Number of bytes of every frame. */
+	public final static int FRAME_BYTES = 16;
+	/** Card byte of no card, such as a hidden card. */
+	public final static int NO_CARD = 0xFF;
+
+	// Server to client
+	/** Start of stream. seat: number of seats, code: version, amounts: blinds. */
+	public final static byte HELLO = 'V';
+	/** Start of hand. seat: number of players, amount: hand number. */
+	public final static byte START_HAND = 'S';
+	/**
+	 * Player dealt into hand, sent in order of position. cards: hole cards or
+	 * {@link #NO_CARD}, amount: stack.
+	 */
+	public final static byte DEAL = 'D';
+	/** New street. code: street char, cards: the cards dealt on the street. */
+	public final static byte STREET = 'T';
+	/**
+	 * Player acted. code: 'f', 'k', 'c', 'b' or 'r' for fold, check, call, bet or
+	 * raise, amount: chips called, bet or raised to.
+	 */
+	public final static byte ACTION = 'A';
+	/** Player revealed. cards: hole cards, amount: strength of hand. */
+	public final static byte REVEAL = 'R';
+	/** Equity of a player all-in. amount: equity in hundredths of a percent. */
+	public final static byte EQUITY = 'Q';
+	/** Player won chips. amount: chips won. */
+	public final static byte WIN = 'W';
+	/** End of hand. amount: hand number. */
+	public final static byte END_HAND = 'E';
+	/** Player is on action. cards: hole cards, amount: chips to call. */
+	public final static byte PROMPT = 'P';
+	/**
+	 * Follows {@link #PROMPT} if the player can bet. amount: min bet to, amount2:
+	 * max bet to.
+	 */
+	public final static byte BET_RANGE = 'B';
+	/** Request could not be carried out. code: type of the request. */
+	public final static byte ERROR = 'X';
+
+	// Client to server
+	/**
+	 * Act. code: {@link poker_app.game.Action} type, amount: chips to bet to.
+	 */
+	public final static byte ACT = 'a';
+	/**
+	 * Act ahead of turn. code: {@link poker_app.game.PreAction} type, amount:
+	 * chips to call up to.
+	 */
+	public final static byte PRE_ACT = 'p';
+
+	/**
+	 * Holds constants only.
+	 */
+	private Protocol() {
+	}
+}
@@ -0,0 +1,74 @@
+package poker_app.server;
+
+import java.util.Collection;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import poker_app.protocol.FrameBuffer;
+import poker_app.protocol.FrameSink;
+import poker_app.writer.Writer;
+
+/**
+ * A {@link Writer} that sends each line to every subscribed
+ * {@link Connection}, such as the players and spectators of one table. Writing
+ * only queues the line on each connection, within its bounds, so a slow client
+ * does not hold up the table.
+ * <p>
+ * Is also a {@link FrameSink}, sending lines to the connections speaking text
+ * and frames to those speaking the binary protocol. The same frame buffer is
+ * queued on every binary connection, without copying.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class Broadcast implements Writer, FrameSink {
+	/** Subscribed connections. */
+	private final Collection<Connection> connections = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Sends one line to all connections in {@link #connections} speaking text.
+	 */
+	@Override
+	public void write(String line) {
+		for (Connection connection : connections) {
+			if (!connection.isBinary()) {
+				connection.broadcast(line);
+			}
+		}
+	}
+
+	/**
+	 * Sends frames to all connections in {@link #connections} speaking the binary
+	 * protocol.
+	 */
+	@Override
+	public void send(FrameBuffer frames) {
+		for (Connection connection : connections) {
+			if (connection.isBinary()) {
+				connection.broadcast(frames);
+			}
+		}
+	}
+
+	/**
+	 * Subscribes a connection.
+	 * 
+	 * @param connection Connection to subscribe
+	 */
+	void add(Connection connection) {
+		connections.add(connection);
+	}
+
+	/**
+	 * Unsubscribes a connection.
+	 * 
+	 * @param connection Connection to unsubscribe
+	 */
+	void remove(Connection connection) {
+		connections.remove(connection);
+	}
+
+	public int size() {
+		return connections.size();
+	}
+}
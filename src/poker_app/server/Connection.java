@@ -0,0 +1,452 @@
+package poker_app.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Queue;
+
+import poker_app.protocol.Frame;
+import poker_app.protocol.FrameBuffer;
+import poker_app.protocol.FrameDecoder;
+import poker_app.protocol.FramePool;
+import poker_app.protocol.FrameSink;
+import poker_app.protocol.Protocol;
+import poker_app.writer.SlowConsumer;
+
+/**
+ * One client connected to a {@link NioServer}, read and written without
+ * blocking by the thread of the server. Lines may be sent from any thread, and
+ * are queued until the socket can take them.
+ * <p>
+ * A connection starts out speaking lines of text, and may switch to frames of
+ * the {@link Protocol} both ways. Frame buffers are queued without copying, and
+ * released once written.
+ * <p>
+ * What is broadcast to the connection is bounded by
+ * {@link NioServer#getMaxQueuedBytes()}, and a client that falls further behind
+ * is handled by the {@link SlowConsumer} policy of the server, so the tables
+ * never wait for it. What is sent to the connection alone, such as prompts to
+ * act, is always queued. Queued bytes are written in batches of up to
+ * {@link #MAX_BATCH} by one gathering write.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class Connection implements FrameSink {
+	// STATIC
+	/** Maximum number of bytes of a line read from the client. */
+	private final static int MAX_LINE = 1024;
+	/** Maximum number of queued buffers written at once. */
+	private final static int MAX_BATCH = 64;
+
+	// CONSTANTS
+	/** Server of the connection. */
+	private final NioServer server;
+	/** The socket. */
+	private final SocketChannel channel;
+	/** Key of {@link #channel} in the selector of {@link #server}. */
+	private final SelectionKey key;
+	/** Bytes read but not yet split into lines. */
+	private final ByteBuffer readBuffer = ByteBuffer.allocate(MAX_LINE);
+	/** Bytes to write, guarded by itself. */
+	private final Queue<Pending> writeQueue = new ArrayDeque<>();
+	/** Buffers of the current write, used by the thread of the server only. */
+	private final ByteBuffer[] batch = new ByteBuffer[MAX_BATCH];
+	/** Frame last read from the client. */
+	private final Frame frame = new Frame();
+	/** Broadcasts the connection is subscribed to. */
+	private final Collection<Broadcast> broadcasts = new ArrayList<>();
+
+	// NON-CONSTANTS
+	/** User of the connection, null if it has not joined a table. */
+	private NioUser user;
+	/** If the connection is closed. */
+	private volatile boolean closed = false;
+	/** If the connection speaks frames rather than lines. */
+	private volatile boolean binary = false;
+	/** Bytes in {@link #writeQueue}, guarded by it. */
+	private int queuedBytes = 0;
+	/** Broadcast lines or frame buffers dropped or skipped, guarded by {@link #writeQueue}. */
+	private int skipped = 0;
+	/** If the connection is to be closed by the server for being too slow. */
+	private volatile boolean tooSlow = false;
+
+	/**
+	 * Inits: {@link #server} as param server, {@link #channel} as param channel,
+	 * {@link #key} as param key
+	 *
+	 * @param server  Server of the connection
+	 * @param channel The socket, non-blocking
+	 * @param key     Key of param channel in the selector of param server
+	 */
+	Connection(NioServer server, SocketChannel channel, SelectionKey key) {
+		this.server = server;
+		this.channel = channel;
+		this.key = key;
+	}
+
+	/**
+	 * Queues a line to be written to the client. Can be called from any thread.
+	 *
+	 * @param line Line to write, without line separator
+	 */
+	public void send(String line) {
+		if (!closed) {
+			queue(new Pending(ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8)), null, false));
+		}
+	}
+
+	/**
+	 * Queues encoded frames to be written to the client, retaining param frames
+	 * until they are written. Can be called from any thread.
+	 */
+	@Override
+	public void send(FrameBuffer frames) {
+		if (!closed) {
+			queue(new Pending(frames.view(), frames.retain(), false));
+		}
+	}
+
+	/**
+	 * Queues a broadcast line, within the bounds of the server. Called by
+	 * {@link Broadcast}.
+	 *
+	 * @param line Line to write, without line separator
+	 */
+	void broadcast(String line) {
+		if (!closed) {
+			queue(new Pending(ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8)), null, true));
+		}
+	}
+
+	/**
+	 * Queues broadcast frames, within the bounds of the server. Called by
+	 * {@link Broadcast}.
+	 *
+	 * @param frames Encoded frames, retained until written
+	 */
+	void broadcast(FrameBuffer frames) {
+		if (!closed) {
+			queue(new Pending(frames.view(), frames.retain(), true));
+		}
+	}
+
+	/**
+	 * Encodes one frame without cards into a pooled buffer and queues it.
+	 *
+	 * @see FrameBuffer#put(byte, int, char, int, int)
+	 */
+	void send(byte type, int seat, char code, int amount, int amount2) {
+		FrameBuffer frames = FramePool.SHARED.acquire();
+		send(frames.put(type, seat, code, amount, amount2));
+		frames.release();
+	}
+
+	/**
+	 * Adds bytes to {@link #writeQueue}, and has the server watch for the socket to
+	 * be writable if it was empty. Applies the {@link SlowConsumer} policy of the
+	 * server if broadcast bytes do not fit.
+	 *
+	 * @param pending Bytes to write
+	 */
+	private void queue(Pending pending) {
+		boolean wasEmpty;
+		synchronized (writeQueue) {
+			if (closed || tooSlow) {
+				pending.release();
+				return;
+			}
+
+			// The client has fallen behind
+			if (pending.droppable && queuedBytes + pending.size > server.getMaxQueuedBytes()) {
+				switch (server.getSlowConsumerPolicy()) {
+				case SlowConsumer.COALESCE:
+					coalesce();
+					if (queuedBytes + pending.size <= server.getMaxQueuedBytes()) {
+						break;
+					}
+					// Dropped if it still does not fit
+					skipped++;
+					pending.release();
+					return;
+				case SlowConsumer.DROP:
+					skipped++;
+					pending.release();
+					return;
+				case SlowConsumer.DISCONNECT:
+					// The connection is closed by the server thread, which owns the key
+					tooSlow = true;
+					pending.release();
+					server.requestWrite(this);
+					return;
+				}
+			}
+
+			wasEmpty = writeQueue.isEmpty();
+			writeQueue.add(pending);
+			queuedBytes += pending.size;
+		}
+
+		// The server thread needs to start watching for the socket to be writable
+		if (wasEmpty) {
+			server.requestWrite(this);
+		}
+	}
+
+	/**
+	 * Throws away the broadcast bytes in {@link #writeQueue} not yet being
+	 * written, so the client skips ahead. A client speaking text is told how many
+	 * lines it skipped. Called with the lock of {@link #writeQueue}.
+	 */
+	private void coalesce() {
+		int lines = 0;
+		Iterator<Pending> it = writeQueue.iterator();
+		while (it.hasNext()) {
+			Pending pending = it.next();
+			// A buffer partly written must be finished, or the client would get half a frame
+			if (pending.droppable && pending.bytes.position() == 0) {
+				it.remove();
+				queuedBytes -= pending.size;
+				pending.release();
+				lines++;
+			}
+		}
+		skipped += lines;
+
+		if (!binary && lines > 0) {
+			Pending notice = new Pending(
+					ByteBuffer.wrap(("<<<Skipped " + lines + " lines>>>\n").getBytes(StandardCharsets.UTF_8)), null,
+					false);
+			writeQueue.add(notice);
+			queuedBytes += notice.size;
+		}
+	}
+
+	/**
+	 * Reads what the client has sent, and hands each complete line or frame to
+	 * the server. Called by the thread of the server when the socket is readable.
+	 *
+	 * @throws IOException if the socket can not be read, the client has closed it
+	 *                     or sent a line longer than {@link #MAX_LINE}
+	 */
+	void read() throws IOException {
+		if (channel.read(readBuffer) < 0) {
+			throw new IOException("Connection closed by client.");
+		}
+
+		// Hand over each complete line, until the client switches to frames
+		readBuffer.flip();
+		int from = 0;
+		while (!binary && !closed) {
+			int newline = from;
+			while (newline < readBuffer.limit() && readBuffer.get(newline) != '\n') {
+				newline++;
+			}
+			if (newline == readBuffer.limit()) {
+				break;
+			}
+			int start = readBuffer.position();
+			int end = (newline > start && readBuffer.get(newline - 1) == '\r') ? newline - 1 : newline;
+			byte[] line = new byte[end - start];
+			readBuffer.get(start, line);
+			readBuffer.position(newline + 1);
+			from = newline + 1;
+			server.handle(this, new String(line, StandardCharsets.UTF_8).trim());
+		}
+
+		// Hand over each complete frame
+		while (binary && !closed && readBuffer.remaining() >= Protocol.FRAME_BYTES) {
+			FrameDecoder.decode(readBuffer, frame);
+			server.handle(this, frame);
+		}
+		if (closed) {
+			return;
+		}
+		readBuffer.compact();
+
+		if (!readBuffer.hasRemaining()) {
+			throw new IOException("Line longer than " + MAX_LINE + " bytes.");
+		}
+	}
+
+	/**
+	 * Writes as much of {@link #writeQueue} as the socket takes, up to
+	 * {@link #MAX_BATCH} buffers at a time in one gathering write, and stops
+	 * watching for the socket to be writable when it is all written. Called by
+	 * the thread of the server when the socket is writable.
+	 *
+	 * @throws IOException if the socket can not be written
+	 */
+	void write() throws IOException {
+		synchronized (writeQueue) {
+			while (!writeQueue.isEmpty()) {
+				// Gather the first queued buffers
+				int n = 0;
+				for (Pending pending : writeQueue) {
+					batch[n++] = pending.bytes;
+					if (n == MAX_BATCH) {
+						break;
+					}
+				}
+				channel.write(batch, 0, n);
+				boolean full = batch[n - 1].hasRemaining();
+				Arrays.fill(batch, 0, n, null);
+
+				// Let go of those written
+				while (!writeQueue.isEmpty() && !writeQueue.peek().bytes.hasRemaining()) {
+					Pending pending = writeQueue.remove();
+					queuedBytes -= pending.size;
+					pending.release();
+				}
+				if (full) {
+					// Socket is full
+					return;
+				}
+			}
+			key.interestOps(SelectionKey.OP_READ);
+		}
+	}
+
+	/**
+	 * Starts watching for the socket to be writable if there is anything to
+	 * write, or closes the connection if it is too slow. Called by the thread of
+	 * the server.
+	 */
+	void watchWrite() {
+		if (tooSlow) {
+			close();
+			return;
+		}
+		synchronized (writeQueue) {
+			if (!writeQueue.isEmpty() && key.isValid()) {
+				key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+			}
+		}
+	}
+
+	/**
+	 * Closes the connection, unsubscribes it from its broadcasts and tells its
+	 * user.
+	 */
+	void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		for (Broadcast broadcast : broadcasts) {
+			broadcast.remove(this);
+		}
+		if (user != null) {
+			user.disconnected();
+		}
+
+		// Give back queued frame buffers
+		synchronized (writeQueue) {
+			for (Pending pending : writeQueue) {
+				pending.release();
+			}
+			writeQueue.clear();
+			queuedBytes = 0;
+		}
+
+		key.cancel();
+		try {
+			channel.close();
+		} catch (IOException e) {
+			System.out.println("Error while closing connection.");
+		}
+	}
+
+	/**
+	 * Subscribes the connection to a broadcast.
+	 *
+	 * @param broadcast Broadcast to subscribe to
+	 */
+	void subscribe(Broadcast broadcast) {
+		if (!broadcasts.contains(broadcast)) {
+			broadcasts.add(broadcast);
+			broadcast.add(this);
+		}
+	}
+
+	// ----------------
+	// Setters/Getters:
+	// ----------------
+
+	void setUser(NioUser user) {
+		this.user = user;
+	}
+
+	public NioUser getUser() {
+		return user;
+	}
+
+	/**
+	 * Switches the connection to frames of the {@link Protocol} both ways. Called
+	 * by the thread of the server.
+	 */
+	void setBinary() {
+		binary = true;
+	}
+
+	public boolean isBinary() {
+		return binary;
+	}
+
+	/**
+	 * @return The number of broadcast lines or frame buffers dropped or skipped
+	 */
+	public int getSkipped() {
+		synchronized (writeQueue) {
+			return skipped;
+		}
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	// --------
+	// Classes:
+	// --------
+
+	/**
+	 * Bytes queued to be written, and the frame buffer they are a view of, if
+	 * any.
+	 */
+	private static class Pending {
+		/** Bytes left to write. */
+		private final ByteBuffer bytes;
+		/** Number of bytes queued. */
+		private final int size;
+		/** Frame buffer held until written, null for a line. */
+		private final FrameBuffer frames;
+		/** If the bytes are broadcast, and may be left out for a slow client. */
+		private final boolean droppable;
+
+		private Pending(ByteBuffer bytes, FrameBuffer frames, boolean droppable) {
+			this.bytes = bytes;
+			size = bytes.remaining();
+			this.frames = frames;
+			this.droppable = droppable;
+		}
+
+		/**
+		 * Lets go of {@link #frames}, if any.
+		 */
+		private void release() {
+			if (frames != null) {
+				frames.release();
+			}
+		}
+	}
+}
@@ -0,0 +1,341 @@
+package poker_app.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import poker_app.Table;
+import poker_app.TableManager;
+import poker_app.game.Player;
+import poker_app.observer.BinaryObserver;
+import poker_app.observer.TextObserver;
+import poker_app.protocol.Frame;
+import poker_app.protocol.Protocol;
+import poker_app.writer.SlowConsumer;
+
+/**
+ * Serves the players and spectators of every table of a {@link TableManager}
+ * on one port, with one thread reading and writing all connections without
+ * blocking through a {@link Selector}.
+ * <p>
+ * Clients send lines of text:
+ * <p>
+ * * JOIN table name: Sit down at a table as a new player named name.
+ * <p>
+ * * WATCH table: Get the text of a table without playing.
+ * <p>
+ * * c, f or b amount: Check/call, fold or bet, when on action.
+ * <p>
+ * * pre x, pre k, pre a or pre c amount: Check/fold, check, call any or call up
+ * to an amount, ahead of the turn.
+ * <p>
+ * * QUIT: Close the connection.
+ * <p>
+ * JOIN and WATCH followed by BINARY switch the connection to frames of the
+ * {@link Protocol} both ways, starting with a {@link Protocol#HELLO}, and the
+ * client then acts by {@link Protocol#ACT} and {@link Protocol#PRE_ACT} frames.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class NioServer implements Runnable {
+	// STATIC
+	/** Maximum number of broadcast bytes queued per connection by default. */
+	public final static int DEFAULT_MAX_QUEUED_BYTES = 1 << 18;
+
+	// CONSTANTS
+	/** Runs the tables. */
+	private final TableManager manager;
+	/** Broadcast of the text and frames of each served table, by name. */
+	private final Map<String, Broadcast> broadcasts = new ConcurrentHashMap<>();
+	/** Encoder of the frames of each served table, by name. */
+	private final Map<String, BinaryObserver> binaryObservers = new ConcurrentHashMap<>();
+	/** Connections with lines queued since the server thread last looked. */
+	private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+	/** Watches all sockets. */
+	private final Selector selector;
+	/** Socket accepting connections. */
+	private final ServerSocketChannel serverChannel;
+	/** Maximum number of broadcast bytes queued per connection. */
+	private final int maxQueuedBytes;
+	/** {@link SlowConsumer} policy for connections that fall further behind. */
+	private final char slowConsumerPolicy;
+
+	// NON-CONSTANTS
+	/** If the server is running. */
+	private volatile boolean running = false;
+	/** Thread reading and writing all connections. */
+	private Thread serverThread;
+
+	/**
+	 * Inits: {@link #maxQueuedBytes} as {@link #DEFAULT_MAX_QUEUED_BYTES},
+	 * {@link #slowConsumerPolicy} as {@link SlowConsumer#DROP}
+	 *
+	 * @see #NioServer(int, TableManager, int, char)
+	 */
+	public NioServer(int port, TableManager manager) throws IOException {
+		this(port, manager, DEFAULT_MAX_QUEUED_BYTES, SlowConsumer.DROP);
+	}
+
+	/**
+	 * Inits: {@link #manager} as param manager, {@link #serverChannel} as a
+	 * non-blocking socket bound to param port, {@link #maxQueuedBytes} as param
+	 * maxQueuedBytes, {@link #slowConsumerPolicy} as param slowConsumerPolicy
+	 *
+	 * @param port               Port to accept connections on
+	 * @param manager            Runs the tables, preferably event-driven
+	 * @param maxQueuedBytes     Maximum number of broadcast bytes queued per
+	 *                           connection
+	 * @param slowConsumerPolicy {@link SlowConsumer} policy for connections that
+	 *                           fall further behind
+	 * @throws IOException              if the port can not be bound
+	 * @throws IllegalArgumentException if param slowConsumerPolicy is not a policy
+	 */
+	public NioServer(int port, TableManager manager, int maxQueuedBytes, char slowConsumerPolicy)
+			throws IOException {
+		this.slowConsumerPolicy = SlowConsumer.check(slowConsumerPolicy);
+		this.maxQueuedBytes = maxQueuedBytes;
+		this.manager = manager;
+		selector = Selector.open();
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.bind(new InetSocketAddress(port));
+		serverChannel.configureBlocking(false);
+		serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+	}
+
+	/**
+	 * Serves a table that is not yet running, and starts it on {@link #manager}.
+	 *
+	 * @param table Table to serve
+	 * @throws IllegalArgumentException if a table with the name of param table is
+	 *                                  already managed
+	 */
+	public void serve(Table table) {
+		// The observers are added before the table runs, as tables do not lock their observers
+		Broadcast broadcast = new Broadcast();
+		new TextObserver(table, broadcast);
+		BinaryObserver binaryObserver = new BinaryObserver(table, broadcast);
+		manager.add(table);
+		binaryObservers.put(table.getName(), binaryObserver);
+		broadcasts.put(table.getName(), broadcast);
+	}
+
+	/**
+	 * Starts {@link #serverThread}.
+	 */
+	public synchronized void start() {
+		running = true;
+		serverThread = new Thread(this, "NioServer");
+		serverThread.start();
+	}
+
+	/**
+	 * Stops {@link #serverThread} and closes all connections.
+	 */
+	public synchronized void stop() {
+		running = false;
+		selector.wakeup();
+		try {
+			serverThread.join();
+		} catch (InterruptedException e) {
+			System.out.println("Error while joining thread " + serverThread + ".");
+		}
+	}
+
+	@Override
+	public void run() {
+		while (running) {
+			try {
+				selector.select();
+			} catch (IOException e) {
+				System.out.println("Error while selecting: " + e.getMessage());
+				break;
+			}
+
+			// Watch for writability of connections with lines queued
+			Connection pending;
+			while ((pending = pendingWrites.poll()) != null) {
+				pending.watchWrite();
+			}
+
+			// Handle ready sockets
+			Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+			while (it.hasNext()) {
+				SelectionKey key = it.next();
+				it.remove();
+				if (key.isValid() && key.isAcceptable()) {
+					accept();
+				} else {
+					Connection connection = (Connection) key.attachment();
+					try {
+						if (key.isValid() && key.isReadable()) {
+							connection.read();
+						}
+						if (key.isValid() && key.isWritable()) {
+							connection.write();
+						}
+					} catch (IOException e) {
+						connection.close();
+					}
+				}
+			}
+		}
+
+		// Close everything
+		for (SelectionKey key : selector.keys()) {
+			if (key.attachment() instanceof Connection) {
+				((Connection) key.attachment()).close();
+			}
+		}
+		try {
+			serverChannel.close();
+			selector.close();
+		} catch (IOException e) {
+			System.out.println("Error while closing server socket.");
+		}
+	}
+
+	/**
+	 * Accepts a waiting connection.
+	 */
+	private void accept() {
+		try {
+			SocketChannel channel = serverChannel.accept();
+			if (channel == null) {
+				return;
+			}
+			channel.configureBlocking(false);
+			SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+			Connection connection = new Connection(this, channel, key);
+			key.attach(connection);
+			connection.send("<<<Connected | JOIN table name, WATCH table or QUIT>>>");
+		} catch (IOException e) {
+			System.out.println("Error while accepting on server socket.");
+		}
+	}
+
+	/**
+	 * Handles a line read from a connection. Called by {@link #serverThread}.
+	 *
+	 * @param connection Connection the line was read from
+	 * @param line       The line, trimmed
+	 */
+	void handle(Connection connection, String line) {
+		if (line.isEmpty()) {
+			return;
+		}
+		String[] args = line.split("\\s+");
+		NioUser user = connection.getUser();
+
+		switch (args[0].toUpperCase()) {
+		case "JOIN":
+			if (user != null) {
+				connection.send("ERROR Already joined as " + user + ".");
+			} else if (args.length < 3 || manager.getTable(args[1]) == null) {
+				connection.send("ERROR Usage: JOIN table name, with a table that exists.");
+			} else {
+				Table table = manager.getTable(args[1]);
+				user = new NioUser(args[2], connection, new Player());
+				connection.setUser(user);
+				connection.send("JOINED " + table.getName());
+				binary(connection, args, 3);
+				connection.subscribe(broadcasts.get(table.getName()));
+				table.addPlayer(user.getPlayer());
+			}
+			break;
+		case "WATCH":
+			if (args.length < 2 || !broadcasts.containsKey(args[1])) {
+				connection.send("ERROR Usage: WATCH table, with a table that exists.");
+			} else {
+				connection.send("WATCHING " + args[1]);
+				binary(connection, args, 2);
+				connection.subscribe(broadcasts.get(args[1]));
+			}
+			break;
+		case "QUIT":
+			connection.close();
+			break;
+		default:
+			if (user == null) {
+				connection.send("ERROR Unknown command " + args[0] + ".");
+			} else {
+				user.act(args);
+			}
+		}
+	}
+
+	/**
+	 * Handles a frame read from a connection speaking the binary protocol. Called
+	 * by {@link #serverThread}.
+	 *
+	 * @param connection Connection the frame was read from
+	 * @param frame      The frame, filled in again by the next read
+	 */
+	void handle(Connection connection, Frame frame) {
+		NioUser user = connection.getUser();
+		if (user == null) {
+			connection.send(Protocol.ERROR, 0, (char) frame.getType(), 0, 0);
+		} else {
+			user.act(frame);
+		}
+	}
+
+	/**
+	 * Switches a connection that is joining or watching a table to the binary
+	 * protocol if the command ends with BINARY, and says hello. Called before the
+	 * connection subscribes to the table, so the hello comes first.
+	 *
+	 * @param connection Connection that sent the command
+	 * @param args       The words of the command, with the name of the table second
+	 * @param index      Index in param args where BINARY may be
+	 */
+	private void binary(Connection connection, String[] args, int index) {
+		if (args.length > index && args[index].equalsIgnoreCase("BINARY")) {
+			connection.setBinary();
+			binaryObservers.get(args[1]).hello(connection);
+		}
+	}
+
+	/**
+	 * Asks {@link #serverThread} to watch for a connection to be writable, or to
+	 * close it if it is too slow. Can be called from any thread.
+	 *
+	 * @param connection Connection with lines queued
+	 */
+	void requestWrite(Connection connection) {
+		pendingWrites.add(connection);
+		selector.wakeup();
+	}
+
+	// ----------------
+	// Setters/Getters:
+	// ----------------
+
+	public TableManager getManager() {
+		return manager;
+	}
+
+	public int getMaxQueuedBytes() {
+		return maxQueuedBytes;
+	}
+
+	public char getSlowConsumerPolicy() {
+		return slowConsumerPolicy;
+	}
+
+	/**
+	 * @return The port connections are accepted on, -1 if not bound
+	 */
+	public int getPort() {
+		return serverChannel.socket().getLocalPort();
+	}
+}
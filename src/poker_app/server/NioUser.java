@@ -0,0 +1,236 @@
+package poker_app.server;
+
+import poker_app.game.Action;
+import poker_app.game.Card;
+import poker_app.game.Game;
+import poker_app.game.Player;
+import poker_app.game.PreAction;
+import poker_app.protocol.Frame;
+import poker_app.protocol.FrameBuffer;
+import poker_app.protocol.FramePool;
+import poker_app.protocol.Protocol;
+import poker_app.user.User;
+
+/**
+ * A user connected to a {@link NioServer}. Is asked to act by a line sent on
+ * its {@link Connection}, and acts when the answer is read, so it never blocks
+ * the table.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class NioUser extends User {
+	/** Connection of the user. */
+	private final Connection connection;
+	/** Player of the user. */
+	private final Player player;
+	/** If the connection of the user is closed. */
+	private volatile boolean disconnected = false;
+
+	/**
+	 * Inits: {@link #connection} as param connection, {@link #player} as param
+	 * player controlled by this user
+	 *
+	 * @param name       Name of user
+	 * @param connection Connection of the user
+	 * @param player     Player of the user
+	 */
+	public NioUser(String name, Connection connection, Player player) {
+		super(name);
+		this.connection = connection;
+		this.player = player;
+		player.setUser(this);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * {@link NioUser}: Asks the client for an action, and returns without waiting
+	 * for it. Checks or folds at once if the connection is closed.
+	 */
+	@Override
+	public void onAction(Player player) {
+		validPlayer(player);
+		if (disconnected) {
+			player.preAct('x');
+			return;
+		}
+
+		Game game = player.getGame();
+		Card[] cards = player.getCards();
+		if (connection.isBinary()) {
+			prompt(game, cards);
+			return;
+		}
+		String line = "(INPUT) " + this + " [" + cards[0] + " " + cards[1] + "], it's your action";
+		int toCall = game.getAmountToCall();
+		line += (toCall == 0) ? " (check" : " (call " + toCall;
+		if (game.canBet()) {
+			line += ", bet " + game.getMinBetTo() + "-" + game.getMaxBetTo();
+		}
+		connection.send(line + "): ");
+	}
+
+	/**
+	 * Performs an action read from the client: 'c' to check/call, 'f' to fold, 'b
+	 * amount' to bet, or 'pre' followed by a pre-action type ('x', 'k', 'a' or 'c
+	 * amount') to act ahead of the turn.
+	 *
+	 * @param args The words of the line read
+	 */
+	void act(String[] args) {
+		if (player.getGame() == null) {
+			connection.send("ERROR Not in a hand.");
+			return;
+		}
+
+		try {
+			switch (args[0]) {
+			case "c":
+				player.checkOrCall();
+				break;
+			case "f":
+				player.fold();
+				break;
+			case "b":
+				player.bet(Integer.parseInt(args[1]));
+				break;
+			case "pre":
+				char type = args[1].charAt(0);
+				if (args.length > 2) {
+					player.preCall(Integer.parseInt(args[2]));
+				} else {
+					player.preAct(type);
+				}
+				break;
+			default:
+				connection.send("ERROR Unknown command " + args[0] + ".");
+			}
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			// NumberFormatException is an IllegalArgumentException
+			connection.send("ERROR " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Performs an action read from a client speaking the binary protocol: a
+	 * {@link Protocol#ACT} or a {@link Protocol#PRE_ACT}. Sends a
+	 * {@link Protocol#ERROR} if it can not be performed.
+	 *
+	 * @param frame The frame read
+	 */
+	void act(Frame frame) {
+		try {
+			if (player.getGame() == null) {
+				throw new IllegalArgumentException("Not in a hand.");
+			}
+
+			switch (frame.getType()) {
+			case Protocol.ACT:
+				switch (frame.getCode()) {
+				case Action.CHECK_OR_CALL:
+					player.checkOrCall();
+					break;
+				case Action.FOLD:
+					player.fold();
+					break;
+				case Action.BET:
+					player.bet(frame.getAmount());
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown action " + frame.getCode() + ".");
+				}
+				break;
+			case Protocol.PRE_ACT:
+				if (frame.getCode() == PreAction.CALL) {
+					player.preCall(frame.getAmount());
+				} else {
+					player.preAct(frame.getCode());
+				}
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown frame " + (char) frame.getType() + ".");
+			}
+		} catch (IllegalArgumentException e) {
+			connection.send(Protocol.ERROR, player.getSeat(), (char) frame.getType(), 0, 0);
+		}
+	}
+
+	/**
+	 * Asks a client speaking the binary protocol for an action by a
+	 * {@link Protocol#PROMPT}, followed by a {@link Protocol#BET_RANGE} if the
+	 * player can bet.
+	 *
+	 * @param game  Game the player is on action in
+	 * @param cards Hole cards of the player
+	 */
+	private void prompt(Game game, Card[] cards) {
+		FrameBuffer frames = FramePool.SHARED.acquire();
+		frames.put(Protocol.PROMPT, player.getSeat(), ' ', cards[0].index(), cards[1].index(), Protocol.NO_CARD,
+				game.getAmountToCall(), 0);
+		if (game.canBet()) {
+			frames.put(Protocol.BET_RANGE, player.getSeat(), ' ', game.getMinBetTo(), game.getMaxBetTo());
+		}
+		connection.send(frames);
+		frames.release();
+	}
+
+	/**
+	 * Makes the player check or fold in the current hand and sit out the next
+	 * ones, as the connection is closed.
+	 */
+	void disconnected() {
+		disconnected = true;
+		if (player.getGame() != null) {
+			try {
+				player.preAct('x');
+			} catch (IllegalArgumentException e) {
+				// Player is not in a hand
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * {@link NioUser}: Tells a client speaking text. A client speaking the binary
+	 * protocol sees the action taken for it.
+	 */
+	@Override
+	public void actionExpired(Player player) {
+		if (!connection.isBinary()) {
+			connection.send(this + ", your time to act has run out.");
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * {@link NioUser}: Rebuys unless the connection is closed, as the client is
+	 * not asked.
+	 */
+	@Override
+	public boolean rebuy(Player player) {
+		return !disconnected;
+	}
+
+	@Override
+	public boolean sitOutNextHand(Player player) {
+		return disconnected;
+	}
+
+	@Override
+	public int pickSeat(Player player) {
+		return player.getTable().getSeats().indexOf(null);
+	}
+
+	@Override
+	public int chooseStartingStack(Player player) {
+		return player.getTable().getMaxStartingStack();
+	}
+
+	public Player getPlayer() {
+		return player;
+	}
+}
@@ -0,0 +1,47 @@
+package poker_app.user;
+
+import java.util.random.RandomGenerator;
+
+import poker_app.game.Player;
+
+/**
+ * A decision made by a player on action, without blocking, that is by calling
+ * {@link Player#fold()}, {@link Player#checkOrCall()} or
+ * {@link Player#bet(int)} before returning.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+@FunctionalInterface
+public interface Strategy {
+	/**
+	 * Makes the decision of a player on action.
+	 *
+	 * @param player Player on action
+	 */
+	void onAction(Player player);
+
+	/**
+	 * Gives a strategy that, like {@link Bot}, checks/calls, bets or folds at
+	 * random.
+	 *
+	 * @param random Random generator to draw the actions with
+	 * @return A strategy drawing from param random
+	 */
+	static Strategy random(RandomGenerator random) {
+		return player -> {
+			switch (random.nextInt(3)) {
+			case 0:
+				player.checkOrCall();
+				break;
+			case 1:
+				player.bet(player.getGame().getLastBet() + player.getBetSize());
+				break;
+			case 2:
+				player.fold();
+				break;
+			}
+		};
+	}
+}
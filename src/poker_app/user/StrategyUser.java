@@ -0,0 +1,68 @@
+package poker_app.user;
+
+import poker_app.game.Player;
+
+/**
+ * Represents a non-human user as a subclass of {@link poker_app.user.User} that
+ * acts by a {@link Strategy} without stalling, for playing hands as fast as
+ * possible.
+ * <p>
+ * Last modified: 18 October 2026
+ * 
+ * @author Jakob Martin Torsvik
+ */
+public class StrategyUser extends User {
+	/** Decides the actions of the players. */
+	private final Strategy strategy;
+
+	/**
+	 * Inits: {@link User#name} as param name, {@link #strategy} as param strategy
+	 * 
+	 * @param name     Name of user
+	 * @param strategy Decides the actions of the players
+	 */
+	public StrategyUser(String name, Strategy strategy) {
+		super(name);
+		this.strategy = strategy;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * {@link StrategyUser}: Acts by {@link #strategy}.
+	 */
+	@Override
+	public void onAction(Player player) {
+		strategy.onAction(player);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * {@link StrategyUser}: Always rebuys.
+	 */
+	@Override
+	public boolean rebuy(Player player) {
+		return true;
+	}
+
+	@Override
+	public boolean sitOutNextHand(Player player) {
+		return false;
+	}
+
+	@Override
+	public int pickSeat(Player player) {
+		return player.getTable().getSeats().indexOf(null);
+	}
+
+	@Override
+	public int chooseStartingStack(Player player) {
+		return player.getTable().getMaxStartingStack();
+	}
+
+	public Strategy getStrategy() {
+		return strategy;
+	}
+
+}
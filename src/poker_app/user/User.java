@@ -8,7 +8,7 @@ import poker_app.game.Player;
 /**
  * Represents a user that can control multiple players.
  * <p>
- * Last modified: 4 April 2021
+ * Last modified: 18 October 2026
  * 
  * @author Jakob Martin Torsvik
  */
@@ -38,6 +38,17 @@ public abstract class User {
 	 */
 	public abstract void onAction(Player player);
 
+	/**
+	 * Tells the user that player ran out of time to act, and was made to check or
+	 * fold. Does nothing by default.
+	 * 
+	 * @param player Player that ran out of time, should be in {@link #players}
+	 * @see poker_app.game.ActionClock
+	 */
+	public void actionExpired(Player player) {
+
+	}
+
 	/**
 	 * Decides if player should rebuy.
 	 * 
@@ -6,6 +6,10 @@ import java.util.Arrays;
 
 import javax.swing.SwingUtilities;
 
+import poker_app.protocol.Frame;
+import poker_app.protocol.FrameDecoder;
+import poker_app.protocol.Protocol;
+
 public class GraphicUserClient {
 	private static TableFrame tableFrame;
 	private static int gamePort = 7000;
@@ -35,15 +39,27 @@ public class GraphicUserClient {
 			@Override
 			public void run() {
 				try {
+					FrameDecoder decoder = new FrameDecoder();
+					Frame frame = new Frame();
 					while (true) {
-						byte msgType = dataIn.readByte();
+						decoder.read(dataIn, frame);
 						
-						switch (msgType) {
-						case 0:
+						switch (frame.getType()) {
+						case Protocol.HELLO:
+							break;
+						case Protocol.START_HAND:
+							break;
+						case Protocol.DEAL:
+							break;
+						case Protocol.STREET:
+							break;
+						case Protocol.ACTION:
+							break;
+						case Protocol.REVEAL:
 							break;
-						case 1:
+						case Protocol.WIN:
 							break;
-						case 2:
+						case Protocol.END_HAND:
 							break;
 						default:
 							break;
@@ -1,19 +1,34 @@
 package poker_app.user.text_user;
 
-import java.util.Scanner;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A {@link TextUser} that takes input using console.
  * <p>
- * Last modified: 5 April 2021
- * 
+ * The console is read on a thread of its own, so that waiting for input can
+ * stop when the time to act has run out.
+ * <p>
+ * Last modified: 18 October 2026
+ *
  * @author Jakob Martin Torsvik
  *
  */
 public class PrinterTextUser extends TextUser {
-	/** For taking input from console. */
-	private final Scanner scanner = new Scanner(System.in);
-	
+	// STATIC
+	/** Milliseconds between checks if the time to act has run out while reading. */
+	private final static int POLL_MILLIS = 250;
+	/** Put in {@link #LINES} when the console has no more input. */
+	private final static String END_OF_INPUT = new String();
+	/** Lines read from console, not yet taken. */
+	private final static BlockingQueue<String> LINES = new LinkedBlockingQueue<>();
+	/** Thread reading from console, null if not started. */
+	private static Thread consoleReader;
+
 	/**
 	 * Calls {@link TextUser#TextUser(String name)}
 	 */
@@ -23,8 +38,53 @@ public class PrinterTextUser extends TextUser {
 
 	@Override
 	protected String userInput(String line) {
+		startConsoleReader();
 		System.out.print(line.toString());
-		return scanner.nextLine();
+
+		// Wait for a line from console, until the time to act has run out
+		String result = null;
+		try {
+			while (result == null) {
+				result = LINES.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+				if (result == null && isActionOver()) {
+					return null;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+
+		// Keep the end of input for the next to wait
+		if (result == END_OF_INPUT) {
+			LINES.add(END_OF_INPUT);
+			return null;
+		}
+		return result;
+	}
+
+	/**
+	 * Starts {@link #consoleReader} if not started, which puts each line of
+	 * console in {@link #LINES}, and last {@link #END_OF_INPUT}.
+	 */
+	private static synchronized void startConsoleReader() {
+		if (consoleReader != null) {
+			return;
+		}
+		consoleReader = new Thread(() -> {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+			try {
+				String read;
+				while ((read = reader.readLine()) != null) {
+					LINES.add(read);
+				}
+			} catch (IOException e) {
+				System.out.println("Error while reading from console.");
+			}
+			LINES.add(END_OF_INPUT);
+		}, "console-reader");
+		consoleReader.setDaemon(true);
+		consoleReader.start();
 	}
 
 }
@@ -6,16 +6,22 @@ import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+import poker_app.game.Player;
 
 /**
  * A {@link TextUser} that takes input using sockets.
  * <p>
- * Last modified: 5 April 2021
+ * Last modified: 18 October 2026
  * 
  * @author Jakob Martin Torsvik
  *
  */
 public class ServerTextUser extends TextUser {
+	/** Milliseconds between checks if the time to act has run out while reading. */
+	private final static int POLL_MILLIS = 250;
+
 	/** Socket where client connects to. */
 	private ServerSocket serverSocket;
 	/** For writing on {@link #serverSocket}. */
@@ -44,6 +50,7 @@ public class ServerTextUser extends TextUser {
 		try {
 			// Accept connection and initialize printWriter
 			Socket s = serverSocket.accept();
+			s.setSoTimeout(POLL_MILLIS);
 			printWriter = new PrintWriter(s.getOutputStream());
 			
 			// Get inputStream and initialize reader
@@ -61,14 +68,36 @@ public class ServerTextUser extends TextUser {
 		printWriter.println(line.toString());
 		printWriter.flush();
 		
-		// Read from socket
+		// Read from socket, until the time to act has run out
 		String result = null;
-		try {
-			result = reader.readLine();
-		} catch (IOException e) {
-			System.out.println("Error while reading from server socket.");
+		while (result == null) {
+			try {
+				result = reader.readLine();
+				if (result == null) {
+					// Connection is closed
+					break;
+				}
+			} catch (SocketTimeoutException e) {
+				if (isActionOver()) {
+					break;
+				}
+			} catch (IOException e) {
+				System.out.println("Error while reading from server socket.");
+				break;
+			}
 		}
 		return result;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * {@link ServerTextUser}: Tells the client on the socket.
+	 */
+	@Override
+	public void actionExpired(Player player) {
+		printWriter.println("\n" + this + ", your time to act has run out.");
+		printWriter.flush();
+	}
+
 }
@@ -10,12 +10,16 @@ import poker_app.user.User;
 /**
  * Represents a human user that gives input using text. Subclass of {@link User}.
  * <p>
- * Last modified: 5 April 2021
+ * Last modified: 18 October 2026
  * 
  * @author Jakob Martin Torsvik
  *
  */
 public abstract class TextUser extends User {
+	/** Player of user waiting for input to act, null if none. */
+	private volatile Player acting;
+	/** Number of actions applied in the game of {@link #acting} when it came on action. */
+	private volatile int actions;
 
 	/**
 	 * Calls {@link User#Master(String name)}
@@ -27,34 +31,90 @@ public abstract class TextUser extends User {
 	@Override
 	public void onAction(Player player) {
 		validPlayer(player);
+		actions = player.getGame().getNumActions();
+		acting = player;
+		try {
+			// Take a user input which should start with either 'c', 'b', 'f' which
+			// represents the actions check/call, bet and fold respectively from the player
+			Card[] cards = player.getCards();
+			String line = "\n(INPUT) " + this + " [" + cards[0] + " " + cards[1] + "]" + ", it's your action: ";
+			String action = userInput(line);
 
-		// Take a user input which should start with either 'c', 'b', 'f' which
-		// represents the actions check/call, bet and fold respectively from the player
-		Card[] cards = player.getCards();
-		String line = "\n(INPUT) " + this + " [" + cards[0] + " " + cards[1] + "]" + ", it's your action: ";
-		String action = userInput(line);
+			// While input does not start with 'c', 'b' or 'f' ask for new input
+			Collection<Character> validInputs = Arrays.asList('c', 'b', 'f');
+			while (action != null && (action.isEmpty() || !validInputs.contains(action.charAt(0)))) {
+				action = userInput("Not valid action!\n" + line);
+			}
 
-		// While input does not start with 'c', 'b' or 'f' ask for new input
-		Collection<Character> validInputs = Arrays.asList('c', 'b', 'f');
-		while (!validInputs.contains(action.charAt(0))) {
-			action = userInput("Not valid action!\n" + line);			
+			// Stop if the time to act has run out, or fold if there is no input, as
+			// the game waits for an action
+			if (isActionOver()) {
+				return;
+			} else if (action == null) {
+				player.fold();
+				return;
+			}
+
+			// Perform the corresponding action of the user input
+			switch (action.charAt(0)) {
+			case 'c':
+				player.checkOrCall();
+				break;
+			case 'b':
+				// While input is not a number ask for new input
+				Integer betAmount = null;
+				String amount = userInput("Bet amount: ");
+				while (amount != null && !isActionOver() && (betAmount = parseAmount(amount)) == null) {
+					amount = userInput("Not valid amount!\nBet amount: ");
+				}
+				if (isActionOver()) {
+					return;
+				} else if (betAmount == null) {
+					player.fold();
+				} else {
+					player.bet(betAmount);
+				}
+				break;
+			case 'f':
+				player.fold();
+				break;
+			}
+		} catch (IllegalArgumentException e) {
+			// The time to act ran out while acting, so the action is no longer wanted
+			if (!isActionOver()) {
+				throw e;
+			}
+		} finally {
+			acting = null;
 		}
+	}
 
-		// Perform the corresponding action of the user input
-		switch (action.charAt(0)) {
-		case 'c':
-			player.checkOrCall();
-			break;
-		case 'b':
-			int betAmount = Integer.parseInt(userInput("Bet amount: "));
-			player.bet(betAmount);
-			break;
-		case 'f':
-			player.fold();
-			break;
+	/**
+	 * Parses an amount to bet.
+	 * 
+	 * @param amount Input from user
+	 * @return The amount, null if not a number
+	 */
+	private static Integer parseAmount(String amount) {
+		try {
+			return Integer.parseInt(amount.trim());
+		} catch (NumberFormatException e) {
+			return null;
 		}
 	}
 
+	/**
+	 * Checks if a player of user is waiting for input to act, but has been made
+	 * to act as the time to act has run out.
+	 * 
+	 * @return True if input to act is no longer needed, false otherwise
+	 * @see poker_app.game.ActionClock
+	 */
+	protected boolean isActionOver() {
+		Player player = acting;
+		return player != null && player.getGame().getNumActions() != actions;
+	}
+
 	@Override
 	public boolean rebuy(Player player) {
 		// Take an user input which should be either 'y' or 'yes', or 'n' or 'no', which
@@ -62,7 +122,9 @@ public abstract class TextUser extends User {
 		String rebuy = userInput("\n(INPUT) " + this + ", your stack is empty. Do you want to rebuy? ");
 		
 		// Returns true if user input equals 'y' or 'yes', and false if 'n' or 'no'
-		if (rebuy.equalsIgnoreCase("y") || rebuy.equalsIgnoreCase("yes")) {
+		if (rebuy == null) {
+			return false;
+		} else if (rebuy.equalsIgnoreCase("y") || rebuy.equalsIgnoreCase("yes")) {
 			return true;
 		} else if (rebuy.equalsIgnoreCase("n") || rebuy.equalsIgnoreCase("no")) {
 			return false;
@@ -90,7 +152,7 @@ public abstract class TextUser extends User {
 	 * Takes input from user.
 	 * 
 	 * @param line Output for user
-	 * @return Input from user as a String
+	 * @return Input from user as a String, null if there is none
 	 */
 	protected abstract String userInput(String line);
 }
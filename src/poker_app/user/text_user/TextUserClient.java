@@ -17,38 +17,34 @@ public class TextUserClient {
 	private static void launch() throws IOException {
 		Scanner scanner = new Scanner(System.in);
 		
-		System.out.print("Game port:");
-		int gamePort = Integer.parseInt(scanner.nextLine());
+		System.out.print("Server port:");
+		int port = Integer.parseInt(scanner.nextLine());
 		
-		System.out.print("Input port:");
-		int inputPort = Integer.parseInt(scanner.nextLine());
+		Socket socket = new Socket("localhost", port);
+		BufferedReader reader = readerOnSocket(socket);
+		PrintWriter printWriter = new PrintWriter(socket.getOutputStream());
 		
-		
-		Socket gameSocket = new Socket("localhost", gamePort);
-		Socket inputSocket = new Socket("localhost", inputPort);
-		
-		BufferedReader gameReader = readerOnSocket(gameSocket);
-		BufferedReader inputReader = readerOnSocket(inputSocket);
-		
-		PrintWriter printWriter = new PrintWriter(inputSocket.getOutputStream());
-		
-		while (true) {
-			if (gameReader.ready()) {
-				while (gameReader.ready()) {
-					System.out.println(gameReader.readLine());
+		// Print everything the server sends
+		Thread readThread = new Thread(() -> {
+			try {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					System.out.println(line);
 				}
+			} catch (IOException e) {
+				System.out.println("Error while reading from server.");
 			}
-			if (inputReader.ready()) {
-				System.out.print(inputReader.readLine());
-				while (inputReader.ready()) {
-					System.out.println();
-					System.out.print(inputReader.readLine());
-				}
-				
-				printWriter.println(scanner.nextLine());
-				printWriter.flush();
-			}
+			System.exit(0);
+		});
+		readThread.setDaemon(true);
+		readThread.start();
+		
+		// Send every line typed, such as JOIN Table1 name, c, b 40 or pre x
+		while (scanner.hasNextLine()) {
+			printWriter.println(scanner.nextLine());
+			printWriter.flush();
 		}
+		socket.close();
 	}
 	
 	public static void main(String[] args) {
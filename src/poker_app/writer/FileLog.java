@@ -0,0 +1,445 @@
+package poker_app.writer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Represents files of records, such as hand histories, appended to by many
+ * threads and written by one thread of its own.
+ * <p>
+ * Records are copied into a buffer allocated once, and the thread writes
+ * everything appended since its last write through a {@link FileChannel} in one
+ * go (group commit), so hundreds of tables can share one log without each
+ * waiting for the disk. Appending only waits if the buffer is full.
+ * <p>
+ * Written bytes are forced to the disk every {@link #fsyncMillis}. The log
+ * moves on to a new file at the end of the first record that brings the
+ * current one to {@link #maxFileBytes} bytes or {@link #maxFileRecords}
+ * records, so a record is never split between files. Files are named by
+ * {@link #path}, then {@link #path} followed by .1, .2 and so on.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class FileLog implements Runnable {
+	// STATIC
+	/** Bytes of the buffer by default. */
+	public final static int DEFAULT_BUFFER_BYTES = 1 << 20;
+	/** Milliseconds between forcing written bytes to the disk by default. */
+	public final static long DEFAULT_FSYNC_MILLIS = 1000;
+
+	// CONSTANTS
+	/** Path of the first file. */
+	private final String path;
+	/** Records appended but not yet written, from {@link #tail} to {@link #head}. */
+	private final ByteBuffer buffer;
+	/**
+	 * Milliseconds between forcing written bytes to the disk, 0 to force after
+	 * every write, less than 0 to leave it to the system.
+	 */
+	private final long fsyncMillis;
+	/** Bytes of a file before moving on to the next, 0 or less for no limit. */
+	private final long maxFileBytes;
+	/** Records of a file before moving on to the next, 0 or less for no limit. */
+	private final int maxFileRecords;
+	/** Held by a thread for the whole of its record, so records are never interleaved. */
+	private final ReentrantLock appending = new ReentrantLock();
+	/** Guards the fields shared with {@link #thread}. */
+	private final ReentrantLock lock = new ReentrantLock();
+	/** Signalled when bytes are appended or the log is closed. */
+	private final Condition appended = lock.newCondition();
+	/** Signalled when bytes are written. */
+	private final Condition written = lock.newCondition();
+
+	// NON-CONSTANTS
+	// Guarded by lock
+	/** Number of bytes appended in total. */
+	private long head = 0;
+	/** Number of bytes written in total. */
+	private long tail = 0;
+	/** {@link #head} at the end of each record not yet written, from {@link #firstEnd}. */
+	private long[] recordEnds = new long[64];
+	/** Index in {@link #recordEnds} of the first end. */
+	private int firstEnd = 0;
+	/** Number of ends in {@link #recordEnds}. */
+	private int numEnds = 0;
+	/** If the log is open for appending. */
+	private boolean open = false;
+	/** Thread writing the files. */
+	private Thread thread;
+
+	// Used by thread only
+	/** The current file, null if the next is to be opened before writing. */
+	private FileChannel channel;
+	/** Ends of the records being written. */
+	private long[] writingEnds = new long[64];
+	/** Number of the current file, 0 for {@link #path}. */
+	private volatile int fileNumber;
+	/** Bytes in the current file. */
+	private long fileBytes;
+	/** Records written to the current file. */
+	private long fileRecords;
+	/** {@link System#nanoTime()} when written bytes were last forced. */
+	private long lastSync;
+	/** If bytes are written but not forced. */
+	private boolean unsynced;
+
+	/**
+	 * Inits: {@link #buffer} as {@link #DEFAULT_BUFFER_BYTES} bytes,
+	 * {@link #fsyncMillis} as {@link #DEFAULT_FSYNC_MILLIS}, with no limit to
+	 * files
+	 *
+	 * @see #FileLog(String, int, long, long, int)
+	 */
+	public FileLog(String path) {
+		this(path, DEFAULT_BUFFER_BYTES, DEFAULT_FSYNC_MILLIS, 0, 0);
+	}
+
+	/**
+	 * Inits: {@link #path} as param path, {@link #buffer} as a direct buffer of
+	 * param bufferBytes bytes, {@link #fsyncMillis} as param fsyncMillis,
+	 * {@link #maxFileBytes} as param maxFileBytes, {@link #maxFileRecords} as
+	 * param maxFileRecords
+	 *
+	 * @param path           Path of the first file
+	 * @param bufferBytes    Bytes of the buffer
+	 * @param fsyncMillis    Milliseconds between forcing written bytes to the
+	 *                       disk, 0 to force after every write, less than 0 to
+	 *                       leave it to the system
+	 * @param maxFileBytes   Bytes of a file before moving on to the next, 0 or
+	 *                       less for no limit
+	 * @param maxFileRecords Records of a file before moving on to the next, 0 or
+	 *                       less for no limit
+	 * @throws IllegalArgumentException if param bufferBytes is less than 1
+	 */
+	public FileLog(String path, int bufferBytes, long fsyncMillis, long maxFileBytes, int maxFileRecords) {
+		// Exceptions
+		if (bufferBytes < 1) {
+			throw new IllegalArgumentException("The int bufferBytes must be at least 1.");
+		}
+
+		// Inits
+		this.path = path;
+		buffer = ByteBuffer.allocateDirect(bufferBytes);
+		this.fsyncMillis = fsyncMillis;
+		this.maxFileBytes = maxFileBytes;
+		this.maxFileRecords = maxFileRecords;
+	}
+
+	/**
+	 * Opens the last file of the log for appending, and starts {@link #thread}.
+	 *
+	 * @throws IOException if the file can not be opened
+	 */
+	public void open() throws IOException {
+		lock.lock();
+		try {
+			if (open) {
+				return;
+			}
+
+			// Go on with the last file
+			fileNumber = 0;
+			while (new File(fileName(fileNumber + 1)).exists()) {
+				fileNumber++;
+			}
+			openFile();
+			fileRecords = 0;
+
+			open = true;
+			thread = new Thread(this, "FileLog-" + new File(path).getName());
+			thread.setDaemon(true);
+			thread.start();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Writes everything appended, forces it to the disk and closes the log.
+	 */
+	public void close() {
+		Thread closing;
+		lock.lock();
+		try {
+			if (!open) {
+				return;
+			}
+			open = false;
+			closing = thread;
+			appended.signal();
+		} finally {
+			lock.unlock();
+		}
+
+		try {
+			closing.join();
+		} catch (InterruptedException e) {
+			System.out.println("Error while joining thread " + closing + ".");
+		}
+	}
+
+	/**
+	 * Appends a record, waiting while the buffer is full. A record larger than
+	 * the buffer is appended in parts.
+	 *
+	 * @param record Bytes of the record
+	 * @throws IllegalStateException if the log is not open
+	 */
+	public void append(byte[] record) {
+		appending.lock();
+		lock.lock();
+		try {
+			int done = 0;
+			while (done < record.length) {
+				if (!open) {
+					throw new IllegalStateException("The log " + path + " is not open.");
+				}
+
+				// Wait for room
+				int free = buffer.capacity() - (int) (head - tail);
+				if (free == 0) {
+					written.awaitUninterruptibly();
+					continue;
+				}
+
+				// Copy what fits, in up to two parts as the buffer wraps around
+				int n = Integer.min(free, record.length - done);
+				int at = (int) (head % buffer.capacity());
+				int first = Integer.min(n, buffer.capacity() - at);
+				buffer.put(at, record, done, first);
+				buffer.put(0, record, done + first, n - first);
+				head += n;
+				done += n;
+				appended.signal();
+			}
+
+			// Remember where the record ends
+			if (numEnds == recordEnds.length) {
+				long[] grown = new long[2 * numEnds];
+				for (int i = 0; i < numEnds; i++) {
+					grown[i] = recordEnds[(firstEnd + i) % numEnds];
+				}
+				recordEnds = grown;
+				firstEnd = 0;
+			}
+			recordEnds[(firstEnd + numEnds++) % recordEnds.length] = head;
+		} finally {
+			lock.unlock();
+			appending.unlock();
+		}
+	}
+
+	/**
+	 * Waits until everything appended so far is written to the file.
+	 */
+	public void flush() {
+		lock.lock();
+		try {
+			long target = head;
+			while (tail < target && open) {
+				written.awaitUninterruptibly();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Writes what is appended, in one write for all records appended since the
+	 * last, split only where the log moves on to the next file, until the log is
+	 * closed.
+	 */
+	@Override
+	public void run() {
+		while (true) {
+			// Wait for bytes to write, or until written bytes are to be forced
+			long from, to;
+			int ends = 0;
+			boolean closing;
+			lock.lock();
+			try {
+				while (head == tail && open) {
+					if (unsynced && fsyncMillis > 0) {
+						long wait = fsyncMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastSync);
+						if (wait <= 0) {
+							break;
+						}
+						try {
+							appended.await(wait, TimeUnit.MILLISECONDS);
+						} catch (InterruptedException e) {
+							System.out.println("Error while waiting to force " + fileName(fileNumber) + ".");
+						}
+					} else {
+						appended.awaitUninterruptibly();
+					}
+				}
+				from = tail;
+				to = head;
+				closing = !open && head == tail;
+
+				// Take the ends of the records to write
+				if (writingEnds.length < numEnds) {
+					writingEnds = new long[recordEnds.length];
+				}
+				while (numEnds > 0 && recordEnds[firstEnd] <= to) {
+					writingEnds[ends++] = recordEnds[firstEnd];
+					firstEnd = (firstEnd + 1) % recordEnds.length;
+					numEnds--;
+				}
+			} finally {
+				lock.unlock();
+			}
+
+			if (to > from) {
+				// Write up to the end of a record that fills the file, and move on to the next
+				long start = from;
+				for (int i = 0; i < ends; i++) {
+					fileRecords++;
+					if ((maxFileBytes > 0 && fileBytes + (writingEnds[i] - start) >= maxFileBytes)
+							|| (maxFileRecords > 0 && fileRecords >= maxFileRecords)) {
+						write(start, writingEnds[i]);
+						start = writingEnds[i];
+						rotate();
+					}
+				}
+				write(start, to);
+
+				lock.lock();
+				try {
+					tail = to;
+					written.signalAll();
+				} finally {
+					lock.unlock();
+				}
+			}
+
+			// Force written bytes to the disk when due
+			if (unsynced && fsyncMillis >= 0
+					&& (closing || TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastSync) >= fsyncMillis)) {
+				sync();
+			}
+
+			if (closing) {
+				break;
+			}
+		}
+
+		// Close the file
+		if (channel != null) {
+			sync();
+			try {
+				channel.close();
+			} catch (IOException e) {
+				System.out.println("Error while closing " + fileName(fileNumber) + ".");
+			}
+		}
+	}
+
+	/**
+	 * Writes bytes of {@link #buffer} to the current file, opening the next file
+	 * first if the last is closed.
+	 *
+	 * @param from Number of bytes appended in total before the first to write
+	 * @param to   Number of bytes appended in total after the last to write
+	 */
+	private void write(long from, long to) {
+		if (to == from) {
+			return;
+		}
+
+		try {
+			if (channel == null) {
+				fileNumber++;
+				openFile();
+			}
+
+			// Write in up to two parts as the buffer wraps around
+			int start = (int) (from % buffer.capacity());
+			int length = (int) (to - from);
+			int first = Integer.min(length, buffer.capacity() - start);
+			ByteBuffer[] parts = { buffer.duplicate().position(start).limit(start + first),
+					buffer.duplicate().position(0).limit(length - first) };
+			long left = length;
+			while (left > 0) {
+				left -= channel.write(parts);
+			}
+			fileBytes += length;
+			unsynced = true;
+		} catch (IOException e) {
+			System.out.println("Error while writing to " + fileName(fileNumber) + ".");
+		}
+	}
+
+	/**
+	 * Forces written bytes to the disk.
+	 */
+	private void sync() {
+		try {
+			channel.force(false);
+		} catch (IOException e) {
+			System.out.println("Error while forcing " + fileName(fileNumber) + " to disk.");
+		}
+		lastSync = System.nanoTime();
+		unsynced = false;
+	}
+
+	/**
+	 * Forces and closes the current file. The next is opened when there is
+	 * something to write to it.
+	 */
+	private void rotate() {
+		sync();
+		try {
+			channel.close();
+		} catch (IOException e) {
+			System.out.println("Error while closing " + fileName(fileNumber) + ".");
+		}
+		channel = null;
+		fileBytes = 0;
+		fileRecords = 0;
+	}
+
+	/**
+	 * Opens file number {@link #fileNumber} for appending.
+	 *
+	 * @throws IOException if the file can not be opened
+	 */
+	private void openFile() throws IOException {
+		channel = FileChannel.open(Paths.get(fileName(fileNumber)), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		fileBytes = channel.size();
+		lastSync = System.nanoTime();
+	}
+
+	/**
+	 * @param number Number of file
+	 * @return The name of the file, {@link #path} for 0
+	 */
+	private String fileName(int number) {
+		return (number == 0) ? path : path + "." + number;
+	}
+
+	// ----------------
+	// Setters/Getters:
+	// ----------------
+
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * @return The number of the current file, 0 for {@link #path}
+	 */
+	public int getFileNumber() {
+		return fileNumber;
+	}
+}
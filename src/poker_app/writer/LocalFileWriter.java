@@ -1,66 +1,122 @@
 package poker_app.writer;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * A {@link Writer} that writes to a file.
  * <p>
- * Last modified: 4 April 2021
- * 
+ * Lines are gathered until the end of each hand, and the hand is then appended
+ * to a {@link FileLog} as one record, so hands are never split between files
+ * and the writing thread never waits for the disk. Many writers, such as one
+ * per table, can share one log.
+ * <p>
+ * Last modified: 18 October 2026
+ *
  * @author Jakob Martin Torsvik
  *
  */
 public class LocalFileWriter implements Writer {
+	// STATIC
+	/** Characters gathered before they are appended even if the hand has not ended. */
+	private final static int MAX_PENDING = 1 << 16;
+
+	// CONSTANTS
 	/** Path to the file to write to. */
 	private final String filePath;
-	/** For writing to the file. */
-	private BufferedWriter writer;
+	/** Lines of the current hand. */
+	private final StringBuilder pending = new StringBuilder();
+	/** If {@link #log} is made by this writer, and opened and closed with it. */
+	private final boolean ownsLog;
+
+	// NON-CONSTANTS
+	/** Log to append hands to. */
+	private FileLog log;
 
 	/**
-	 * Inits: {@link #filePath} as param filePath
-	 * 
+	 * Inits: {@link #filePath} as param filePath, {@link #log} as a log of its
+	 * own when opened
+	 *
 	 * @param filePath Path to file to be written to
 	 */
 	public LocalFileWriter(String filePath) {
 		this.filePath = filePath;
+		ownsLog = true;
+	}
+
+	/**
+	 * Inits: {@link #log} as param log, which is opened and closed by whoever made
+	 * it
+	 *
+	 * @param log Log to append hands to, shared with other writers
+	 */
+	public LocalFileWriter(FileLog log) {
+		filePath = log.getPath();
+		this.log = log;
+		ownsLog = false;
 	}
 
 	/**
 	 * Opens the writer.
 	 */
 	public void open() {
+		if (!ownsLog) {
+			return;
+		}
 		try {
-			writer = new BufferedWriter(new FileWriter(filePath, true));
+			log = new FileLog(filePath);
+			log.open();
 		} catch (IOException e) {
-			System.out.println("Exception error!");
+			System.out.println("Error while opening " + filePath + ".");
 		}
 	}
 
 	/**
-	 * Closes the writer.
+	 * Appends what is gathered, and closes the writer.
 	 */
-	public void close() {
-		try {
-			writer.close();
-		} catch (IOException e) {
-			System.out.println("Exception error!");
+	public synchronized void close() {
+		commit();
+		if (ownsLog) {
+			log.close();
+		} else {
+			log.flush();
 		}
 	}
 
 	/**
-	 * Writes one line to {@link #printedHandsFile}.
-	 * 
+	 * Gathers one line, to be appended to {@link #log} at the end of the hand.
+	 *
 	 * @param line Line to write
 	 */
 	@Override
-	public void write(String line) {
+	public synchronized void write(String line) {
+		pending.append(line).append('\n');
+		if (pending.length() >= MAX_PENDING) {
+			commit();
+		}
+	}
+
+	/**
+	 * Appends the lines of the hand to {@link #log} as one record.
+	 */
+	@Override
+	public synchronized void endOfHand() {
+		commit();
+	}
+
+	/**
+	 * Appends what is gathered in {@link #pending} to {@link #log}.
+	 */
+	private void commit() {
+		if (pending.length() == 0) {
+			return;
+		}
 		try {
-			writer.write(line + "\n");
-		} catch (IOException e) {
-			System.out.println("Exception error!");
+			log.append(pending.toString().getBytes(StandardCharsets.UTF_8));
+		} catch (IllegalStateException e) {
+			System.out.println("Error while writing to " + filePath + ": " + e.getMessage());
 		}
+		pending.setLength(0);
 	}
 
 }
@@ -1,29 +1,45 @@
 package poker_app.writer;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A {@link Writer} that writes to all connections on a {@link ServerSocket}.
  * <p>
- * Last modified: 4 April 2021
+ * Writing only queues the line on each connection, in a bounded queue drained
+ * by a thread of the connection that writes all queued lines at once. A
+ * connection whose queue is full is handled by a {@link SlowConsumer} policy,
+ * so the table never waits for the slowest client.
+ * <p>
+ * Last modified: 18 October 2026
  *
  * @author Jakob Martin Torsvik
  *
  */
 public class ServerWriter implements Writer {
+	// STATIC
+	/** Maximum number of lines queued per connection by default. */
+	public final static int DEFAULT_MAX_QUEUED = 1024;
+
 	// CONSTANTS
-	/**
-	 * List of {@link PrintWriter}s for writing to connections on
-	 * {@link #serverSocket}.
-	 */
-	private final List<PrintWriter> printWriters = new ArrayList<>();
+	/** Connections on {@link #serverSocket}. */
+	private final List<Connection> connections = new CopyOnWriteArrayList<>();
 	/** Maximum number of connections on {@link #serverSocket}. */
 	private final int maxConns;
+	/** Maximum number of lines queued per connection. */
+	private final int maxQueued;
+	/** {@link SlowConsumer} policy for connections with a full queue. */
+	private final char policy;
 
 	// NON-CONSTANTS
 	/** Socket where clients connects to. */
@@ -32,15 +48,37 @@ public class ServerWriter implements Writer {
 	 * True if currently accepting new connections on {@link #serverSocket}. False
 	 * otherwise.
 	 */
-	private boolean accepting = false;
+	private volatile boolean accepting = false;
 	/** Thread for looking for and accepting new connections. */
 	private Thread acceptThread;
 
 	/**
-	 * Inits: {@link #serverSocket} as a {@link ServerSocket} on {@link #port}.
+	 * Inits: {@link #maxQueued} as {@link #DEFAULT_MAX_QUEUED}, {@link #policy}
+	 * as {@link SlowConsumer#DROP}
+	 *
+	 * @see #ServerWriter(int, int, int, char)
 	 */
 	public ServerWriter(int port, int maxConns) {
+		this(port, maxConns, DEFAULT_MAX_QUEUED, SlowConsumer.DROP);
+	}
+
+	/**
+	 * Inits: {@link #serverSocket} as a {@link ServerSocket} on param port,
+	 * {@link #maxConns} as param maxConns, {@link #maxQueued} as param maxQueued,
+	 * {@link #policy} as param policy
+	 *
+	 * @param port      Port to accept connections on
+	 * @param maxConns  Maximum number of connections
+	 * @param maxQueued Maximum number of lines queued per connection, set to 1 if
+	 *                  less than 1
+	 * @param policy    {@link SlowConsumer} policy for connections with a full
+	 *                  queue
+	 * @throws IllegalArgumentException if param policy is not a policy
+	 */
+	public ServerWriter(int port, int maxConns, int maxQueued, char policy) {
 		this.maxConns = maxConns;
+		this.maxQueued = Integer.max(maxQueued, 1);
+		this.policy = SlowConsumer.check(policy);
 		try {
 			serverSocket = new ServerSocket(port);
 		} catch (IOException e) {
@@ -54,15 +92,15 @@ public class ServerWriter implements Writer {
 	public synchronized void startAccepting() {
 		// Now accepting connections
 		accepting = true;
-		
+
 		// Initialize and start acceptThread
 		acceptThread = new Thread(new Runnable() {
 			@Override
 			public void run() {
-				while (accepting && printWriters.size() < maxConns) {
+				while (accepting && connections.size() < maxConns) {
 					try {
 						Socket s = serverSocket.accept();
-						printWriters.add(new PrintWriter(s.getOutputStream()));
+						connections.add(new Connection(s));
 					} catch (IOException e) {
 						System.out.println("Error while accepting on server socket.");
 					}
@@ -71,21 +109,21 @@ public class ServerWriter implements Writer {
 		});
 		acceptThread.start();
 	}
-	
+
 	/**
 	 * Makes {@link #serverSocket} stop accepting connections.
 	 */
 	public synchronized void stopAccepting() {
 		// No longer accepting new connections
 		accepting = false;
-		
+
 		// Close serverSocket
 		try {
 			serverSocket.close();
 		} catch (IOException e) {
 			System.out.println("Error while closing server socket.");
 		}
-		
+
 		// Join acceptThread
 		try {
 			acceptThread.join();
@@ -95,14 +133,159 @@ public class ServerWriter implements Writer {
 	}
 
 	/**
-	 * Writes one line on all connected sockets using {@link #printWriters}.
+	 * Queues one line on all connections in {@link #connections}, without
+	 * waiting for any of them.
 	 */
 	@Override
 	public void write(String line) {
-		for (PrintWriter pw : printWriters) {
-			pw.println(line);
-			pw.flush();
+		for (Connection connection : connections) {
+			connection.offer(line);
 		}
 	}
 
+	/**
+	 * @return The number of lines dropped or skipped over all connections
+	 */
+	public int getNumSkipped() {
+		int skipped = 0;
+		for (Connection connection : connections) {
+			skipped += connection.skipped.get();
+		}
+		return skipped;
+	}
+
+	// --------
+	// Classes:
+	// --------
+
+	/**
+	 * One connection, with its queue of lines and the thread writing them.
+	 */
+	private class Connection implements Runnable {
+		/** The socket. */
+		private final Socket socket;
+		/** Buffers each batch of lines into one write. */
+		private final BufferedWriter out;
+		/** Lines to write. */
+		private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(maxQueued);
+		/** Lines dropped or skipped and not yet told to the client. */
+		private final AtomicInteger unreported = new AtomicInteger();
+		/** Lines dropped or skipped in total. */
+		private final AtomicInteger skipped = new AtomicInteger();
+		/** If the connection is closed. */
+		private volatile boolean closed = false;
+
+		/**
+		 * Inits: {@link #socket} as param socket, and starts the thread writing to
+		 * it
+		 *
+		 * @param socket The socket
+		 * @throws IOException if the socket can not be written
+		 */
+		private Connection(Socket socket) throws IOException {
+			this.socket = socket;
+			out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+			Thread thread = new Thread(this, "ServerWriter-" + socket.getPort());
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		/**
+		 * Queues a line, or applies {@link #policy} if the queue is full.
+		 *
+		 * @param line Line to write
+		 */
+		private void offer(String line) {
+			if (closed || queue.offer(line)) {
+				return;
+			}
+
+			switch (policy) {
+			case SlowConsumer.DROP:
+				skip(1);
+				break;
+			case SlowConsumer.COALESCE:
+				// Skip the backlog, so the client catches up to this line
+				skip(queue.size());
+				queue.clear();
+				if (!queue.offer(line)) {
+					skip(1);
+				}
+				break;
+			case SlowConsumer.DISCONNECT:
+				close();
+				break;
+			}
+		}
+
+		/**
+		 * Counts lines not written.
+		 *
+		 * @param lines Number of lines
+		 */
+		private void skip(int lines) {
+			unreported.addAndGet(lines);
+			skipped.addAndGet(lines);
+		}
+
+		/**
+		 * Writes lines as they are queued, all lines queued at the time in one
+		 * write, until the connection is closed.
+		 */
+		@Override
+		public void run() {
+			List<String> batch = new ArrayList<>(maxQueued);
+			try {
+				while (!closed) {
+					// Wait for a line, then take all queued with it
+					batch.add(queue.take());
+					if (closed) {
+						break;
+					}
+					queue.drainTo(batch);
+
+					// Tell the client if lines were left out
+					int left = unreported.getAndSet(0);
+					if (left > 0) {
+						out.write("<<<Skipped " + left + " lines>>>");
+						out.newLine();
+					}
+
+					for (String line : batch) {
+						out.write(line);
+						out.newLine();
+					}
+					out.flush();
+					batch.clear();
+				}
+			} catch (IOException e) {
+				if (!closed) {
+					System.out.println("Error while writing to " + socket.getRemoteSocketAddress() + ".");
+				}
+			} catch (InterruptedException e) {
+				System.out.println("Error while waiting for lines to write.");
+			}
+			close();
+		}
+
+		/**
+		 * Closes the connection and stops its thread.
+		 */
+		private void close() {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			connections.remove(this);
+
+			// Wake the thread if it is waiting for a line
+			queue.clear();
+			queue.offer("");
+			try {
+				socket.close();
+			} catch (IOException e) {
+				System.out.println("Error while closing connection.");
+			}
+		}
+	}
 }
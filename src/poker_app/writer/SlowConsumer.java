@@ -0,0 +1,43 @@
+package poker_app.writer;
+
+/**
+ * Represents what to do with a client that reads slower than a table writes,
+ * once its bounded outbound queue is full, so that the table never waits for
+ * it.
+ * <p>
+ * Last modified: 18 October 2026
+ *
+ * @author Jakob Martin Torsvik
+ */
+public class SlowConsumer {
+	// STATIC
+	/** Policy that drops what is written while the queue is full. */
+	public final static char DROP = 'd';
+	/**
+	 * Policy that throws away what is queued but not yet being written, so the
+	 * client skips ahead to what is written now.
+	 */
+	public final static char COALESCE = 'c';
+	/** Policy that closes the connection. */
+	public final static char DISCONNECT = 'x';
+
+	/**
+	 * Checks that a char is a policy.
+	 *
+	 * @param policy {@link #DROP}, {@link #COALESCE} or {@link #DISCONNECT}
+	 * @return param policy
+	 * @throws IllegalArgumentException if param policy is not a policy
+	 */
+	public static char check(char policy) {
+		if (policy != DROP && policy != COALESCE && policy != DISCONNECT) {
+			throw new IllegalArgumentException("The char policy must be 'd', 'c' or 'x'.");
+		}
+		return policy;
+	}
+
+	/**
+	 * Holds constants only.
+	 */
+	private SlowConsumer() {
+	}
+}
@@ -9,5 +9,13 @@ package poker_app.writer;
 public interface Writer {
 	
 	public void write(String line);
+
+	/**
+	 * Marks the end of a hand, after its last line is written. Writers that
+	 * gather lines may hand them on here, and writers that move on to new files
+	 * may do so here, so a hand is never split. Does nothing by default.
+	 */
+	public default void endOfHand() {
+	}
 	
 }